@@ -0,0 +1,29 @@
+package com.example.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "inventory.ledger")
+public class InventoryLedgerProperties {
+    /**
+     * Serve stock for hot products from the in-memory ledger instead of the products table.
+     * The ledger assumes a single node takes orders for the hot products.
+     */
+    private boolean enabled = false;
+
+    private Set<Long> hotProductIds = new HashSet<>();
+
+    /**
+     * Number of independent counters each hot product's stock is split across.
+     */
+    private int stripes = Runtime.getRuntime().availableProcessors();
+
+    private Duration flushInterval = Duration.ofMillis(200);
+}
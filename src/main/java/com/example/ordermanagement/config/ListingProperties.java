@@ -0,0 +1,16 @@
+package com.example.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "listings")
+public class ListingProperties {
+
+    /**
+     * Rows the database cursor hands over per round trip when a listing is streamed.
+     */
+    private int fetchSize = 1000;
+}
@@ -0,0 +1,24 @@
+package com.example.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "orders.export")
+public class OrderExportProperties {
+
+    /**
+     * Rows the database cursor hands over per round trip, which bounds what an export holds in memory.
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * How long one export may stream before the request times out. Only applies to exports; other
+     * asynchronous requests keep the default timeout.
+     */
+    private Duration timeout = Duration.ofHours(1);
+}
@@ -0,0 +1,28 @@
+package com.example.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "orders.search-cache")
+public class OrderSearchCacheProperties {
+    private boolean enabled = true;
+
+    /**
+     * Search pages kept in memory; the least recently used page is evicted beyond this.
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * How long a cached page may be served, even if the user's orders did not change. Invalidation
+     * is node-local, so with several nodes this is also how long a change made on one node can stay
+     * invisible to searches on the others; single-node deployments can raise it.
+     */
+    private Duration ttl = Duration.ofSeconds(5);
+
+    private Duration purgeInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,28 @@
+package com.example.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "outbox.relay")
+public class OutboxProperties {
+    private boolean enabled = true;
+
+    /**
+     * Events claimed and published per transaction.
+     */
+    private int batchSize = 100;
+
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    /**
+     * How long published events are kept before they are purged.
+     */
+    private Duration retention = Duration.ofDays(7);
+}
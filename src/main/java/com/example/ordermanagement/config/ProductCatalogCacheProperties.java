@@ -0,0 +1,27 @@
+package com.example.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "products.catalog-cache")
+public class ProductCatalogCacheProperties {
+    private boolean enabled = true;
+
+    /**
+     * Products held at most; the least recently used one is evicted beyond that.
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * How long a product is served from the cache. Changes made through this instance invalidate
+     * it right away, so this only bounds how long changes made elsewhere go unseen.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    private Duration purgeInterval = Duration.ofMinutes(1);
+}
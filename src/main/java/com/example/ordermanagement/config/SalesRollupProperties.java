@@ -0,0 +1,27 @@
+package com.example.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "analytics.rollups")
+public class SalesRollupProperties {
+    /**
+     * Rows each day's totals are spread over, so concurrent orders rarely update the same row.
+     */
+    private int slots = 16;
+
+    /**
+     * Orders, by id range, aggregated by one worker at a time during a rebuild.
+     */
+    private int rebuildChunkSize = 100_000;
+
+    /**
+     * Workers aggregating chunks during a rebuild. Each holds a pooled connection, on top of the one
+     * the rebuild itself keeps open, so keep this well below the connection pool size to leave
+     * connections for order writes.
+     */
+    private int rebuildThreads = 4;
+}
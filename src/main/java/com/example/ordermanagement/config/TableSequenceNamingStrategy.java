@@ -0,0 +1,33 @@
+package com.example.ordermanagement.config;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.id.enhanced.StandardNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Names the implicit id sequence of each entity {@code <table>_id_seq}, which is the sequence
+ * PostgreSQL created for the table's {@code BIGSERIAL} id column.
+ */
+public class TableSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+    private final StandardNamingStrategy standardNamingStrategy = new StandardNamingStrategy();
+
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName,
+                                               Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        var tableName = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        return new QualifiedSequenceName(catalogName, schemaName, Identifier.toIdentifier(tableName + "_id_seq"));
+    }
+
+    @Override
+    public QualifiedName determineTableName(Identifier catalogName, Identifier schemaName,
+                                            Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        return standardNamingStrategy.determineTableName(catalogName, schemaName, configValues, serviceRegistry);
+    }
+}
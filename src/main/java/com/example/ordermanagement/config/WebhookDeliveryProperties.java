@@ -0,0 +1,59 @@
+package com.example.ordermanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "webhooks.delivery")
+public class WebhookDeliveryProperties {
+    private boolean enabled = true;
+
+    private Duration pollInterval = Duration.ofMillis(250);
+
+    /**
+     * Requests in flight at once to a single webhook. A slow endpoint only ever holds this many.
+     */
+    private int maxInFlightPerEndpoint = 4;
+
+    /**
+     * Attempts after which a delivery is given up and marked failed.
+     */
+    private int maxAttempts = 10;
+
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    private Duration maxBackoff = Duration.ofMinutes(10);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long a claimed delivery stays invisible to other nodes. Must exceed the request timeout.
+     */
+    private Duration lease = Duration.ofMinutes(1);
+
+    /**
+     * Consecutive failures after which an endpoint's circuit opens.
+     */
+    private int circuitFailureThreshold = 5;
+
+    /**
+     * How long an open circuit rejects deliveries before a single trial request is let through.
+     */
+    private Duration circuitOpenDuration = Duration.ofSeconds(30);
+
+    /**
+     * How often aggregated delivery outcomes are written to the webhooks table.
+     */
+    private Duration statusFlushInterval = Duration.ofMillis(250);
+
+    /**
+     * Webhooks with an unflushed status update, beyond which further outcomes are dropped.
+     */
+    private int maxPendingStatusUpdates = 10_000;
+}
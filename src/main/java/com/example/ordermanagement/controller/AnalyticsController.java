@@ -0,0 +1,41 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.dto.RevenueRowDto;
+import com.example.ordermanagement.service.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analytics", description = "Sales reporting endpoints")
+public class AnalyticsController {
+    private final SalesRollupService salesRollupService;
+
+    @GetMapping("/revenue")
+    @Operation(summary = "Get order count, units and revenue per day, status or product")
+    public ResponseEntity<List<RevenueRowDto>> getRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "day") String groupBy,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(salesRollupService.getRevenue(from, to, status, groupBy, limit));
+    }
+
+    @PostMapping("/revenue/rebuild")
+    @Operation(summary = "Start rebuilding the sales rollups from the orders in the background")
+    public ResponseEntity<Void> rebuildRevenue() {
+        return salesRollupService.startRebuild()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.ordermanagement.controller;
+
+/**
+ * Strong entity tags built from the {@code version} column, which changes on every write of the row.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+}
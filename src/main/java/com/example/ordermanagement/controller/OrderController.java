@@ -1,17 +1,29 @@
 package com.example.ordermanagement.controller;
 
+import com.example.ordermanagement.config.OrderExportProperties;
+import com.example.ordermanagement.dto.BatchOrderResult;
 import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.example.ordermanagement.dto.CursorPageDto;
 import com.example.ordermanagement.dto.OrderDto;
 import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.dto.PageDto;
+import com.example.ordermanagement.service.OrderBatchService;
+import com.example.ordermanagement.service.OrderExportService;
 import com.example.ordermanagement.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +33,9 @@ import java.util.UUID;
 @Tag(name = "Orders", description = "Order management endpoints")
 public class OrderController {
     private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
+    private final OrderExportService orderExportService;
+    private final OrderExportProperties orderExportProperties;
 
     @PostMapping
     @Operation(summary = "Create a new order")
@@ -28,10 +43,49 @@ public class OrderController {
         return new ResponseEntity<>(orderService.createOrder(request), HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create many orders at once, reporting a result for each")
+    public ResponseEntity<List<BatchOrderResult>> createOrders(@RequestBody List<CreateOrderRequest> requests) {
+        return ResponseEntity.ok(orderBatchService.createOrders(requests));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Stream all of a user's orders as NDJSON or CSV")
+    public WebAsyncTask<Void> exportOrders(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) {
+        var exportFormat = OrderExportService.Format.of(format);
+        var export = orderExportService.prepareExport(OrderSearchRequest.builder()
+                .userId(userId)
+                .status(status)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build(), exportFormat);
+        response.setContentType(exportFormat.contentType());
+        // Large histories take far longer than the default async timeout, which stays in place for
+        // every other handler
+        return new WebAsyncTask<>(orderExportProperties.getTimeout().toMillis(), () -> {
+            export.writeTo(response.getOutputStream());
+            return null;
+        });
+    }
+
     @GetMapping("/{orderNumber}")
     @Operation(summary = "Get order by order number")
-    public ResponseEntity<OrderDto> getOrder(@PathVariable UUID orderNumber) {
-        return ResponseEntity.ok(orderService.getOrder(orderNumber));
+    public ResponseEntity<OrderDto> getOrder(
+            @PathVariable UUID orderNumber,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            WebRequest webRequest) {
+        // A client polling an unchanged order is answered from the version alone
+        if (ifNoneMatch != null && webRequest.checkNotModified(ETags.of(orderService.getOrderVersion(orderNumber)))) {
+            return null;
+        }
+        var order = orderService.getOrder(orderNumber);
+        return ResponseEntity.ok().eTag(ETags.of(order.getVersion())).body(order);
     }
 
     @PostMapping("/{orderNumber}/cancel")
@@ -43,8 +97,13 @@ public class OrderController {
 
     @PostMapping("/search")
     @Operation(summary = "Search user's orders with filters")
-    public ResponseEntity<List<OrderDto>> searchOrders(@RequestBody OrderSearchRequest request) {
-        List<OrderDto> orders = orderService.searchOrders(request);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<PageDto<OrderDto>> searchOrders(@RequestBody OrderSearchRequest request) {
+        return ResponseEntity.ok(orderService.searchOrders(request));
+    }
+
+    @PostMapping("/search/cursor")
+    @Operation(summary = "Search user's orders page by page using a continuation token")
+    public ResponseEntity<CursorPageDto<OrderDto>> searchOrdersByCursor(@RequestBody OrderSearchRequest request) {
+        return ResponseEntity.ok(orderService.searchOrdersByCursor(request));
     }
 } 
\ No newline at end of file
@@ -1,25 +1,33 @@
 package com.example.ordermanagement.controller;
 
 import com.example.ordermanagement.dto.CreateProductRequest;
+import com.example.ordermanagement.dto.CursorPageDto;
 import com.example.ordermanagement.dto.ProductDto;
+import com.example.ordermanagement.service.ListingStreamService;
 import com.example.ordermanagement.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.math.BigDecimal;
 
 @RestController
 @RequestMapping("/api/v1/products")
 @RequiredArgsConstructor
 @Tag(name = "Products", description = "Product management endpoints")
 public class ProductController {
+
     private final ProductService productService;
+    private final ListingStreamService listingStreamService;
 
     @PostMapping
     @Operation(summary = "Create a new product")
@@ -29,14 +37,42 @@ public class ProductController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID")
-    public ResponseEntity<ProductDto> getProduct(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProduct(id));
+    public ResponseEntity<ProductDto> getProduct(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            WebRequest webRequest) {
+        // A client polling an unchanged product is answered from the version alone
+        if (ifNoneMatch != null && webRequest.checkNotModified(ETags.of(productService.getProductVersion(id)))) {
+            return null;
+        }
+        var product = productService.getProduct(id);
+        return ResponseEntity.ok().eTag(ETags.of(product.getVersion())).body(product);
     }
 
     @GetMapping
-    @Operation(summary = "Get all products")
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    @Operation(summary = "Get a page of products in id order")
+    public ResponseEntity<CursorPageDto<ProductDto>> getProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(productService.getProducts(cursor, size));
+    }
+
+    @GetMapping("/stream")
+    @Operation(summary = "Stream all products as NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        var listing = listingStreamService.streamProducts();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(listing::writeTo);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products by name and description, tolerating typos")
+    public ResponseEntity<CursorPageDto<ProductDto>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(productService.searchProducts(q, cursor, size));
     }
 
     @PutMapping("/{id}/stock")
@@ -47,6 +83,14 @@ public class ProductController {
         return ResponseEntity.ok(productService.updateStock(id, quantity));
     }
 
+    @PutMapping("/{id}/price")
+    @Operation(summary = "Update product price")
+    public ResponseEntity<ProductDto> updatePrice(
+            @PathVariable Long id,
+            @RequestParam BigDecimal price) {
+        return ResponseEntity.ok(productService.updatePrice(id, price));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete product")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
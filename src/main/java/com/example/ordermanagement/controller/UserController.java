@@ -1,24 +1,28 @@
 package com.example.ordermanagement.controller;
 
 import com.example.ordermanagement.dto.CreateUserRequest;
+import com.example.ordermanagement.dto.CursorPageDto;
 import com.example.ordermanagement.dto.UserDto;
+import com.example.ordermanagement.service.ListingStreamService;
 import com.example.ordermanagement.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor
 @Tag(name = "Users", description = "User management endpoints")
 public class UserController {
+
     private final UserService userService;
+    private final ListingStreamService listingStreamService;
 
     @PostMapping
     @Operation(summary = "Create a new user")
@@ -33,9 +37,20 @@ public class UserController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all users")
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    @Operation(summary = "Get a page of users in id order")
+    public ResponseEntity<CursorPageDto<UserDto>> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(userService.getUsers(cursor, size));
+    }
+
+    @GetMapping("/stream")
+    @Operation(summary = "Stream all users as NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        var listing = listingStreamService.streamUsers();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(listing::writeTo);
     }
 
     @DeleteMapping("/{id}")
@@ -1,7 +1,8 @@
 package com.example.ordermanagement.controller;
 
 import com.example.ordermanagement.domain.model.Webhook;
-import com.example.ordermanagement.domain.repository.WebhookRepository;
+import com.example.ordermanagement.dto.WebhookRegistrationRequest;
+import com.example.ordermanagement.service.WebhookRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,20 +16,26 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 @Tag(name = "Webhooks", description = "Webhook configuration endpoints")
 public class WebhookController {
-    private final WebhookRepository webhookRepository;
+    private final WebhookRegistry webhookRegistry;
 
     @PostMapping
     @Operation(summary = "Register a new webhook")
-    public ResponseEntity<Webhook> registerWebhook(@Valid @RequestBody Webhook webhook) {
-        webhook.setRetryCount(0);
-        webhook.setStatus("ACTIVE");
-        return new ResponseEntity<>(webhookRepository.save(webhook), HttpStatus.CREATED);
+    public ResponseEntity<Webhook> registerWebhook(@Valid @RequestBody WebhookRegistrationRequest request) {
+        var webhook = Webhook.builder()
+                .url(request.getUrl())
+                .eventType(request.getEventType())
+                .maxBatchSize(request.getMaxBatchSize())
+                .maxLingerMs(request.getMaxBatchSize() == null ? null : request.getMaxLingerMs())
+                .retryCount(0)
+                .status("ACTIVE")
+                .build();
+        return new ResponseEntity<>(webhookRegistry.register(webhook), HttpStatus.CREATED);
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a webhook")
     public ResponseEntity<Void> deleteWebhook(@PathVariable Long id) {
-        webhookRepository.deleteById(id);
+        webhookRegistry.delete(id);
         return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
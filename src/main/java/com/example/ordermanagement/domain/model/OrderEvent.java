@@ -0,0 +1,39 @@
+package com.example.ordermanagement.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outbox record of an order change, written in the same transaction as the change itself and
+ * published to webhooks afterwards by the relay.
+ */
+@Entity
+@Table(name = "order_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEvent extends BaseEntity {
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private OrderEventType eventType;
+
+    @Column(name = "order_number", nullable = false)
+    private UUID orderNumber;
+
+    /**
+     * UTF-8 JSON of an {@code OrderEventPayload}, exactly as sent to subscribers.
+     */
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "schema_version", nullable = false)
+    private Integer schemaVersion;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+}
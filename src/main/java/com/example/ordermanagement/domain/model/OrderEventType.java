@@ -0,0 +1,6 @@
+package com.example.ordermanagement.domain.model;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_CANCELLED
+}
@@ -29,4 +29,8 @@ public class OrderItem extends BaseEntity {
 
     @Column(name = "total_price", nullable = false)
     private BigDecimal totalPrice;
+
+    @Column(name = "stock_deferred", nullable = false)
+    @Builder.Default
+    private Boolean stockDeferred = Boolean.FALSE;
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.ordermanagement.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running totals of the orders created on one day that are currently in one status. Read and
+ * written in bulk through {@code SalesRollupRepository}; mapped so the schema is known to Hibernate.
+ */
+@Entity
+@Table(name = "sales_rollups")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(nullable = false)
+        private LocalDate day;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 20)
+        private OrderStatus status;
+
+        @Column(nullable = false)
+        private short slot;
+    }
+}
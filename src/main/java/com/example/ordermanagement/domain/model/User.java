@@ -3,9 +3,10 @@ package com.example.ordermanagement.domain.model;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.util.ArrayList;
-import java.util.List;
-
+/**
+ * Orders reference their user, but the user deliberately has no collection of orders so that
+ * writing an order never loads the customer's history. Use {@code OrderRepository} to query them.
+ */
 @Entity
 @Table(name = "users")
 @Getter
@@ -19,20 +20,4 @@ public class User extends BaseEntity {
 
     @Column(nullable = false, unique = true)
     private String email;
-
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
-    @Builder.Default
-    private List<Order> orders = new ArrayList<>();
-
-    public User addOrder(Order order) {
-        orders.add(order);
-        order.setUser(this);
-        return this;
-    }
-
-    public User removeOrder(Order order) {
-        orders.remove(order);
-        order.setUser(null);
-        return this;
-    }
 } 
\ No newline at end of file
@@ -29,4 +29,17 @@ public class Webhook extends BaseEntity {
 
     @Column(name = "last_triggered_at")
     private Instant lastTriggeredAt;
+
+    /**
+     * Largest number of events sent in one request, as a JSON array. {@code null} sends every
+     * event on its own.
+     */
+    @Column(name = "max_batch_size")
+    private Integer maxBatchSize;
+
+    /**
+     * How long due events may wait for a batch to fill up before it is sent anyway.
+     */
+    @Column(name = "max_linger_ms")
+    private Integer maxLingerMs;
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.ordermanagement.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * One order event queued for one webhook. Pending deliveries are picked up once
+ * {@code nextAttemptAt} has passed; a claimed delivery is leased by pushing {@code nextAttemptAt}
+ * past the request timeout, so it is retried if the node sending it dies.
+ */
+@Entity
+@Table(name = "webhook_deliveries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookDelivery extends BaseEntity {
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "webhook_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Webhook webhook;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private OrderEvent event;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WebhookDeliveryStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "delivered_at")
+    private Instant deliveredAt;
+}
@@ -0,0 +1,7 @@
+package com.example.ordermanagement.domain.model;
+
+public enum WebhookDeliveryStatus {
+    PENDING,
+    DELIVERED,
+    FAILED
+}
@@ -0,0 +1,49 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.config.ListingProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+
+/**
+ * Reads whole product and user listings through a server-side cursor, one fetch at a time. Must
+ * run inside a transaction, since PostgreSQL only keeps a cursor open while auto-commit is off.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingRepository {
+    static final String SELECT_PRODUCTS = """
+            SELECT id, name, description, price, stock_quantity
+            FROM products
+            ORDER BY id
+            """;
+
+    static final String SELECT_USERS = """
+            SELECT id, username, email
+            FROM users
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ListingProperties properties;
+
+    public void forEachProduct(RowCallbackHandler handler) {
+        forEachRow(SELECT_PRODUCTS, handler);
+    }
+
+    public void forEachUser(RowCallbackHandler handler) {
+        forEachRow(SELECT_USERS, handler);
+    }
+
+    private void forEachRow(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(properties.getFetchSize());
+            return statement;
+        }, handler);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.domain.model.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    /**
+     * Locks the oldest unpublished events for the current transaction. Rows already locked by
+     * another relay are skipped rather than waited on, so relays on several nodes never claim
+     * the same event.
+     */
+    @Query(value = """
+            SELECT * FROM order_events
+            WHERE published_at IS NULL
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OrderEvent> claimUnpublished(@Param("limit") int limit);
+
+    @Modifying
+    @Query("update OrderEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    Optional<OrderEvent> findFirstByPublishedAtIsNullOrderByIdAsc();
+
+    /**
+     * Deletes old published events together with their webhook deliveries, keeping events that
+     * still have deliveries pending.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM order_events e
+            WHERE e.published_at < :before
+              AND NOT EXISTS (SELECT 1 FROM webhook_deliveries d WHERE d.event_id = e.id AND d.status = 'PENDING')
+            """, nativeQuery = true)
+    int deletePublishedBefore(@Param("before") Instant before);
+}
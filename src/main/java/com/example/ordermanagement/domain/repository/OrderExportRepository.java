@@ -0,0 +1,63 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.config.OrderExportProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads order lines for exports through a server-side cursor, so a result of any size is held
+ * only one fetch at a time. Must run inside a transaction, since PostgreSQL only keeps a cursor
+ * open while auto-commit is off.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderExportRepository {
+    private static final String SELECT_LINES = """
+            SELECT o.id, o.order_number, o.user_id, o.status, o.total_amount, o.created_at,
+                   i.product_id, i.quantity, i.unit_price, i.total_price
+            FROM orders o
+                     LEFT JOIN order_items i ON i.order_id = o.id
+            WHERE o.user_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderExportProperties properties;
+
+    /**
+     * Passes every line of the user's matching orders to {@code handler}, ordered by order
+     * {@code (created_at, id)} so the lines of one order arrive together. An order without items
+     * comes through as one row with null item columns.
+     */
+    public void forEachLine(Long userId, String status, Instant from, Instant to, RowCallbackHandler handler) {
+        var sql = new StringBuilder(SELECT_LINES);
+        List<Object> args = new ArrayList<>(List.of(userId));
+        if (status != null) {
+            sql.append("  AND o.status = ?\n");
+            args.add(status);
+        }
+        if (from != null && to != null) {
+            sql.append("  AND o.created_at BETWEEN ? AND ?\n");
+            args.add(Timestamp.from(from));
+            args.add(Timestamp.from(to));
+        }
+        sql.append("ORDER BY o.created_at, o.id, i.id");
+
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(properties.getFetchSize());
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, handler);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.domain.model.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    /**
+     * Marks a deferred line as settled without touching product stock. Returns zero when the
+     * ledger already wrote the line back to the products table.
+     */
+    @Modifying
+    @Query(value = "UPDATE order_items SET stock_deferred = FALSE WHERE id = :id AND stock_deferred", nativeQuery = true)
+    int clearStockDeferred(@Param("id") Long id);
+}
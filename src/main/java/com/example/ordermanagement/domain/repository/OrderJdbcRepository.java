@@ -0,0 +1,153 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writes for bulk order ingestion, where going through the persistence context
+ * would cost one round trip per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderJdbcRepository {
+    private static final String DECREMENT_STOCK = """
+            UPDATE products
+            SET stock_quantity = stock_quantity - ?,
+                version        = version + 1,
+                updated_at     = CURRENT_TIMESTAMP
+            WHERE id = ?
+              AND stock_quantity >= ?
+            """;
+
+    private static final String INCREMENT_STOCK = """
+            UPDATE products
+            SET stock_quantity = stock_quantity + ?,
+                version        = version + 1,
+                updated_at     = CURRENT_TIMESTAMP
+            WHERE id = ?
+            """;
+
+    private static final String INSERT_ORDER = """
+            INSERT INTO orders (id, order_number, user_id, status, total_amount, version, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, 0, ?, ?)
+            """;
+
+    private static final String INSERT_ORDER_ITEM = """
+            INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, total_price, stock_deferred,
+                                     version, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)
+            """;
+
+    private static final String NEXT_ID_BLOCKS = "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)";
+
+    /**
+     * Ids reserved by one nextval() call, the same block size Hibernate's pooled optimizer uses
+     * for the entity id sequences.
+     */
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Runs one guarded decrement per change in a single batch. The returned array holds the
+     * affected row count of each change, zero meaning there was not enough stock.
+     */
+    public int[] decrementStock(List<StockChange> changes) {
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK, changes.stream()
+                .map(change -> new Object[]{change.quantity(), change.productId(), change.quantity()})
+                .toList());
+    }
+
+    public void incrementStock(List<StockChange> changes) {
+        jdbcTemplate.batchUpdate(INCREMENT_STOCK, changes.stream()
+                .map(change -> new Object[]{change.quantity(), change.productId()})
+                .toList());
+    }
+
+    /**
+     * Assigns ids to the orders from the {@code orders} sequence and inserts them in one batch.
+     */
+    public void insertOrders(List<Order> orders) {
+        var ids = allocateIds("orders_id_seq", orders.size());
+        var now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_ORDER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                var order = orders.get(i);
+                order.setId(ids.get(i));
+                order.setCreatedAt(now.toInstant());
+                order.setUpdatedAt(now.toInstant());
+                ps.setLong(1, order.getId());
+                ps.setObject(2, order.getOrderNumber());
+                ps.setLong(3, order.getUser().getId());
+                ps.setString(4, order.getStatus().name());
+                ps.setBigDecimal(5, order.getTotalAmount());
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return orders.size();
+            }
+        });
+    }
+
+    public void insertOrderItems(List<OrderItem> items) {
+        var ids = allocateIds("order_items_id_seq", items.size());
+        var now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                var item = items.get(i);
+                item.setId(ids.get(i));
+                ps.setLong(1, item.getId());
+                ps.setLong(2, item.getOrder().getId());
+                ps.setLong(3, item.getProduct().getId());
+                ps.setInt(4, item.getQuantity());
+                ps.setBigDecimal(5, item.getUnitPrice());
+                ps.setBigDecimal(6, item.getTotalPrice());
+                ps.setBoolean(7, item.getStockDeferred());
+                ps.setTimestamp(8, now);
+                ps.setTimestamp(9, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+    }
+
+    /**
+     * Reserves ids the way the pooled optimizer does: each nextval() value {@code v} owns the
+     * block {@code v - 49 .. v}, so these ids never collide with ones Hibernate hands out.
+     */
+    private List<Long> allocateIds(String sequence, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+            for (long high : jdbcTemplate.queryForList(NEXT_ID_BLOCKS, Long.class, sequence, blocks)) {
+                // The very first value of a fresh sequence is 1, which only owns itself
+                for (long id = Math.max(1, high - ID_BLOCK_SIZE + 1); id <= high && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    public record StockChange(Long productId, int quantity) {
+    }
+}
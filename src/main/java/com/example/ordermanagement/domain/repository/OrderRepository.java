@@ -3,13 +3,31 @@ package com.example.ordermanagement.domain.repository;
 import com.example.ordermanagement.domain.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>,
+        OrderRepositoryCustom {
     Optional<Order> findByOrderNumber(UUID orderNumber);
 
+    /**
+     * Reads only the version of an order, enough to answer a conditional request.
+     */
+    @Query("select o.version from Order o where o.orderNumber = :orderNumber")
+    Optional<Long> findVersionByOrderNumber(@Param("orderNumber") UUID orderNumber);
+
     List<Order> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.order.id in (select o.id from Order o where o.user.id = :userId)")
+    int deleteItemsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from Order o where o.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 } 
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.dto.OrderDto;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Order queries that Spring Data cannot derive, implemented with the Criteria API.
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Ids of the orders matching {@code spec} in {@code sort} order, skipping {@code offset} rows.
+     * Only the id column is selected and no count query is issued.
+     */
+    List<Long> findIds(Specification<Order> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Like {@link #findIds}, but also selects each order's creation time, so a keyset cursor can be
+     * built from the same rows that decided the page.
+     */
+    List<OrderPosition> findPositions(Specification<Order> spec, Sort sort, int limit);
+
+    /**
+     * The planner's estimate of how many of the user's orders match the filters, read from table
+     * statistics without scanning. Null filters are not applied; the date range only applies
+     * when both ends are given.
+     */
+    long estimateCount(Long userId, String status, Instant createdFrom, Instant createdTo);
+
+    /**
+     * Reads an order and its items straight into an {@link OrderDto}, without loading entities.
+     */
+    Optional<OrderDto> findDtoByOrderNumber(UUID orderNumber);
+
+    /**
+     * Reads the given orders and their items straight into {@link OrderDto}s in one query, in the
+     * order of {@code ids}. Ids that match no order are skipped.
+     */
+    List<OrderDto> findDtosByIdIn(List<Long> ids);
+
+    record OrderPosition(Long id, Instant createdAt) {
+    }
+}
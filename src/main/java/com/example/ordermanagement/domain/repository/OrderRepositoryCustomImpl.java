@@ -0,0 +1,175 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderItem;
+import com.example.ordermanagement.domain.model.OrderStatus;
+import com.example.ordermanagement.dto.OrderDto;
+import com.example.ordermanagement.dto.OrderItemDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+
+class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+    private static final Pattern ESTIMATED_ROWS = Pattern.compile(" rows=(\\d+) ");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    OrderRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Order> spec, Sort sort, long offset, int limit) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(Long.class);
+        var root = query.from(Order.class);
+        query.select(root.get("id"));
+
+        var predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<OrderPosition> findPositions(Specification<Order> spec, Sort sort, int limit) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(OrderPosition.class);
+        var root = query.from(Order.class);
+        query.select(cb.construct(OrderPosition.class, root.get("id"), root.get("createdAt")));
+
+        var predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long estimateCount(Long userId, String status, Instant createdFrom, Instant createdTo) {
+        var sql = new StringBuilder("EXPLAIN SELECT 1 FROM orders WHERE user_id = ?");
+        List<Object> args = new ArrayList<>(List.of(userId));
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status);
+        }
+        if (createdFrom != null && createdTo != null) {
+            sql.append(" AND created_at BETWEEN ? AND ?");
+            args.add(Timestamp.from(createdFrom));
+            args.add(Timestamp.from(createdTo));
+        }
+
+        // The first line is the top plan node, e.g. "Index Only Scan ... (cost=0.43..8.45 rows=120 width=4)"
+        var plan = jdbcTemplate.queryForList(sql.toString(), String.class, args.toArray()).get(0);
+        var rows = ESTIMATED_ROWS.matcher(plan);
+        if (!rows.find()) {
+            throw new IllegalStateException("No row estimate in plan: " + plan);
+        }
+        return Long.parseLong(rows.group(1));
+    }
+
+    @Override
+    public Optional<OrderDto> findDtoByOrderNumber(UUID orderNumber) {
+        return findDtos((order, cb) -> cb.equal(order.get("orderNumber"), orderNumber))
+                .values().stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<OrderDto> findDtosByIdIn(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        var orders = findDtos((order, cb) -> order.get("id").in(ids));
+        return ids.stream()
+                .map(orders::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Selects the matching orders joined to their items as scalar columns, one row per item, and
+     * folds the rows into DTOs keyed by order id. Nothing enters the persistence context, and the
+     * product id is read from the foreign key column without joining products.
+     */
+    private Map<Long, OrderDto> findDtos(BiFunction<Root<Order>, CriteriaBuilder, Predicate> restriction) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createTupleQuery();
+        var order = query.from(Order.class);
+        var item = order.<Order, OrderItem>join("items", JoinType.LEFT);
+
+        Path<Long> orderId = order.get("id");
+        Path<UUID> orderNumber = order.get("orderNumber");
+        Path<Long> userId = order.get("user").get("id");
+        Path<OrderStatus> status = order.get("status");
+        Path<BigDecimal> totalAmount = order.get("totalAmount");
+        Path<Instant> createdAt = order.get("createdAt");
+        Path<Long> version = order.get("version");
+        Path<Long> productId = item.get("product").get("id");
+        Path<Integer> quantity = item.get("quantity");
+        Path<BigDecimal> unitPrice = item.get("unitPrice");
+        Path<BigDecimal> totalPrice = item.get("totalPrice");
+
+        query.multiselect(orderId, orderNumber, userId, status, totalAmount, createdAt, version,
+                        productId, quantity, unitPrice, totalPrice)
+                .where(restriction.apply(order, cb))
+                .orderBy(cb.asc(orderId), cb.asc(item.get("id")));
+
+        Map<Long, OrderDto> orders = new LinkedHashMap<>();
+        for (var row : entityManager.createQuery(query).getResultList()) {
+            var dto = orders.computeIfAbsent(row.get(orderId), id -> OrderDto.builder()
+                    .orderNumber(row.get(orderNumber))
+                    .userId(row.get(userId))
+                    .status(row.get(status))
+                    .totalAmount(row.get(totalAmount))
+                    .createdAt(row.get(createdAt))
+                    .version(row.get(version))
+                    .items(new ArrayList<>())
+                    .build());
+            // An order without items comes back as a single row with null item columns
+            if (row.get(productId) != null) {
+                dto.getItems().add(OrderItemDto.builder()
+                        .productId(row.get(productId))
+                        .quantity(row.get(quantity))
+                        .unitPrice(row.get(unitPrice))
+                        .totalPrice(row.get(totalPrice))
+                        .build());
+            }
+        }
+        return orders;
+    }
+}
@@ -1,7 +1,128 @@
 package com.example.ordermanagement.domain.repository;
 
 import com.example.ordermanagement.domain.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
-} 
\ No newline at end of file
+
+    /**
+     * One page of the catalog in id order, starting after {@code id}; walks the primary key index.
+     */
+    List<Product> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    /**
+     * Reads the attributes the product catalog cache holds, leaving out stock.
+     */
+    @Query("""
+            select p.id as id, p.name as name, p.description as description, p.price as price,
+                   p.version as version
+            from Product p
+            where p.id in :ids
+            """)
+    List<CatalogAttributes> findCatalogAttributes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reads the stock of a product, with the version for its ETag.
+     */
+    @Query("select p.stockQuantity as stockQuantity, p.version as version from Product p where p.id = :id")
+    Optional<StockLevel> findStockLevelById(@Param("id") Long id);
+
+    /**
+     * Reads only the version of a product, enough to answer a conditional request.
+     */
+    @Query("select p.version from Product p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Reserves stock with a single guarded UPDATE. Returns the catalog attributes as of the version
+     * it wrote, so the order is priced from the locked row, or nothing when the product does not
+     * have enough stock left.
+     */
+    @Query(value = """
+            UPDATE products
+            SET stock_quantity = stock_quantity - :quantity,
+                version        = version + 1,
+                updated_at     = CURRENT_TIMESTAMP
+            WHERE id = :id
+              AND stock_quantity >= :quantity
+            RETURNING id, name, description, price, version
+            """, nativeQuery = true)
+    Optional<CatalogAttributes> decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query(value = """
+            UPDATE products
+            SET stock_quantity = stock_quantity + :quantity,
+                version        = version + 1,
+                updated_at     = CURRENT_TIMESTAMP
+            WHERE id = :id
+            """, nativeQuery = true)
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Writes every deferred order line back to its product in one statement, netted per product.
+     * Lines are claimed and applied atomically, so concurrent flushes never apply a line twice.
+     */
+    @Modifying
+    @Query(value = """
+            WITH applied AS (
+                UPDATE order_items
+                SET stock_deferred = FALSE
+                WHERE stock_deferred
+                RETURNING product_id, quantity
+            )
+            UPDATE products p
+            SET stock_quantity = p.stock_quantity - d.quantity,
+                version        = p.version + 1,
+                updated_at     = CURRENT_TIMESTAMP
+            FROM (SELECT product_id, SUM(quantity) AS quantity FROM applied GROUP BY product_id) d
+            WHERE p.id = d.product_id
+            """, nativeQuery = true)
+    int applyDeferredStock();
+
+    /**
+     * Stock that is still available for the given products once deferred order lines are
+     * taken into account.
+     */
+    @Query(value = """
+            SELECT p.id AS id, CAST(p.stock_quantity - COALESCE(SUM(i.quantity), 0) AS INTEGER) AS available
+            FROM products p
+                     LEFT JOIN order_items i ON i.product_id = p.id AND i.stock_deferred
+            WHERE p.id IN (:ids)
+            GROUP BY p.id, p.stock_quantity
+            """, nativeQuery = true)
+    List<AvailableStock> findAvailableStock(@Param("ids") Collection<Long> ids);
+
+    interface CatalogAttributes {
+        Long getId();
+
+        String getName();
+
+        String getDescription();
+
+        BigDecimal getPrice();
+
+        Long getVersion();
+    }
+
+    interface StockLevel {
+        Integer getStockQuantity();
+
+        Long getVersion();
+    }
+
+    interface AvailableStock {
+        Long getId();
+
+        Integer getAvailable();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.dto.ProductDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranked product search over the {@code search_vector} column and the trigram index on
+ * {@code name} added by migration V10. Both searches page by keyset on {@code (score, id)}, which
+ * keeps pages stable while products change but does not make later pages cheaper. The text search
+ * ranks and sorts every match on every page, so its cost grows with the number of matches, not the
+ * page. The fuzzy search walks the trigram index nearest first and filters out what earlier pages
+ * returned, so a deep page reads every row before it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductSearchRepository {
+    static final String SELECT_TEXT = """
+            SELECT id, name, description, price, stock_quantity, version, score
+            FROM (SELECT p.id, p.name, p.description, p.price, p.stock_quantity, p.version,
+                         ts_rank_cd(p.search_vector, q) AS score
+                  FROM products p,
+                       websearch_to_tsquery('english', ?) q
+                  WHERE p.search_vector @@ q) ranked
+            """;
+
+    static final String SELECT_FUZZY = """
+            SELECT id, name, description, price, stock_quantity, version, score
+            FROM (SELECT p.id, p.name, p.description, p.price, p.stock_quantity, p.version,
+                         ? <<-> p.name AS score
+                  FROM products p
+                  WHERE ? <% p.name) nearest
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Products matching every word of the query, best ranked first. Continues after
+     * {@code (afterScore, afterId)} when given.
+     */
+    public List<Hit> searchText(String query, Float afterScore, Long afterId, int limit) {
+        var sql = new StringBuilder(SELECT_TEXT);
+        List<Object> args = new ArrayList<>(List.of(query));
+        if (afterScore != null) {
+            sql.append("WHERE score < CAST(? AS REAL) OR (score = CAST(? AS REAL) AND id > ?)\n");
+            args.addAll(List.of(afterScore, afterScore, afterId));
+        }
+        sql.append("ORDER BY score DESC, id\nLIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ProductSearchRepository::hit, args.toArray());
+    }
+
+    /**
+     * Products whose name contains a word similar to the query, for queries with typos. The score
+     * is the trigram word distance, so the closest names come first. Continues after
+     * {@code (afterScore, afterId)} when given.
+     */
+    public List<Hit> searchFuzzy(String query, Float afterScore, Long afterId, int limit) {
+        var sql = new StringBuilder(SELECT_FUZZY);
+        List<Object> args = new ArrayList<>(List.of(query, query));
+        if (afterScore != null) {
+            sql.append("WHERE score > CAST(? AS REAL) OR (score = CAST(? AS REAL) AND id > ?)\n");
+            args.addAll(List.of(afterScore, afterScore, afterId));
+        }
+        sql.append("ORDER BY score, id\nLIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ProductSearchRepository::hit, args.toArray());
+    }
+
+    private static Hit hit(ResultSet rs, int rowNum) throws SQLException {
+        return new Hit(ProductDto.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .price(rs.getBigDecimal("price"))
+                .stockQuantity(rs.getInt("stock_quantity"))
+                .version(rs.getLong("version"))
+                .build(), rs.getFloat("score"));
+    }
+
+    public record Hit(ProductDto product, float score) {
+    }
+}
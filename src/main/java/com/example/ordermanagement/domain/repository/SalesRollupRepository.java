@@ -0,0 +1,261 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.domain.model.OrderStatus;
+import com.example.ordermanagement.dto.RevenueRowDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC access to the sales rollup tables: batched upserts of deltas, the aggregates a rebuild
+ * compares, and the revenue reports. Days are UTC dates of the order's {@code created_at}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesRollupRepository {
+    private static final String ADD_ORDER_TOTALS = """
+            INSERT INTO sales_rollups (day, status, slot, order_count, units, revenue)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (day, status, slot) DO UPDATE
+                SET order_count = sales_rollups.order_count + EXCLUDED.order_count,
+                    units       = sales_rollups.units + EXCLUDED.units,
+                    revenue     = sales_rollups.revenue + EXCLUDED.revenue
+            """;
+
+    private static final String ADD_PRODUCT_TOTALS = """
+            INSERT INTO product_sales_rollups (day, product_id, status, slot, order_count, units, revenue)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (day, product_id, status, slot) DO UPDATE
+                SET order_count = product_sales_rollups.order_count + EXCLUDED.order_count,
+                    units       = product_sales_rollups.units + EXCLUDED.units,
+                    revenue     = product_sales_rollups.revenue + EXCLUDED.revenue
+            """;
+
+    // %s is the condition selecting the orders
+    private static final String ORDER_TOTALS = """
+            SELECT day, status, COUNT(*) AS order_count, SUM(units) AS units, SUM(total_amount) AS revenue
+            FROM (SELECT CAST(timezone('UTC', o.created_at) AS DATE) AS day, o.status, o.total_amount,
+                         (SELECT COALESCE(SUM(i.quantity), 0) FROM order_items i WHERE i.order_id = o.id) AS units
+                  FROM orders o
+                  WHERE %s) selected
+            GROUP BY day, status
+            """;
+
+    private static final String PRODUCT_TOTALS = """
+            SELECT CAST(timezone('UTC', o.created_at) AS DATE) AS day, i.product_id, o.status,
+                   COUNT(DISTINCT o.id) AS order_count, SUM(i.quantity) AS units, SUM(i.total_price) AS revenue
+            FROM orders o
+                     JOIN order_items i ON i.order_id = o.id
+            WHERE %s
+            GROUP BY 1, 2, 3
+            """;
+
+    // What the rollups hold per key, with the slots summed up
+    private static final String ROLLED_UP_ORDER_TOTALS = """
+            SELECT day, status, SUM(order_count) AS order_count, SUM(units) AS units, SUM(revenue) AS revenue
+            FROM sales_rollups
+            GROUP BY day, status
+            """;
+
+    private static final String ROLLED_UP_PRODUCT_TOTALS = """
+            SELECT day, product_id, status, SUM(order_count) AS order_count, SUM(units) AS units,
+                   SUM(revenue) AS revenue
+            FROM product_sales_rollups
+            GROUP BY day, product_id, status
+            """;
+
+    private static final String REVENUE = """
+            SELECT %1$s, SUM(order_count) AS order_count, SUM(units) AS units, SUM(revenue) AS revenue
+            FROM %2$s
+            WHERE day BETWEEN ? AND ?
+              AND (CAST(? AS VARCHAR) IS NULL OR status = ?)
+            GROUP BY %1$s
+            HAVING SUM(order_count) <> 0
+            """;
+
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("[0-9A-F]+-[0-9A-F]+(-[0-9]+)?");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the totals to the rollups in the given slot, creating rows as needed. Rows are written
+     * in key order, order totals before product totals, so concurrent writers lock them in the
+     * same order.
+     */
+    public void add(List<Totals> orderTotals, List<ProductTotals> productTotals, short slot) {
+        if (!orderTotals.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_ORDER_TOTALS, orderTotals.stream()
+                    .sorted(Totals.ORDER)
+                    .map(totals -> new Object[]{Date.valueOf(totals.day()), totals.status().name(), slot,
+                            totals.orderCount(), totals.units(), totals.revenue()})
+                    .toList());
+        }
+        if (!productTotals.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_PRODUCT_TOTALS, productTotals.stream()
+                    .sorted(ProductTotals.ORDER)
+                    .map(totals -> new Object[]{Date.valueOf(totals.day()), totals.productId(),
+                            totals.status().name(), slot, totals.orderCount(), totals.units(), totals.revenue()})
+                    .toList());
+        }
+    }
+
+    public List<Totals> orderTotalsOfUser(Long userId) {
+        return jdbcTemplate.query(ORDER_TOTALS.formatted("o.user_id = ?"), SalesRollupRepository::totals, userId);
+    }
+
+    public List<ProductTotals> productTotalsOfUser(Long userId) {
+        return jdbcTemplate.query(PRODUCT_TOTALS.formatted("o.user_id = ?"), SalesRollupRepository::productTotals,
+                userId);
+    }
+
+    public List<Totals> orderTotalsBetweenIds(long fromId, long toId) {
+        return jdbcTemplate.query(ORDER_TOTALS.formatted("o.id BETWEEN ? AND ?"), SalesRollupRepository::totals,
+                fromId, toId);
+    }
+
+    public List<ProductTotals> productTotalsBetweenIds(long fromId, long toId) {
+        return jdbcTemplate.query(PRODUCT_TOTALS.formatted("o.id BETWEEN ? AND ?"),
+                SalesRollupRepository::productTotals, fromId, toId);
+    }
+
+    public List<Totals> rolledUpOrderTotals() {
+        return jdbcTemplate.query(ROLLED_UP_ORDER_TOTALS, SalesRollupRepository::totals);
+    }
+
+    public List<ProductTotals> rolledUpProductTotals() {
+        return jdbcTemplate.query(ROLLED_UP_PRODUCT_TOTALS, SalesRollupRepository::productTotals);
+    }
+
+    /**
+     * Lowest and highest order id, or empty when there are no orders.
+     */
+    public Optional<long[]> orderIdRange() {
+        return jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM orders", rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? Optional.empty() : Optional.of(new long[]{min, rs.getLong(2)});
+        });
+    }
+
+    /**
+     * Makes other rebuilds wait until the current transaction ends. Writers and readers of the
+     * rollups are not blocked, since the lock mode does not conflict with row changes. Must be the
+     * first statement of the transaction for its snapshot to include what a rebuild that held the
+     * lock before has written.
+     */
+    public void lockForRebuild() {
+        jdbcTemplate.execute("LOCK TABLE sales_rollups, product_sales_rollups IN SHARE UPDATE EXCLUSIVE MODE");
+    }
+
+    /**
+     * Exports the snapshot of the current transaction so other transactions can read the same data.
+     */
+    public String exportSnapshot() {
+        return jdbcTemplate.queryForObject("SELECT pg_export_snapshot()", String.class);
+    }
+
+    /**
+     * Makes the current transaction read the exported snapshot. Must be its first statement.
+     */
+    public void useSnapshot(String snapshotId) {
+        if (!SNAPSHOT_ID.matcher(snapshotId).matches()) {
+            throw new IllegalArgumentException("Invalid snapshot id: " + snapshotId);
+        }
+        jdbcTemplate.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+    }
+
+    public List<RevenueRowDto> revenueByDay(LocalDate from, LocalDate to, OrderStatus status) {
+        return revenue(REVENUE.formatted("day", "sales_rollups") + "ORDER BY day", from, to, status,
+                (row, rs) -> row.day(rs.getDate("day").toLocalDate()));
+    }
+
+    public List<RevenueRowDto> revenueByStatus(LocalDate from, LocalDate to, OrderStatus status) {
+        return revenue(REVENUE.formatted("status", "sales_rollups") + "ORDER BY status", from, to, status,
+                (row, rs) -> row.status(OrderStatus.valueOf(rs.getString("status"))));
+    }
+
+    /**
+     * Products with the highest revenue in the period, at most {@code limit} of them.
+     */
+    public List<RevenueRowDto> revenueByProduct(LocalDate from, LocalDate to, OrderStatus status, int limit) {
+        var sql = REVENUE.formatted("product_id", "product_sales_rollups") + "ORDER BY revenue DESC, product_id LIMIT "
+                + limit;
+        return revenue(sql, from, to, status, (row, rs) -> row.productId(rs.getLong("product_id")));
+    }
+
+    private List<RevenueRowDto> revenue(String sql, LocalDate from, LocalDate to, OrderStatus status, GroupColumn group) {
+        var statusName = status != null ? status.name() : null;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            var row = RevenueRowDto.builder()
+                    .orderCount(rs.getLong("order_count"))
+                    .units(rs.getLong("units"))
+                    .revenue(rs.getBigDecimal("revenue"));
+            group.read(row, rs);
+            return row.build();
+        }, Date.valueOf(from), Date.valueOf(to), statusName, statusName);
+    }
+
+    private static Totals totals(ResultSet rs, int rowNum) throws SQLException {
+        return new Totals(rs.getDate("day").toLocalDate(), OrderStatus.valueOf(rs.getString("status")),
+                rs.getLong("order_count"), rs.getLong("units"), rs.getBigDecimal("revenue"));
+    }
+
+    private static ProductTotals productTotals(ResultSet rs, int rowNum) throws SQLException {
+        return new ProductTotals(rs.getDate("day").toLocalDate(), rs.getLong("product_id"),
+                OrderStatus.valueOf(rs.getString("status")), rs.getLong("order_count"), rs.getLong("units"),
+                rs.getBigDecimal("revenue"));
+    }
+
+    @FunctionalInterface
+    private interface GroupColumn {
+        void read(RevenueRowDto.RevenueRowDtoBuilder row, ResultSet rs) throws SQLException;
+    }
+
+    public record Totals(LocalDate day, OrderStatus status, long orderCount, long units, BigDecimal revenue) {
+        static final Comparator<Totals> ORDER = Comparator.comparing(Totals::day)
+                .thenComparing(Totals::status);
+
+        public boolean isZero() {
+            return orderCount == 0 && units == 0 && revenue.signum() == 0;
+        }
+
+        public Totals negate() {
+            return new Totals(day, status, -orderCount, -units, revenue.negate());
+        }
+
+        public Totals plus(Totals other) {
+            return new Totals(day, status, orderCount + other.orderCount, units + other.units,
+                    revenue.add(other.revenue));
+        }
+    }
+
+    public record ProductTotals(LocalDate day, Long productId, OrderStatus status, long orderCount, long units,
+                                BigDecimal revenue) {
+        static final Comparator<ProductTotals> ORDER = Comparator.comparing(ProductTotals::day)
+                .thenComparing(ProductTotals::productId)
+                .thenComparing(ProductTotals::status);
+
+        public boolean isZero() {
+            return orderCount == 0 && units == 0 && revenue.signum() == 0;
+        }
+
+        public ProductTotals negate() {
+            return new ProductTotals(day, productId, status, -orderCount, -units, revenue.negate());
+        }
+
+        public ProductTotals plus(ProductTotals other) {
+            return new ProductTotals(day, productId, status, orderCount + other.orderCount, units + other.units,
+                    revenue.add(other.revenue));
+        }
+    }
+}
@@ -1,12 +1,25 @@
 package com.example.ordermanagement.domain.repository;
 
 import com.example.ordermanagement.domain.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    /**
+     * One page of users in id order, starting after {@code id}; walks the primary key index.
+     */
+    List<User> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 } 
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.domain.model.WebhookDelivery;
+import com.example.ordermanagement.domain.model.WebhookDeliveryStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+
+    /**
+     * Locks up to {@code limit} due deliveries for one webhook, skipping rows another node is
+     * claiming at the same time.
+     */
+    @Query(value = """
+            SELECT * FROM webhook_deliveries
+            WHERE webhook_id = :webhookId
+              AND status = 'PENDING'
+              AND next_attempt_at <= :now
+            ORDER BY next_attempt_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<WebhookDelivery> claimDue(@Param("webhookId") Long webhookId, @Param("now") Instant now,
+                                   @Param("limit") int limit);
+
+    /**
+     * Queues one pending delivery of an event per webhook, skipping webhooks that have been deleted
+     * since the caller looked them up. The webhook rows are key-share locked, so a concurrent delete
+     * either waits for this insert or makes it skip the webhook; the foreign key can never fail.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO webhook_deliveries (id, webhook_id, event_id, status, attempts, next_attempt_at,
+                                            version, created_at, updated_at)
+            SELECT nextval('webhook_deliveries_id_seq'), w.id, :eventId, 'PENDING', 0, :now, 0, :now, :now
+            FROM (SELECT id FROM webhooks WHERE id IN (:webhookIds) ORDER BY id FOR KEY SHARE) w
+            """, nativeQuery = true)
+    int enqueue(@Param("eventId") Long eventId, @Param("webhookIds") Collection<Long> webhookIds,
+                @Param("now") Instant now);
+
+    @Modifying
+    @Query("update WebhookDelivery d set d.nextAttemptAt = :leasedUntil where d.id in :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leasedUntil") Instant leasedUntil);
+
+    @Modifying
+    @Query("""
+            update WebhookDelivery d
+            set d.status = :status, d.attempts = :attempts, d.nextAttemptAt = :nextAttemptAt,
+                d.lastError = :lastError, d.deliveredAt = :deliveredAt
+            where d.id = :id
+            """)
+    int recordAttempt(@Param("id") Long id,
+                      @Param("status") WebhookDeliveryStatus status,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") Instant nextAttemptAt,
+                      @Param("lastError") String lastError,
+                      @Param("deliveredAt") Instant deliveredAt);
+
+    long countByWebhookIdAndStatus(Long webhookId, WebhookDeliveryStatus status);
+}
@@ -0,0 +1,44 @@
+package com.example.ordermanagement.domain.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC batch writes of aggregated delivery outcomes to the {@code webhooks} table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WebhookJdbcRepository {
+    private static final String APPLY_OUTCOME = """
+            UPDATE webhooks
+            SET status            = ?,
+                last_triggered_at = ?,
+                retry_count       = COALESCE(retry_count, 0) + ?,
+                version           = version + 1,
+                updated_at        = CURRENT_TIMESTAMP
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Applies one outcome per webhook in a single batch. Webhooks deleted in the meantime are skipped.
+     */
+    public void applyOutcomes(List<WebhookOutcome> outcomes) {
+        jdbcTemplate.batchUpdate(APPLY_OUTCOME, outcomes.stream()
+                .map(outcome -> new Object[]{outcome.status(), Timestamp.from(outcome.lastTriggeredAt()),
+                        outcome.failures(), outcome.webhookId()})
+                .toList());
+    }
+
+    /**
+     * @param failures failed requests since the last applied outcome, added to {@code retry_count}
+     */
+    public record WebhookOutcome(Long webhookId, String status, Instant lastTriggeredAt, int failures) {
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.ordermanagement.domain.specification;
 
 import com.example.ordermanagement.domain.model.Order;
+import jakarta.persistence.criteria.Path;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
@@ -20,10 +22,38 @@ public class OrderSpecifications {
         return (root, query, cb) -> {
             if (startDate == null || endDate == null) return null;
 
-            var start = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            var end = endDate.atTime(LocalTime.MAX).atZone(ZoneId.systemDefault()).toInstant();
+            return cb.between(root.get("createdAt"), startOfDay(startDate), endOfDay(endDate));
+        };
+    }
+
+    /**
+     * First instant of {@code date} in the server's time zone, where date filters start.
+     */
+    public static Instant startOfDay(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
 
-            return cb.between(root.get("createdAt"), start, end);
+    /**
+     * Last instant of {@code date} in the server's time zone, where date filters end.
+     */
+    public static Instant endOfDay(LocalDate date) {
+        return date.atTime(LocalTime.MAX).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * Orders that come after the given position in {@code (createdAt, id)} order. The extra bound
+     * on {@code createdAt} alone lets the database start its index scan at the position.
+     */
+    public static Specification<Order> afterPosition(Instant createdAt, Long id, boolean descending) {
+        return (root, query, cb) -> {
+            Path<Instant> createdAtPath = root.get("createdAt");
+            Path<Long> idPath = root.get("id");
+            if (descending) {
+                return cb.and(cb.lessThanOrEqualTo(createdAtPath, createdAt),
+                        cb.or(cb.lessThan(createdAtPath, createdAt), cb.lessThan(idPath, id)));
+            }
+            return cb.and(cb.greaterThanOrEqualTo(createdAtPath, createdAt),
+                    cb.or(cb.greaterThan(createdAtPath, createdAt), cb.greaterThan(idPath, id)));
         };
     }
 
@@ -1,7 +1,9 @@
 package com.example.ordermanagement.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,7 +20,7 @@ public class CreateOrderRequest {
     private Long userId;
 
     @NotEmpty
-    private List<OrderItemRequest> items;
+    private List<@NotNull @Valid OrderItemRequest> items;
 
     @Data
     @Builder
@@ -29,6 +31,7 @@ public class CreateOrderRequest {
         private Long productId;
 
         @NotNull
+        @Positive
         private Integer quantity;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> items;
+
+    /**
+     * Opaque token that continues the search after the last item, or {@code null} on the last page.
+     */
+    private String nextCursor;
+}
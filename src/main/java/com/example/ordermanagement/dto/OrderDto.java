@@ -1,6 +1,7 @@
 package com.example.ordermanagement.dto;
 
 import com.example.ordermanagement.domain.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,4 +23,10 @@ public class OrderDto {
     private BigDecimal totalAmount;
     private List<OrderItemDto> items;
     private Instant createdAt;
+
+    /**
+     * Row version the representation was read at; sent as the ETag rather than in the body.
+     */
+    @JsonIgnore
+    private Long version;
 } 
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.ordermanagement.dto;
+
+import com.example.ordermanagement.domain.model.OrderEventType;
+import com.example.ordermanagement.domain.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Body of the webhook requests sent for order events. This is a public contract with subscribers
+ * and deliberately separate from the API DTOs: bump {@link #SCHEMA_VERSION} on any change that is
+ * not a pure addition.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventPayload {
+    public static final int SCHEMA_VERSION = 1;
+
+    private int schemaVersion;
+    private OrderEventType eventType;
+    private Instant occurredAt;
+    private UUID orderNumber;
+    private Long userId;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long productId;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal totalPrice;
+    }
+}
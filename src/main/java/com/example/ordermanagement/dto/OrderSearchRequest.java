@@ -26,4 +26,15 @@ public class OrderSearchRequest {
     private String sortDirection;
     private Integer page;
     private Integer size;
+
+    /**
+     * Continuation token from the previous page of a cursor search.
+     */
+    private String cursor;
+
+    /**
+     * Total to include with an offset search page: {@code exact}, {@code estimated} from planner
+     * statistics, or none when absent.
+     */
+    private String total;
 } 
\ No newline at end of file
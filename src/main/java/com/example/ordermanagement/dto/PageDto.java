@@ -0,0 +1,33 @@
+package com.example.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of an offset search. Whether there is a next page is always known; the total is only
+ * computed when the client asks for it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDto<T> {
+    private List<T> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+
+    /**
+     * Number of matching items, or {@code null} when no total was requested.
+     */
+    private Long totalElements;
+
+    /**
+     * Whether {@link #totalElements} is the planner's estimate rather than an exact count.
+     */
+    private Boolean totalEstimated;
+}
@@ -1,5 +1,6 @@
 package com.example.ordermanagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,4 +18,10 @@ public class ProductDto {
     private String description;
     private BigDecimal price;
     private Integer stockQuantity;
+
+    /**
+     * Row version the representation was read at; sent as the ETag rather than in the body.
+     */
+    @JsonIgnore
+    private Long version;
 } 
\ No newline at end of file
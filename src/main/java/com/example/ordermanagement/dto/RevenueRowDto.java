@@ -0,0 +1,28 @@
+package com.example.ordermanagement.dto;
+
+import com.example.ordermanagement.domain.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Revenue of one group of a report; only the field the report is grouped by is set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RevenueRowDto {
+    private LocalDate day;
+    private OrderStatus status;
+    private Long productId;
+    private long orderCount;
+    private long units;
+    private BigDecimal revenue;
+}
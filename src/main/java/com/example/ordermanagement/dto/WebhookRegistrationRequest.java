@@ -1,5 +1,7 @@
 package com.example.ordermanagement.dto;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
@@ -20,4 +22,18 @@ public class WebhookRegistrationRequest {
     @Pattern(regexp = "^(ORDER_CREATED|ORDER_CANCELLED)$",
             message = "Event type must be either ORDER_CREATED or ORDER_CANCELLED")
     private String eventType;
+
+    /**
+     * Opts in to batch delivery: events are sent as JSON arrays of at most this many events.
+     */
+    @Min(1)
+    @Max(1000)
+    private Integer maxBatchSize;
+
+    /**
+     * How long a batch may wait to fill up, in milliseconds. Only used with {@code maxBatchSize}.
+     */
+    @Min(0)
+    @Max(60_000)
+    private Integer maxLingerMs;
 } 
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.ordermanagement.mapper;
+
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderEventType;
+import com.example.ordermanagement.domain.model.OrderItem;
+import com.example.ordermanagement.dto.OrderEventPayload;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.time.Instant;
+
+@Mapper(componentModel = "spring", imports = OrderEventPayload.class)
+public interface OrderEventMapper {
+
+    @Mapping(target = "schemaVersion", expression = "java(OrderEventPayload.SCHEMA_VERSION)")
+    @Mapping(target = "userId", source = "order.user.id")
+    @Mapping(target = "orderNumber", source = "order.orderNumber")
+    @Mapping(target = "status", source = "order.status")
+    @Mapping(target = "totalAmount", source = "order.totalAmount")
+    @Mapping(target = "items", source = "order.items")
+    OrderEventPayload toPayload(Order order, OrderEventType eventType, Instant occurredAt);
+
+    @Mapping(target = "productId", source = "product.id")
+    OrderEventPayload.Item toPayloadItem(OrderItem orderItem);
+}
@@ -0,0 +1,31 @@
+package com.example.ordermanagement.service;
+
+public interface InventoryLedgerService {
+    boolean isManaged(Long productId);
+
+    /**
+     * Reserves stock in memory for the current transaction. The reservation is handed back
+     * automatically if the transaction rolls back.
+     */
+    boolean tryReserve(Long productId, int quantity);
+
+    /**
+     * Returns stock to the ledger once the current transaction commits.
+     */
+    void release(Long productId, int quantity);
+
+    /**
+     * Writes deferred reservations back to the products table.
+     */
+    void flush();
+
+    /**
+     * Reloads a product's available stock from the database once the current transaction commits.
+     */
+    void refresh(Long productId);
+
+    /**
+     * Discards the in-memory state and rebuilds it from the database.
+     */
+    void rebuild();
+}
@@ -0,0 +1,20 @@
+package com.example.ordermanagement.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Whole product and user listings as NDJSON, one object per line in id order, shaped like
+ * {@code ProductDto} and {@code UserDto}.
+ */
+public interface ListingStreamService {
+
+    Listing streamProducts();
+
+    Listing streamUsers();
+
+    @FunctionalInterface
+    interface Listing {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
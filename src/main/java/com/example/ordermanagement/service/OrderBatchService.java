@@ -0,0 +1,14 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.BatchOrderResult;
+import com.example.ordermanagement.dto.CreateOrderRequest;
+
+import java.util.List;
+
+public interface OrderBatchService {
+    /**
+     * Creates many orders at once. Each order succeeds or fails on its own; the results are
+     * returned in request order.
+     */
+    List<BatchOrderResult> createOrders(List<CreateOrderRequest> requests);
+}
@@ -0,0 +1,26 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderEventType;
+
+import java.util.List;
+
+public interface OrderEventService {
+    /**
+     * Writes an event for the order to the outbox. Must be called in the transaction that
+     * changes the order, so the event is stored if and only if the change commits.
+     */
+    void record(OrderEventType eventType, Order order);
+
+    void recordAll(OrderEventType eventType, List<Order> orders);
+
+    /**
+     * Publishes unpublished events to webhooks in batches until the outbox is drained.
+     */
+    void relay();
+
+    /**
+     * Deletes published events older than the configured retention.
+     */
+    void purgePublished();
+}
@@ -0,0 +1,52 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.OrderSearchRequest;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+public interface OrderExportService {
+
+    /**
+     * Checks the filter up front, so a bad request fails before any output is sent, and returns
+     * the export to write. Paging and sorting fields of the request are ignored; orders are
+     * written oldest first.
+     */
+    OrderExport prepareExport(OrderSearchRequest filter, Format format);
+
+    @FunctionalInterface
+    interface OrderExport {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    enum Format {
+        /**
+         * One JSON order per line, shaped like {@code OrderDto}.
+         */
+        NDJSON(MediaType.APPLICATION_NDJSON_VALUE),
+        /**
+         * One line per order item, repeating the order columns.
+         */
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public static Format of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + name);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.ordermanagement.service;
+
+import java.util.UUID;
+
+public interface OrderNumberGenerator {
+    /**
+     * Returns a new order number. Must be safe to call concurrently.
+     */
+    UUID next();
+}
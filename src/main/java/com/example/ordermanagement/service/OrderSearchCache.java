@@ -0,0 +1,30 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.OrderDto;
+import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.dto.PageDto;
+
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of order search pages per user, for clients that poll the same search.
+ */
+public interface OrderSearchCache {
+
+    /**
+     * Returns the cached page for an equivalent request, or loads and caches it. A page loaded
+     * while the user's orders were being changed is never served after the change commits.
+     */
+    PageDto<OrderDto> get(OrderSearchRequest request, Supplier<PageDto<OrderDto>> loader);
+
+    /**
+     * Drops every cached page of the user once the current transaction commits, or right away
+     * outside a transaction.
+     */
+    void invalidate(Long userId);
+
+    /**
+     * Removes expired pages and invalidation records that no cached page can predate any more.
+     */
+    void purge();
+}
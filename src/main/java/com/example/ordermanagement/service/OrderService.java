@@ -1,10 +1,11 @@
 package com.example.ordermanagement.service;
 
 import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.example.ordermanagement.dto.CursorPageDto;
 import com.example.ordermanagement.dto.OrderDto;
 import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.dto.PageDto;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface OrderService {
@@ -12,7 +13,22 @@ public interface OrderService {
 
     OrderDto getOrder(UUID orderNumber);
 
+    /**
+     * Returns the current version of an order without loading it, for answering conditional requests.
+     */
+    long getOrderVersion(UUID orderNumber);
+
     void cancelOrder(UUID orderNumber);
 
-    List<OrderDto> searchOrders(OrderSearchRequest request);
+    /**
+     * Returns one page of the user's matching orders. The page is read with one extra row to tell
+     * whether another page follows, so no count runs unless the request asks for a total.
+     */
+    PageDto<OrderDto> searchOrders(OrderSearchRequest request);
+
+    /**
+     * Searches like {@link #searchOrders} but pages with a continuation token instead of an offset,
+     * so every page costs the same however deep it is. Only sorts by {@code createdAt}.
+     */
+    CursorPageDto<OrderDto> searchOrdersByCursor(OrderSearchRequest request);
 } 
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.domain.repository.ProductRepository.CatalogAttributes;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-process cache of the product attributes that only change through the product API. Stock is
+ * not part of it and must always be read from the database.
+ * <p>
+ * Invalidation only reaches the node that made the change, so every cached product carries the row
+ * version it was read at. Callers that know the current version check against it instead of trusting
+ * the time to live.
+ */
+public interface ProductCatalogCache {
+
+    /**
+     * Returns the products that exist among {@code ids}, loading the ones not cached with a
+     * single query. The products may be up to the time to live behind another node's changes.
+     */
+    Map<Long, CatalogProduct> getAll(Collection<Long> ids);
+
+    /**
+     * Returns the product as of at least {@code version}, reloading it if the cached copy is older.
+     */
+    Optional<CatalogProduct> get(Long id, long version);
+
+    /**
+     * Reads the products that exist among {@code ids} from the database with a single query,
+     * ignoring cached copies, and caches what it read.
+     */
+    Map<Long, CatalogProduct> reloadAll(Collection<Long> ids);
+
+    /**
+     * Caches a product the current transaction has just written, once it commits. It is left out if
+     * it was invalidated meanwhile or a newer version is already cached.
+     */
+    void put(CatalogProduct product);
+
+    /**
+     * Drops the product once the current transaction commits, or right away outside a
+     * transaction. A load that raced with the change is not cached.
+     */
+    void invalidate(Long id);
+
+    /**
+     * Removes expired products and invalidation records that no load in progress can predate.
+     */
+    void purge();
+
+    record CatalogProduct(Long id, String name, String description, BigDecimal price, Long version) {
+
+        public static CatalogProduct of(CatalogAttributes attributes) {
+            return new CatalogProduct(attributes.getId(), attributes.getName(), attributes.getDescription(),
+                    attributes.getPrice(), attributes.getVersion());
+        }
+    }
+}
@@ -1,18 +1,35 @@
 package com.example.ordermanagement.service;
 
 import com.example.ordermanagement.dto.CreateProductRequest;
+import com.example.ordermanagement.dto.CursorPageDto;
 import com.example.ordermanagement.dto.ProductDto;
 
-import java.util.List;
+import java.math.BigDecimal;
 
 public interface ProductService {
     ProductDto createProduct(CreateProductRequest request);
 
     ProductDto getProduct(Long id);
 
-    List<ProductDto> getAllProducts();
+    /**
+     * Returns the current version of a product without loading it, for answering conditional requests.
+     */
+    long getProductVersion(Long id);
+
+    /**
+     * Returns one page of products in id order, starting after the cursor of the previous page.
+     */
+    CursorPageDto<ProductDto> getProducts(String cursor, Integer size);
+
+    /**
+     * Returns one page of products matching the query, best matches first. When no product
+     * contains every word of the query, products with a similarly spelled name are returned instead.
+     */
+    CursorPageDto<ProductDto> searchProducts(String query, String cursor, Integer size);
 
     ProductDto updateStock(Long id, Integer quantity);
 
+    ProductDto updatePrice(Long id, BigDecimal price);
+
     void deleteProduct(Long id);
 } 
\ No newline at end of file
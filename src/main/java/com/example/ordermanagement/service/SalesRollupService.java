@@ -0,0 +1,52 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderStatus;
+import com.example.ordermanagement.dto.RevenueRowDto;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps order count, units and revenue per day, status and product up to date as orders are
+ * written, so revenue reports never have to scan the orders.
+ */
+public interface SalesRollupService {
+
+    /**
+     * Adds newly stored orders to the rollups, within the transaction that stores them.
+     */
+    void recordCreated(Collection<Order> orders);
+
+    /**
+     * Moves an order's totals from its previous status to its current one, within the transaction
+     * that changes it.
+     */
+    void recordStatusChange(Order order, OrderStatus previousStatus);
+
+    /**
+     * Takes every order of the user out of the rollups; called before the orders are deleted.
+     */
+    void removeOrdersOfUser(Long userId);
+
+    /**
+     * Revenue per day, status or product between two UTC dates, optionally of one status only.
+     * Product reports list the {@code limit} products with the highest revenue.
+     */
+    List<RevenueRowDto> getRevenue(LocalDate from, LocalDate to, String status, String groupBy, Integer limit);
+
+    /**
+     * Recomputes the rollups from the orders, aggregating ranges of orders in parallel, and corrects
+     * any difference. Orders keep being written meanwhile; only other rebuilds wait. It holds one
+     * snapshot open for the whole run, which keeps vacuum from cleaning up behind it, so run it
+     * outside peak hours on a large orders table.
+     */
+    void rebuild();
+
+    /**
+     * Starts {@link #rebuild()} in the background and returns right away. Returns false without
+     * starting anything if a rebuild started this way is still running on this node.
+     */
+    boolean startRebuild();
+}
@@ -1,16 +1,18 @@
 package com.example.ordermanagement.service;
 
 import com.example.ordermanagement.dto.CreateUserRequest;
+import com.example.ordermanagement.dto.CursorPageDto;
 import com.example.ordermanagement.dto.UserDto;
 
-import java.util.List;
-
 public interface UserService {
     UserDto createUser(CreateUserRequest request);
 
     UserDto getUser(Long id);
 
-    List<UserDto> getAllUsers();
+    /**
+     * Returns one page of users in id order, starting after the cursor of the previous page.
+     */
+    CursorPageDto<UserDto> getUsers(String cursor, Integer size);
 
     void deleteUser(Long id);
 } 
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.domain.model.Webhook;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-memory view of the registered webhooks, so that fanning out an event needs no query.
+ */
+public interface WebhookRegistry {
+    /**
+     * Stores the webhook; it becomes visible to {@link #subscribers} once the transaction commits.
+     */
+    Webhook register(Webhook webhook);
+
+    /**
+     * Deletes the webhook; it stops receiving events once the transaction commits.
+     */
+    void delete(Long id);
+
+    List<Subscription> subscribers(String eventType);
+
+    Collection<Subscription> all();
+
+    /**
+     * Replaces the in-memory view with the webhooks currently in the database.
+     */
+    void reload();
+
+    /**
+     * @param maxBatchSize {@code null} unless the webhook receives events in batches
+     */
+    record Subscription(Long id, String url, String eventType, Integer maxBatchSize, Duration maxLinger) {
+        public static Subscription of(Webhook webhook) {
+            return new Subscription(webhook.getId(), webhook.getUrl(), webhook.getEventType(),
+                    webhook.getMaxBatchSize(),
+                    webhook.getMaxLingerMs() == null ? Duration.ZERO : Duration.ofMillis(webhook.getMaxLingerMs()));
+        }
+
+        public boolean batched() {
+            return maxBatchSize != null;
+        }
+    }
+}
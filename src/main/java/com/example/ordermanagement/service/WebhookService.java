@@ -1,9 +1,16 @@
 package com.example.ordermanagement.service;
 
-import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderEvent;
 
 public interface WebhookService {
-    void notifyOrderCreated(Order order);
+    /**
+     * Queues the event for every webhook registered for its type. Must be called in the
+     * transaction that publishes the event.
+     */
+    void dispatch(OrderEvent event);
 
-    void notifyOrderCancelled(Order order);
-} 
\ No newline at end of file
+    /**
+     * Sends due deliveries, respecting each endpoint's concurrency limit and circuit breaker.
+     */
+    void deliverDue();
+}
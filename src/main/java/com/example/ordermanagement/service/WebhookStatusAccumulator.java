@@ -0,0 +1,16 @@
+package com.example.ordermanagement.service;
+
+import java.time.Instant;
+
+/**
+ * Collects webhook request outcomes in memory and writes them to the {@code webhooks} table in
+ * periodic batches, so finishing a delivery does not cost a write of its own.
+ */
+public interface WebhookStatusAccumulator {
+    void record(Long webhookId, boolean success, Instant triggeredAt);
+
+    /**
+     * Writes the outcomes collected since the last flush.
+     */
+    void flush();
+}
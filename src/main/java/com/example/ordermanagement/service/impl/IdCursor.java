@@ -0,0 +1,25 @@
+package com.example.ordermanagement.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a row in a listing ordered by id, handed to clients as an opaque token so the next
+ * page can start right after it.
+ */
+public record IdCursor(long id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static IdCursor decode(String token) {
+        try {
+            return new IdCursor(Long.parseLong(
+                    new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.InventoryLedgerProperties;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.service.InventoryLedgerService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory stock ledger for hot products.
+ * <p>
+ * Reservations are taken from striped, lock-free counters and recorded on the order lines as
+ * {@code stock_deferred}. A periodic flush nets the deferred lines into {@code products.stock_quantity}.
+ * Because the deferred lines are committed with their orders, the ledger can always be rebuilt from
+ * the database as {@code stock_quantity - sum(deferred quantities)}, which is what happens on startup.
+ * <p>
+ * Every reservation and release holds its product's read lock until the transaction completes, and a
+ * reload takes the write lock around reading the database. A reload therefore never sees a half-done
+ * reservation, and a put-back can never land on top of a snapshot that already counted it. Hot products
+ * stay managed while their ledger is not loaded yet, and refuse reservations instead of falling back to
+ * the regular stock path, which would not see the deferred lines.
+ */
+@Slf4j
+@Service
+public class InventoryLedgerServiceImpl implements InventoryLedgerService {
+    private final ProductRepository productRepository;
+    private final InventoryLedgerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Ledger> ledgers = new ConcurrentHashMap<>();
+
+    public InventoryLedgerServiceImpl(ProductRepository productRepository,
+                                      InventoryLedgerProperties properties,
+                                      TransactionTemplate transactionTemplate) {
+        this.productRepository = productRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        if (properties.isEnabled()) {
+            properties.getHotProductIds().forEach(productId -> ledgers.put(productId, newLedger()));
+        }
+    }
+
+    @Override
+    public boolean isManaged(Long productId) {
+        return ledgers.containsKey(productId);
+    }
+
+    @Override
+    public boolean tryReserve(Long productId, int quantity) {
+        var ledger = ledgers.get(productId);
+        if (ledger == null) {
+            throw new IllegalStateException("Product is not managed by the inventory ledger: " + productId);
+        }
+        requireTransaction();
+        ledger.lock.readLock().lock();
+        boolean reserved = false;
+        try {
+            if (!ledger.loaded) {
+                log.warn("Refusing reservation for product {} until its inventory ledger is loaded", productId);
+            } else {
+                reserved = ledger.stock.tryTake(quantity);
+            }
+        } finally {
+            boolean taken = reserved;
+            TransactionCallbacks.afterCompletion(status -> {
+                try {
+                    if (taken && status == TransactionSynchronization.STATUS_ROLLED_BACK) {
+                        ledger.stock.put(quantity);
+                    }
+                } finally {
+                    ledger.lock.readLock().unlock();
+                }
+            });
+        }
+        return reserved;
+    }
+
+    @Override
+    public void release(Long productId, int quantity) {
+        var ledger = ledgers.get(productId);
+        if (ledger == null) {
+            return;
+        }
+        requireTransaction();
+        ledger.lock.readLock().lock();
+        TransactionCallbacks.afterCompletion(status -> {
+            try {
+                if (status == TransactionSynchronization.STATUS_COMMITTED && ledger.loaded) {
+                    ledger.stock.put(quantity);
+                }
+            } finally {
+                ledger.lock.readLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval:200ms}")
+    public void flush() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Integer flushed = transactionTemplate.execute(status -> productRepository.applyDeferredStock());
+        if (flushed != null && flushed > 0) {
+            log.debug("Flushed deferred stock for {} products", flushed);
+        }
+    }
+
+    @Override
+    public void refresh(Long productId) {
+        if (!properties.isEnabled() || !properties.getHotProductIds().contains(productId)) {
+            return;
+        }
+        TransactionCallbacks.afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                load(List.of(productId));
+            }
+        });
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        flush();
+        load(properties.getHotProductIds());
+        log.info("Inventory ledger rebuilt for {} hot products", ledgers.size());
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Loads one product at a time so that a reload never holds more than one write lock; reservations
+     * lock their products in id order, so this cannot deadlock against them.
+     */
+    private void load(Collection<Long> productIds) {
+        productIds.forEach(this::load);
+    }
+
+    private void load(Long productId) {
+        var ledger = ledgers.computeIfAbsent(productId, id -> newLedger());
+        if (ledger.lock.getReadHoldCount() > 0) {
+            throw new IllegalStateException("Cannot reload product " + productId + " while reserving it");
+        }
+        // Waits for every in-flight reservation and release of the product to commit or roll back
+        ledger.lock.writeLock().lock();
+        try {
+            var available = productRepository.findAvailableStock(List.of(productId)).stream()
+                    .filter(row -> row.getId().equals(productId))
+                    .findFirst();
+            if (available.isEmpty()) {
+                // Products that no longer exist fall back to the regular stock path
+                ledger.loaded = false;
+                ledgers.remove(productId, ledger);
+                return;
+            }
+            ledger.stock.reset(available.get().getAvailable());
+            ledger.loaded = true;
+        } finally {
+            ledger.lock.writeLock().unlock();
+        }
+    }
+
+    private Ledger newLedger() {
+        return new Ledger(new StripedStock(properties.getStripes()));
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Inventory ledger changes require an active transaction");
+        }
+    }
+
+    /**
+     * The stock of one product, with the lock that fences reloads against in-flight reservations.
+     */
+    private static final class Ledger {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final StripedStock stock;
+        private volatile boolean loaded;
+
+        private Ledger(StripedStock stock) {
+            this.stock = stock;
+        }
+    }
+
+    /**
+     * Available stock split across padded atomic counters so that concurrent reservations for the
+     * same product rarely contend on one cache line.
+     */
+    static final class StripedStock {
+        // 16 ints = 64 bytes between stripes to avoid false sharing
+        private static final int PADDING = 16;
+
+        private final int stripes;
+        private final AtomicIntegerArray counters;
+
+        StripedStock(int stripes) {
+            this.stripes = Math.max(1, stripes);
+            this.counters = new AtomicIntegerArray(this.stripes * PADDING);
+        }
+
+        boolean tryTake(int quantity) {
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            for (int i = 0; i < stripes; i++) {
+                int index = ((start + i) % stripes) * PADDING;
+                int current = counters.get(index);
+                while (current >= quantity) {
+                    if (counters.compareAndSet(index, current, current - quantity)) {
+                        return true;
+                    }
+                    current = counters.get(index);
+                }
+            }
+            return tryTakeAcrossStripes(quantity);
+        }
+
+        /**
+         * Slow path for when no single stripe holds enough stock: gathers from several stripes and
+         * hands everything back if the total is still not enough.
+         */
+        private boolean tryTakeAcrossStripes(int quantity) {
+            int taken = 0;
+            for (int i = 0; i < stripes && taken < quantity; i++) {
+                int index = i * PADDING;
+                int current = counters.get(index);
+                while (current > 0) {
+                    int take = Math.min(current, quantity - taken);
+                    if (counters.compareAndSet(index, current, current - take)) {
+                        taken += take;
+                        break;
+                    }
+                    current = counters.get(index);
+                }
+            }
+            if (taken == quantity) {
+                return true;
+            }
+            put(taken);
+            return false;
+        }
+
+        void put(int quantity) {
+            if (quantity > 0) {
+                counters.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+            }
+        }
+
+        void reset(int available) {
+            int share = Math.max(available, 0) / stripes;
+            int remainder = Math.max(available, 0) % stripes;
+            for (int i = 0; i < stripes; i++) {
+                counters.set(i * PADDING, share + (i < remainder ? 1 : 0));
+            }
+        }
+
+        int available() {
+            int total = 0;
+            for (int i = 0; i < stripes; i++) {
+                total += counters.get(i * PADDING);
+            }
+            return total;
+        }
+    }
+}
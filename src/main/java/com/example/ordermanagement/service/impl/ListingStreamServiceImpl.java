@@ -0,0 +1,80 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.domain.repository.ListingRepository;
+import com.example.ordermanagement.service.ListingStreamService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Writes each row to the response as it comes off the database cursor, without building an
+ * entity or DTO for it, so memory use does not depend on the number of rows.
+ */
+@Service
+public class ListingStreamServiceImpl implements ListingStreamService {
+    private final ListingRepository listingRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ListingStreamServiceImpl(ListingRepository listingRepository, ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.listingRepository = listingRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public Listing streamProducts() {
+        return out -> write(out, listingRepository::forEachProduct, (generator, rs) -> {
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("name", rs.getString("name"));
+            generator.writeStringField("description", rs.getString("description"));
+            generator.writeNumberField("price", rs.getBigDecimal("price"));
+            generator.writeNumberField("stockQuantity", rs.getInt("stock_quantity"));
+        });
+    }
+
+    @Override
+    public Listing streamUsers() {
+        return out -> write(out, listingRepository::forEachUser, (generator, rs) -> {
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("username", rs.getString("username"));
+            generator.writeStringField("email", rs.getString("email"));
+        });
+    }
+
+    private void write(OutputStream out, Consumer<RowCallbackHandler> rows, RowWriter fields)
+            throws IOException {
+        try (var writer = new NdjsonWriter(objectMapper, out)) {
+            var generator = writer.generator();
+            readOnlyTransaction.executeWithoutResult(status -> rows.accept(rs -> {
+                try {
+                    generator.writeStartObject();
+                    fields.write(generator, rs);
+                    generator.writeEndObject();
+                    writer.endLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(JsonGenerator generator, ResultSet rs) throws IOException, SQLException;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ordermanagement.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes newline-delimited JSON: callers write one object through {@link #generator()} and end it
+ * with {@link #endLine()}. Closing flushes but leaves the response stream open for the container
+ * to finish.
+ */
+final class NdjsonWriter implements Closeable {
+    private final JsonGenerator generator;
+
+    NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Objects are separated by the newline written after each one, not Jackson's default space
+        generator.setRootValueSeparator(null);
+    }
+
+    JsonGenerator generator() {
+        return generator;
+    }
+
+    void endLine() throws IOException {
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
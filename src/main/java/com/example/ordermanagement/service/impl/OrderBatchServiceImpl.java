@@ -0,0 +1,269 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderEventType;
+import com.example.ordermanagement.domain.model.OrderItem;
+import com.example.ordermanagement.domain.model.OrderStatus;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.model.User;
+import com.example.ordermanagement.domain.repository.OrderJdbcRepository;
+import com.example.ordermanagement.domain.repository.OrderJdbcRepository.StockChange;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.domain.repository.UserRepository;
+import com.example.ordermanagement.dto.BatchOrderResult;
+import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.example.ordermanagement.service.InventoryLedgerService;
+import com.example.ordermanagement.service.OrderNumberGenerator;
+import com.example.ordermanagement.service.OrderBatchService;
+import com.example.ordermanagement.service.OrderEventService;
+import com.example.ordermanagement.service.OrderSearchCache;
+import com.example.ordermanagement.service.SalesRollupService;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk order ingestion. Users and products are resolved with one query each for the whole batch,
+ * then orders are written in chunks, each chunk in its own transaction using JDBC batches for the
+ * stock reservations and the order and order item inserts. An order that fails validation or runs
+ * out of stock is reported as failed without affecting the rest of its chunk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBatchServiceImpl implements OrderBatchService {
+    static final int MAX_BATCH_SIZE = 10_000;
+    private static final int CHUNK_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final InventoryLedgerService inventoryLedgerService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderEventService orderEventService;
+    private final OrderSearchCache orderSearchCache;
+    private final SalesRollupService salesRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+
+    @Override
+    public List<BatchOrderResult> createOrders(List<CreateOrderRequest> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch can contain at most " + MAX_BATCH_SIZE + " orders");
+        }
+
+        var results = new BatchOrderResult[requests.size()];
+        var validRequests = new TreeMap<Integer, CreateOrderRequest>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i) == null) {
+                results[i] = failed(i, "Order must not be null");
+                continue;
+            }
+            var violations = validator.validate(requests.get(i));
+            if (violations.isEmpty()) {
+                validRequests.put(i, requests.get(i));
+            } else {
+                results[i] = failed(i, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+
+        var pendingOrders = resolve(validRequests, results);
+        for (int from = 0; from < pendingOrders.size(); from += CHUNK_SIZE) {
+            var chunk = pendingOrders.subList(from, Math.min(from + CHUNK_SIZE, pendingOrders.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeChunk(chunk, results));
+            } catch (RuntimeException e) {
+                log.error("Failed to store a chunk of {} batch orders", chunk.size(), e);
+                chunk.forEach(pending -> results[pending.index()] = failed(pending.index(), "Order could not be stored"));
+            }
+        }
+
+        return List.of(results);
+    }
+
+    private List<PendingOrder> resolve(Map<Integer, CreateOrderRequest> requests, BatchOrderResult[] results) {
+        var userIds = requests.values().stream()
+                .map(CreateOrderRequest::getUserId)
+                .collect(Collectors.toSet());
+        var productIds = requests.values().stream()
+                .flatMap(request -> request.getItems().stream())
+                .map(CreateOrderRequest.OrderItemRequest::getProductId)
+                .collect(Collectors.toSet());
+
+        Set<Long> existingUserIds = new HashSet<>(userRepository.findExistingIds(userIds));
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<PendingOrder> pendingOrders = new ArrayList<>();
+        requests.forEach((index, request) -> {
+            if (!existingUserIds.contains(request.getUserId())) {
+                results[index] = failed(index, "User not found");
+            } else if (!request.getItems().stream().allMatch(item -> products.containsKey(item.getProductId()))) {
+                results[index] = failed(index, "Product not found");
+            } else {
+                pendingOrders.add(new PendingOrder(index, buildOrder(request, products)));
+            }
+        });
+        return pendingOrders;
+    }
+
+    private Order buildOrder(CreateOrderRequest request, Map<Long, Product> products) {
+        var user = new User();
+        user.setId(request.getUserId());
+
+        var order = Order.builder()
+                .orderNumber(orderNumberGenerator.next())
+                .user(user)
+                .status(OrderStatus.PENDING)
+                .build();
+
+        request.getItems().forEach(itemRequest -> {
+            var product = products.get(itemRequest.getProductId());
+            order.addItem(OrderItem.builder()
+                    .product(product)
+                    .quantity(itemRequest.getQuantity())
+                    .unitPrice(product.getPrice())
+                    .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())))
+                    .build());
+        });
+        order.setTotalAmount(order.getItems().stream()
+                .map(OrderItem::getTotalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return order;
+    }
+
+    private void writeChunk(List<PendingOrder> chunk, BatchOrderResult[] results) {
+        Map<PendingOrder, List<StockChange>> ledgerReservations = new HashMap<>();
+        List<StockLine> databaseLines = new ArrayList<>();
+        Set<PendingOrder> failedOrders = new HashSet<>();
+
+        // Hot products are reserved in memory; everything else goes through one batch of guarded updates
+        for (var pending : chunk) {
+            for (var line : pending.stockChanges()) {
+                if (!inventoryLedgerService.isManaged(line.productId())) {
+                    databaseLines.add(new StockLine(pending, line));
+                } else if (inventoryLedgerService.tryReserve(line.productId(), line.quantity())) {
+                    ledgerReservations.computeIfAbsent(pending, key -> new ArrayList<>()).add(line);
+                } else {
+                    failedOrders.add(pending);
+                    results[pending.index()] = insufficientStock(pending, line.productId());
+                    break;
+                }
+            }
+        }
+
+        // Reserve in ascending product id order so concurrent writers take row locks in the same order
+        databaseLines.removeIf(line -> failedOrders.contains(line.order()));
+        databaseLines.sort(Comparator.comparing((StockLine line) -> line.change().productId())
+                .thenComparing(line -> line.order().index()));
+        int[] updated = databaseLines.isEmpty()
+                ? new int[0]
+                : orderJdbcRepository.decrementStock(databaseLines.stream().map(StockLine::change).toList());
+        for (int i = 0; i < updated.length; i++) {
+            var line = databaseLines.get(i);
+            if (updated[i] == 0 && failedOrders.add(line.order())) {
+                results[line.order().index()] = insufficientStock(line.order(), line.change().productId());
+            }
+        }
+
+        // Hand back whatever the failed orders managed to reserve
+        List<StockChange> compensations = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            var line = databaseLines.get(i);
+            if (updated[i] > 0 && failedOrders.contains(line.order())) {
+                compensations.add(line.change());
+            }
+        }
+        if (!compensations.isEmpty()) {
+            orderJdbcRepository.incrementStock(compensations);
+        }
+        ledgerReservations.forEach((pending, lines) -> {
+            if (failedOrders.contains(pending)) {
+                lines.forEach(line -> inventoryLedgerService.release(line.productId(), line.quantity()));
+            } else {
+                var deferredProductIds = lines.stream().map(StockChange::productId).collect(Collectors.toSet());
+                pending.order().getItems()
+                        .forEach(item -> item.setStockDeferred(deferredProductIds.contains(item.getProduct().getId())));
+            }
+        });
+
+        var orders = chunk.stream()
+                .filter(pending -> !failedOrders.contains(pending))
+                .map(PendingOrder::order)
+                .toList();
+        if (orders.isEmpty()) {
+            return;
+        }
+        orderJdbcRepository.insertOrders(orders);
+        orderJdbcRepository.insertOrderItems(orders.stream()
+                .flatMap(order -> order.getItems().stream())
+                .toList());
+        orderEventService.recordAll(OrderEventType.ORDER_CREATED, orders);
+        salesRollupService.recordCreated(orders);
+        orders.stream()
+                .map(order -> order.getUser().getId())
+                .distinct()
+                .forEach(orderSearchCache::invalidate);
+
+        chunk.stream()
+                .filter(pending -> !failedOrders.contains(pending))
+                .forEach(pending -> results[pending.index()] = BatchOrderResult.builder()
+                        .index(pending.index())
+                        .success(true)
+                        .orderNumber(pending.order().getOrderNumber())
+                        .build());
+    }
+
+    private static BatchOrderResult insufficientStock(PendingOrder pending, Long productId) {
+        var productName = pending.order().getItems().stream()
+                .map(OrderItem::getProduct)
+                .filter(product -> Objects.equals(product.getId(), productId))
+                .map(Product::getName)
+                .findFirst()
+                .orElse(String.valueOf(productId));
+        return failed(pending.index(), "Insufficient stock for product: " + productName);
+    }
+
+    private static BatchOrderResult failed(int index, String error) {
+        return BatchOrderResult.builder()
+                .index(index)
+                .success(false)
+                .error(error)
+                .build();
+    }
+
+    private record PendingOrder(int index, Order order) {
+        /**
+         * Requested quantities per product, merged across duplicate lines and ordered by product id.
+         */
+        List<StockChange> stockChanges() {
+            return order.getItems().stream()
+                    .collect(Collectors.toMap(item -> item.getProduct().getId(), OrderItem::getQuantity,
+                            Integer::sum, TreeMap::new))
+                    .entrySet().stream()
+                    .map(entry -> new StockChange(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+    }
+
+    private record StockLine(PendingOrder order, StockChange change) {
+    }
+}
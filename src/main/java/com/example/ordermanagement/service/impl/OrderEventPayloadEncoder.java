@@ -0,0 +1,55 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.dto.OrderEventPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Encodes event payloads to UTF-8 JSON once, so every delivery of an event can send the same bytes.
+ * Encoding goes through a per-thread buffer that is reused between events; only the final copy
+ * of the bytes is allocated per event.
+ */
+@Component
+public class OrderEventPayloadEncoder {
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+    // Buffers that grew beyond this for an unusually large order are not kept around
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+
+    private final ObjectWriter writer;
+    private final ThreadLocal<ReusableBuffer> buffers = ThreadLocal.withInitial(ReusableBuffer::new);
+
+    public OrderEventPayloadEncoder(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(OrderEventPayload.class);
+    }
+
+    public byte[] encode(OrderEventPayload payload) {
+        var buffer = buffers.get();
+        try {
+            writer.writeValue(buffer, payload);
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode payload for order " + payload.getOrderNumber(), e);
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                buffers.remove();
+            } else {
+                buffer.reset();
+            }
+        }
+    }
+
+    private static final class ReusableBuffer extends ByteArrayOutputStream {
+        ReusableBuffer() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
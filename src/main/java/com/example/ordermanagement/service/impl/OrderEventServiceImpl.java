@@ -0,0 +1,141 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.OutboxProperties;
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderEvent;
+import com.example.ordermanagement.domain.model.OrderEventType;
+import com.example.ordermanagement.domain.repository.OrderEventRepository;
+import com.example.ordermanagement.dto.OrderEventPayload;
+import com.example.ordermanagement.mapper.OrderEventMapper;
+import com.example.ordermanagement.service.OrderEventService;
+import com.example.ordermanagement.service.WebhookService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for order events.
+ * <p>
+ * Events are stored with their payload already encoded in the order's transaction. The relay claims
+ * unpublished events with {@code FOR UPDATE SKIP LOCKED}, hands them to the webhook service and
+ * marks them published in the same transaction, so each event is published once even when several
+ * nodes run the relay. An event is only lost if its transaction never committed.
+ */
+@Slf4j
+@Service
+public class OrderEventServiceImpl implements OrderEventService {
+    private final OrderEventRepository orderEventRepository;
+    private final WebhookService webhookService;
+    private final OrderEventMapper orderEventMapper;
+    private final OrderEventPayloadEncoder payloadEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final Clock clock;
+
+    private final Counter relayed;
+    private final Timer lag;
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+
+    public OrderEventServiceImpl(OrderEventRepository orderEventRepository, WebhookService webhookService,
+                                 OrderEventMapper orderEventMapper, OrderEventPayloadEncoder payloadEncoder,
+                                 TransactionTemplate transactionTemplate, OutboxProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this(orderEventRepository, webhookService, orderEventMapper, payloadEncoder, transactionTemplate, properties,
+                meterRegistry, Clock.systemUTC());
+    }
+
+    OrderEventServiceImpl(OrderEventRepository orderEventRepository, WebhookService webhookService,
+                          OrderEventMapper orderEventMapper, OrderEventPayloadEncoder payloadEncoder,
+                          TransactionTemplate transactionTemplate, OutboxProperties properties,
+                          MeterRegistry meterRegistry, Clock clock) {
+        this.orderEventRepository = orderEventRepository;
+        this.webhookService = webhookService;
+        this.orderEventMapper = orderEventMapper;
+        this.payloadEncoder = payloadEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+
+        this.relayed = Counter.builder("orders.outbox.relayed")
+                .description("Order events published by the outbox relay")
+                .register(meterRegistry);
+        this.lag = Timer.builder("orders.outbox.lag")
+                .description("Time from an order event being recorded to it being published")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("orders.outbox.oldest.pending.seconds", oldestPendingSeconds);
+    }
+
+    @Override
+    public void record(OrderEventType eventType, Order order) {
+        orderEventRepository.save(toEvent(eventType, order));
+    }
+
+    @Override
+    public void recordAll(OrderEventType eventType, List<Order> orders) {
+        orderEventRepository.saveAll(orders.stream()
+                .map(order -> toEvent(eventType, order))
+                .toList());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:500ms}")
+    public void relay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Integer published;
+        do {
+            published = transactionTemplate.execute(status -> relayBatch());
+        } while (published != null && published == properties.getBatchSize());
+
+        oldestPendingSeconds.set(orderEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedAt(), clock.instant()).toSeconds())
+                .orElse(0L));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${outbox.relay.purge-interval:1h}")
+    public void purgePublished() {
+        Integer purged = transactionTemplate.execute(status ->
+                orderEventRepository.deletePublishedBefore(clock.instant().minus(properties.getRetention())));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} published order events", purged);
+        }
+    }
+
+    private int relayBatch() {
+        var events = orderEventRepository.claimUnpublished(properties.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        var now = clock.instant();
+        events.forEach(webhookService::dispatch);
+        orderEventRepository.markPublished(events.stream().map(OrderEvent::getId).toList(), now);
+
+        relayed.increment(events.size());
+        events.forEach(event -> lag.record(Duration.between(event.getCreatedAt(), now)));
+        return events.size();
+    }
+
+    private OrderEvent toEvent(OrderEventType eventType, Order order) {
+        var payload = orderEventMapper.toPayload(order, eventType, clock.instant());
+        return OrderEvent.builder()
+                .eventType(eventType)
+                .orderNumber(order.getOrderNumber())
+                .payload(payloadEncoder.encode(payload))
+                .schemaVersion(payload.getSchemaVersion())
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.domain.repository.OrderExportRepository;
+import com.example.ordermanagement.domain.repository.UserRepository;
+import com.example.ordermanagement.domain.specification.OrderSpecifications;
+import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.exception.ResourceNotFoundException;
+import com.example.ordermanagement.service.OrderExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Streams a user's orders from a database cursor straight to the response. Each line is written
+ * as soon as it is read, so memory use does not depend on the size of the export, and a slow
+ * client blocks the writes, which in turn stops the cursor from fetching further rows.
+ */
+@Service
+public class OrderExportServiceImpl implements OrderExportService {
+    private static final String CSV_HEADER =
+            "order_number,user_id,status,total_amount,created_at,product_id,quantity,unit_price,total_price\n";
+
+    private final UserRepository userRepository;
+    private final OrderExportRepository orderExportRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public OrderExportServiceImpl(UserRepository userRepository, OrderExportRepository orderExportRepository,
+                                  ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.orderExportRepository = orderExportRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public OrderExport prepareExport(OrderSearchRequest filter, Format format) {
+        if (filter.getUserId() == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (!userRepository.existsById(filter.getUserId())) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        boolean byDate = filter.getStartDate() != null && filter.getEndDate() != null;
+        var createdFrom = byDate ? OrderSpecifications.startOfDay(filter.getStartDate()) : null;
+        var createdTo = byDate ? OrderSpecifications.endOfDay(filter.getEndDate()) : null;
+
+        return out -> {
+            try (var sink = format == Format.NDJSON ? new NdjsonSink(out) : new CsvSink(out)) {
+                readOnlyTransaction.executeWithoutResult(status -> orderExportRepository.forEachLine(
+                        filter.getUserId(), filter.getStatus(), createdFrom, createdTo,
+                        rs -> sink.write(ExportLine.of(rs))));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    record ExportLine(long orderId, UUID orderNumber, long userId, String status, BigDecimal totalAmount,
+                      Instant createdAt, Long productId, Integer quantity, BigDecimal unitPrice,
+                      BigDecimal totalPrice) {
+
+        static ExportLine of(ResultSet rs) throws SQLException {
+            return new ExportLine(
+                    rs.getLong("id"),
+                    rs.getObject("order_number", UUID.class),
+                    rs.getLong("user_id"),
+                    rs.getString("status"),
+                    rs.getBigDecimal("total_amount"),
+                    rs.getTimestamp("created_at").toInstant(),
+                    rs.getObject("product_id", Long.class),
+                    rs.getObject("quantity", Integer.class),
+                    rs.getBigDecimal("unit_price"),
+                    rs.getBigDecimal("total_price"));
+        }
+    }
+
+    private interface ExportSink extends Closeable {
+        /**
+         * Writes one line, wrapping I/O failures so they can pass through the row callback.
+         */
+        void write(ExportLine line);
+    }
+
+    /**
+     * Writes one JSON object per order. The lines of an order arrive together, so an object is
+     * opened on its first line, its items are appended as they come, and it is closed when the
+     * next order starts; no order is ever held in memory.
+     */
+    private final class NdjsonSink implements ExportSink {
+        private final NdjsonWriter writer;
+        private final JsonGenerator generator;
+        private Long currentOrderId;
+
+        NdjsonSink(OutputStream out) throws IOException {
+            writer = new NdjsonWriter(objectMapper, out);
+            generator = writer.generator();
+        }
+
+        @Override
+        public void write(ExportLine line) {
+            try {
+                if (currentOrderId == null || currentOrderId != line.orderId()) {
+                    endOrder();
+                    startOrder(line);
+                }
+                if (line.productId() != null) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("productId", line.productId());
+                    generator.writeNumberField("quantity", line.quantity());
+                    generator.writeNumberField("unitPrice", line.unitPrice());
+                    generator.writeNumberField("totalPrice", line.totalPrice());
+                    generator.writeEndObject();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void startOrder(ExportLine line) throws IOException {
+            currentOrderId = line.orderId();
+            generator.writeStartObject();
+            generator.writeStringField("orderNumber", line.orderNumber().toString());
+            generator.writeNumberField("userId", line.userId());
+            generator.writeStringField("status", line.status());
+            generator.writeNumberField("totalAmount", line.totalAmount());
+            generator.writeStringField("createdAt", line.createdAt().toString());
+            generator.writeArrayFieldStart("items");
+        }
+
+        private void endOrder() throws IOException {
+            if (currentOrderId != null) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                writer.endLine();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            endOrder();
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes one CSV row per order item. None of the values can contain a separator or a quote,
+     * so nothing needs escaping.
+     */
+    private static final class CsvSink implements ExportSink {
+        private final Writer writer;
+
+        CsvSink(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(ExportLine line) {
+            try {
+                writer.write(line.orderNumber().toString());
+                writer.write(',');
+                writer.write(Long.toString(line.userId()));
+                writer.write(',');
+                writer.write(line.status());
+                writer.write(',');
+                writer.write(line.totalAmount().toPlainString());
+                writer.write(',');
+                writer.write(line.createdAt().toString());
+                writer.write(',');
+                writer.write(line.productId() != null ? line.productId().toString() : "");
+                writer.write(',');
+                writer.write(line.quantity() != null ? line.quantity().toString() : "");
+                writer.write(',');
+                writer.write(line.unitPrice() != null ? line.unitPrice().toPlainString() : "");
+                writer.write(',');
+                writer.write(line.totalPrice() != null ? line.totalPrice().toPlainString() : "");
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Leave the response stream open for the container to finish
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.OrderSearchCacheProperties;
+import com.example.ordermanagement.dto.OrderDto;
+import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.dto.PageDto;
+import com.example.ordermanagement.service.OrderSearchCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU of search pages with a time to live, invalidated per user through generations.
+ * <p>
+ * A global counter orders loads and invalidations. Every page remembers the counter value read
+ * before it was loaded, and every invalidation records a new value for its user; a page is only
+ * served if it was loaded after the user's last invalidation. A load that raced with a change is
+ * therefore never served once the change commits, and invalidating a user costs one map write no
+ * matter how many of their pages are cached. Invalidation records older than the time to live are
+ * purged, since every page that could predate them has expired as well.
+ * <p>
+ * Invalidations only reach the node that made the change. When several nodes serve the same users,
+ * another node keeps answering from its own pages until they expire, so the time to live is the
+ * bound on how stale a search can be there and is kept short by default.
+ */
+@Service
+public class OrderSearchCacheImpl implements OrderSearchCache {
+    private final OrderSearchCacheProperties properties;
+    private final Clock clock;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Long, Invalidation> invalidations = new ConcurrentHashMap<>();
+    private final Map<Key, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter staleEvictions;
+
+    public OrderSearchCacheImpl(OrderSearchCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC());
+    }
+
+    OrderSearchCacheImpl(OrderSearchCacheProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                boolean full = size() > properties.getMaxEntries();
+                if (full) {
+                    sizeEvictions.increment();
+                }
+                return full;
+            }
+        };
+        this.hits = Counter.builder("orders.search.cache.gets").tag("result", "hit")
+                .description("Order searches answered from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("orders.search.cache.gets").tag("result", "miss")
+                .description("Order searches that had to query the database")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("orders.search.cache.evictions").tag("cause", "size")
+                .description("Cached search pages evicted to stay within the size bound")
+                .register(meterRegistry);
+        this.staleEvictions = Counter.builder("orders.search.cache.evictions").tag("cause", "stale")
+                .description("Cached search pages dropped because they expired or were invalidated")
+                .register(meterRegistry);
+        Gauge.builder("orders.search.cache.size", this, OrderSearchCacheImpl::size)
+                .description("Search pages held in the cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public PageDto<OrderDto> get(OrderSearchRequest request, Supplier<PageDto<OrderDto>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        var key = Key.of(request);
+        long now = clock.millis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && !isValid(key.userId(), entry, now)) {
+                entries.remove(key);
+                staleEvictions.increment();
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            hits.increment();
+            return entry.page();
+        }
+
+        misses.increment();
+        long loadedAtGeneration = generation.get();
+        var page = loader.get();
+        synchronized (entries) {
+            entries.put(key, new Entry(page, loadedAtGeneration, now + properties.getTtl().toMillis()));
+        }
+        return page;
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        TransactionCallbacks.afterCommit(() -> bump(userId));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${orders.search-cache.purge-interval:1m}")
+    public void purge() {
+        long now = clock.millis();
+        synchronized (entries) {
+            var iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var cached = iterator.next();
+                if (!isValid(cached.getKey().userId(), cached.getValue(), now)) {
+                    iterator.remove();
+                    staleEvictions.increment();
+                }
+            }
+        }
+        long expiredBefore = now - properties.getTtl().toMillis();
+        invalidations.values().removeIf(invalidation -> invalidation.at() < expiredBefore);
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void bump(Long userId) {
+        invalidations.put(userId, new Invalidation(generation.incrementAndGet(), clock.millis()));
+    }
+
+    private boolean isValid(Long userId, Entry entry, long now) {
+        if (entry.expiresAt() <= now) {
+            return false;
+        }
+        var invalidation = invalidations.get(userId);
+        return invalidation == null || entry.loadedAtGeneration() >= invalidation.generation();
+    }
+
+    /**
+     * A search request with defaults filled in, so requests that run the same query share a page.
+     */
+    record Key(Long userId, LocalDate startDate, LocalDate endDate, String status, String sortBy,
+               boolean descending, int page, int size, String total) {
+
+        static Key of(OrderSearchRequest request) {
+            // The date filter only applies when both ends are given
+            boolean byDate = request.getStartDate() != null && request.getEndDate() != null;
+            return new Key(
+                    request.getUserId(),
+                    byDate ? request.getStartDate() : null,
+                    byDate ? request.getEndDate() : null,
+                    request.getStatus(),
+                    request.getSortBy() != null ? request.getSortBy() : "createdAt",
+                    "desc".equalsIgnoreCase(request.getSortDirection()),
+                    request.getPage() != null ? request.getPage() : 0,
+                    request.getSize() != null ? request.getSize() : 20,
+                    request.getTotal() != null ? request.getTotal().toLowerCase(Locale.ROOT) : null);
+        }
+    }
+
+    private record Entry(PageDto<OrderDto> page, long loadedAtGeneration, long expiresAt) {
+    }
+
+    private record Invalidation(long generation, long at) {
+    }
+}
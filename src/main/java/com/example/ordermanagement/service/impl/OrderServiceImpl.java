@@ -1,22 +1,31 @@
 package com.example.ordermanagement.service.impl;
 
 import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderEventType;
 import com.example.ordermanagement.domain.model.OrderItem;
 import com.example.ordermanagement.domain.model.OrderStatus;
-import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.repository.OrderItemRepository;
 import com.example.ordermanagement.domain.repository.OrderRepository;
+import com.example.ordermanagement.domain.repository.OrderRepositoryCustom.OrderPosition;
 import com.example.ordermanagement.domain.repository.ProductRepository;
 import com.example.ordermanagement.domain.repository.UserRepository;
 import com.example.ordermanagement.domain.specification.OrderSpecifications;
 import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.example.ordermanagement.dto.CursorPageDto;
 import com.example.ordermanagement.dto.OrderDto;
-import com.example.ordermanagement.dto.OrderItemDto;
 import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.dto.PageDto;
 import com.example.ordermanagement.exception.InsufficientStockException;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
 import com.example.ordermanagement.mapper.OrderMapper;
+import com.example.ordermanagement.service.InventoryLedgerService;
+import com.example.ordermanagement.service.OrderNumberGenerator;
+import com.example.ordermanagement.service.OrderEventService;
+import com.example.ordermanagement.service.OrderSearchCache;
 import com.example.ordermanagement.service.OrderService;
-import com.example.ordermanagement.service.WebhookService;
+import com.example.ordermanagement.service.ProductCatalogCache;
+import com.example.ordermanagement.service.ProductCatalogCache.CatalogProduct;
+import com.example.ordermanagement.service.SalesRollupService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
@@ -27,70 +36,133 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+    // Cursor search only sorts by keys that idx_orders_user_created_at can return in order
+    private static final String CURSOR_SORT_KEY = "createdAt";
+    private static final String EXACT_TOTAL = "exact";
+    private static final String ESTIMATED_TOTAL = "estimated";
+
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
-    private final WebhookService webhookService;
+    private final OrderItemRepository orderItemRepository;
+    private final InventoryLedgerService inventoryLedgerService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderEventService orderEventService;
     private final OrderMapper orderMapper;
+    private final OrderSearchCache orderSearchCache;
+    private final SalesRollupService salesRollupService;
+    private final ProductCatalogCache productCatalogCache;
 
     @Override
     @Transactional
     public OrderDto createOrder(CreateOrderRequest request) {
-        var user = userRepository.findById(request.getUserId())
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        if (!userRepository.existsById(request.getUserId())) {
+            throw new EntityNotFoundException("User not found");
+        }
 
+        // Attach the user by reference; the order only needs its id
         var order = Order.builder()
-                .orderNumber(UUID.randomUUID())
-                .user(user)
+                .orderNumber(orderNumberGenerator.next())
+                .user(userRepository.getReferenceById(request.getUserId()))
                 .status(OrderStatus.PENDING)
                 .build();
 
-        user.addOrder(order);
-
         processOrderItems(order, request.getItems());
         order.setTotalAmount(calculateTotalAmount(order.getItems()));
 
         var savedOrder = orderRepository.save(order);
-        webhookService.notifyOrderCreated(savedOrder);
+        orderEventService.record(OrderEventType.ORDER_CREATED, savedOrder);
+        orderSearchCache.invalidate(request.getUserId());
+        salesRollupService.recordCreated(List.of(savedOrder));
 
         return orderMapper.toDto(savedOrder);
     }
 
     private void processOrderItems(Order order, List<CreateOrderRequest.OrderItemRequest> itemRequests) {
-        itemRequests.forEach(itemRequest -> {
-            var product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+        // Merge duplicate lines so each product is reserved exactly once
+        Map<Long, Integer> requestedQuantities = itemRequests.stream()
+                .collect(Collectors.toMap(
+                        CreateOrderRequest.OrderItemRequest::getProductId,
+                        CreateOrderRequest.OrderItemRequest::getQuantity,
+                        Integer::sum,
+                        TreeMap::new));
 
-            validateAndUpdateStock(product, itemRequest.getQuantity());
+        // Products reserved in the database are priced from the rows their reservations write. Ledger
+        // reservations never touch the products row, so there is no version to check a cached price
+        // against; those products are read from the database instead.
+        Map<Boolean, List<Long>> productIdsByLedger = requestedQuantities.keySet().stream()
+                .collect(Collectors.partitioningBy(inventoryLedgerService::isManaged));
+        Set<Long> ledgerProductIds = Set.copyOf(productIdsByLedger.get(true));
+        Map<Long, CatalogProduct> products = new HashMap<>(productCatalogCache.getAll(productIdsByLedger.get(false)));
+        products.putAll(productCatalogCache.reloadAll(ledgerProductIds));
+
+        if (products.size() != requestedQuantities.size()) {
+            throw new EntityNotFoundException("Product not found");
+        }
+
+        // Reserve in ascending product id order so concurrent orders take row locks in the same order
+        Set<Long> deferredProductIds = new HashSet<>();
+        requestedQuantities.forEach((productId, quantity) -> {
+            var product = products.get(productId);
+            if (ledgerProductIds.contains(productId)) {
+                reserveFromLedger(product, quantity);
+                deferredProductIds.add(productId);
+            } else {
+                products.put(productId, decrementStock(product, quantity));
+            }
+        });
 
+        itemRequests.forEach(itemRequest -> {
+            var product = products.get(itemRequest.getProductId());
             var orderItem = createOrderItem(order, product, itemRequest.getQuantity());
+            orderItem.setStockDeferred(deferredProductIds.contains(product.id()));
             order.addItem(orderItem);
         });
     }
 
-    private void validateAndUpdateStock(Product product, Integer requestedQuantity) {
-        if (product.getStockQuantity() < requestedQuantity) {
-            throw new InsufficientStockException(
-                    "Insufficient stock for product: " + product.getName());
+    /**
+     * Reserves stock from the inventory ledger; the products table is updated later by the ledger flush.
+     */
+    private void reserveFromLedger(CatalogProduct product, Integer requestedQuantity) {
+        if (!inventoryLedgerService.tryReserve(product.id(), requestedQuantity)) {
+            throw new InsufficientStockException("Insufficient stock for product: " + product.name());
         }
-        product.setStockQuantity(product.getStockQuantity() - requestedQuantity);
-        productRepository.save(product);
     }
 
-    private OrderItem createOrderItem(Order order, Product product, Integer quantity) {
+    /**
+     * Reserves stock in the products table and returns the product as the reservation wrote it, so the
+     * line is priced from the locked row even if another node changed it since it was cached.
+     */
+    private CatalogProduct decrementStock(CatalogProduct product, Integer requestedQuantity) {
+        var written = productRepository.decrementStock(product.id(), requestedQuantity)
+                .map(CatalogProduct::of)
+                .orElseThrow(() -> new InsufficientStockException(
+                        "Insufficient stock for product: " + product.name()));
+        productCatalogCache.put(written);
+        return written;
+    }
+
+    private OrderItem createOrderItem(Order order, CatalogProduct product, Integer quantity) {
+        // Attach the product by reference; the item only needs its id
         return OrderItem.builder()
                 .order(order)
-                .product(product)
+                .product(productRepository.getReferenceById(product.id()))
                 .quantity(quantity)
-                .unitPrice(product.getPrice())
-                .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)))
+                .unitPrice(product.price())
+                .totalPrice(product.price().multiply(BigDecimal.valueOf(quantity)))
                 .build();
     }
 
@@ -103,8 +175,14 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public OrderDto getOrder(UUID orderNumber) {
-        return orderRepository.findByOrderNumber(orderNumber)
-                .map(this::mapToDto)
+        return orderRepository.findDtoByOrderNumber(orderNumber)
+                .orElseThrow(() -> new EntityNotFoundException("Order not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getOrderVersion(UUID orderNumber) {
+        return orderRepository.findVersionByOrderNumber(orderNumber)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found"));
     }
 
@@ -120,28 +198,132 @@ public class OrderServiceImpl implements OrderService {
 
         order.setStatus(OrderStatus.CANCELLED);
 
-        // Restore product stock
+        // Restore product stock without loading the products, in ascending product id order
+        Map<Long, Integer> restoredQuantities = new TreeMap<>();
         order.getItems().forEach(item -> {
-            var product = item.getProduct();
-            product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-            productRepository.save(product);
+            var productId = item.getProduct().getId();
+            // A deferred line that has not been flushed yet never reached the products table
+            boolean flushed = !Boolean.TRUE.equals(item.getStockDeferred())
+                    || orderItemRepository.clearStockDeferred(item.getId()) == 0;
+            if (flushed) {
+                restoredQuantities.merge(productId, item.getQuantity(), Integer::sum);
+            }
+            if (inventoryLedgerService.isManaged(productId)) {
+                inventoryLedgerService.release(productId, item.getQuantity());
+            }
         });
+        restoredQuantities.forEach(productRepository::incrementStock);
 
         orderRepository.save(order);
-        webhookService.notifyOrderCancelled(order);
+        orderEventService.record(OrderEventType.ORDER_CANCELLED, order);
+        orderSearchCache.invalidate(order.getUser().getId());
+        salesRollupService.recordStatusChange(order, OrderStatus.PENDING);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderDto> searchOrders(OrderSearchRequest request) {
+    public PageDto<OrderDto> searchOrders(OrderSearchRequest request) {
         if (request.getUserId() == null) {
             throw new IllegalArgumentException("User ID cannot be null");
         }
+        var total = request.getTotal();
+        if (total != null && !total.equalsIgnoreCase(EXACT_TOTAL) && !total.equalsIgnoreCase(ESTIMATED_TOTAL)) {
+            throw new IllegalArgumentException("Total must be " + EXACT_TOTAL + " or " + ESTIMATED_TOTAL);
+        }
+        return orderSearchCache.get(request, () -> loadPage(request));
+    }
+
+    private PageDto<OrderDto> loadPage(OrderSearchRequest request) {
+        var total = request.getTotal();
 
         // Verify user exists
         userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        Specification<Order> spec = searchSpecification(request);
+
+        // Create pageable for pagination and sorting; id breaks ties so pages never overlap
+        var direction = request.getSortDirection() != null && request.getSortDirection().equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        var sortBy = request.getSortBy() != null ? request.getSortBy() : "createdAt";
+        var sort = Sort.by(direction, sortBy);
+        if (!sortBy.equals("id")) {
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+        Pageable pageable = PageRequest.of(
+                request.getPage() != null ? request.getPage() : 0,
+                request.getSize() != null ? request.getSize() : 20,
+                sort
+        );
+
+        int size = pageable.getPageSize();
+        var ids = PageSlice.of(
+                orderRepository.findIds(spec, pageable.getSort(), pageable.getOffset(), PageSlice.limit(size)), size);
+        boolean hasNext = ids.hasNext();
+        var items = orderRepository.findDtosByIdIn(ids.rows());
+        var page = PageDto.<OrderDto>builder()
+                .items(items)
+                .page(pageable.getPageNumber())
+                .size(size)
+                .hasNext(hasNext);
+
+        if (total != null && !hasNext && (!items.isEmpty() || pageable.getOffset() == 0)) {
+            // The last page tells the exact total for free; a page past the end says nothing about it
+            page.totalElements(pageable.getOffset() + items.size()).totalEstimated(false);
+        } else if (EXACT_TOTAL.equalsIgnoreCase(total)) {
+            page.totalElements(orderRepository.count(spec)).totalEstimated(false);
+        } else if (ESTIMATED_TOTAL.equalsIgnoreCase(total)) {
+            // With a next page, at least one order beyond this page is known to exist
+            long seen = hasNext ? pageable.getOffset() + size + 1 : 0;
+            long estimate = Math.max(estimateTotal(request), seen);
+            page.totalElements(estimate).totalEstimated(true);
+        }
+        return page.build();
+    }
+
+    private long estimateTotal(OrderSearchRequest request) {
+        boolean byDate = request.getStartDate() != null && request.getEndDate() != null;
+        return orderRepository.estimateCount(request.getUserId(), request.getStatus(),
+                byDate ? OrderSpecifications.startOfDay(request.getStartDate()) : null,
+                byDate ? OrderSpecifications.endOfDay(request.getEndDate()) : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> searchOrdersByCursor(OrderSearchRequest request) {
+        if (request.getUserId() == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (request.getSortBy() != null && !request.getSortBy().equals(CURSOR_SORT_KEY)) {
+            throw new IllegalArgumentException("Cursor search can only be sorted by " + CURSOR_SORT_KEY);
+        }
+        int size = request.getSize() != null ? request.getSize() : 20;
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        if (!userRepository.existsById(request.getUserId())) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        boolean descending = "desc".equalsIgnoreCase(request.getSortDirection());
+        Specification<Order> spec = searchSpecification(request);
+        if (request.getCursor() != null) {
+            var cursor = OrderCursor.decode(request.getCursor());
+            spec = spec.and(OrderSpecifications.afterPosition(cursor.createdAt(), cursor.id(), descending));
+        }
+
+        var direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        var sort = Sort.by(direction, CURSOR_SORT_KEY).and(Sort.by(direction, "id"));
+        var positions = orderRepository.findPositions(spec, sort, PageSlice.limit(size));
+
+        // Orders deleted since they were selected are missing from the page, but still move the cursor on
+        return PageSlice.of(positions, size).toCursorPage(
+                page -> orderRepository.findDtosByIdIn(page.stream().map(OrderPosition::id).toList()),
+                last -> new OrderCursor(last.createdAt(), last.id()).encode());
+    }
+
+    private Specification<Order> searchSpecification(OrderSearchRequest request) {
         Specification<Order> spec = Specification.where(null);
 
         // Add user filter
@@ -156,42 +338,6 @@ public class OrderServiceImpl implements OrderService {
         if (request.getStatus() != null) {
             spec = spec.and(OrderSpecifications.byStatus(request.getStatus()));
         }
-
-        // Create pageable for pagination and sorting
-        Pageable pageable = PageRequest.of(
-                request.getPage() != null ? request.getPage() : 0,
-                request.getSize() != null ? request.getSize() : 20,
-                Sort.by(request.getSortDirection() != null && request.getSortDirection().equalsIgnoreCase("desc")
-                                ? Sort.Direction.DESC
-                                : Sort.Direction.ASC,
-                        request.getSortBy() != null ? request.getSortBy() : "createdAt")
-        );
-
-        return orderRepository.findAll(spec, pageable)
-                .stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
-    }
-
-    private OrderDto mapToDto(Order order) {
-        return OrderDto.builder()
-                .orderNumber(order.getOrderNumber())
-                .userId(order.getUser().getId())
-                .status(order.getStatus())
-                .totalAmount(order.getTotalAmount())
-                .items(order.getItems().stream()
-                        .map(this::mapToDto)
-                        .collect(Collectors.toList()))
-                .createdAt(order.getCreatedAt())
-                .build();
-    }
-
-    private OrderItemDto mapToDto(OrderItem item) {
-        return OrderItemDto.builder()
-                .productId(item.getProduct().getId())
-                .quantity(item.getQuantity())
-                .unitPrice(item.getUnitPrice())
-                .totalPrice(item.getTotalPrice())
-                .build();
+        return spec;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.dto.CursorPageDto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of rows, read with {@link #limit(int)}: the one extra row tells whether there is a next
+ * page without counting, and is dropped.
+ */
+record PageSlice<R>(List<R> rows, boolean hasNext) {
+
+    static int limit(int size) {
+        return size + 1;
+    }
+
+    static <R> PageSlice<R> of(List<R> fetched, int size) {
+        boolean hasNext = fetched.size() > size;
+        return new PageSlice<>(hasNext ? fetched.subList(0, size) : fetched, hasNext);
+    }
+
+    /**
+     * Builds the page, with a cursor that continues after its last row when there is a next page.
+     */
+    <T> CursorPageDto<T> toCursorPage(Function<List<R>, List<T>> items, Function<R, String> cursor) {
+        return CursorPageDto.<T>builder()
+                .items(items.apply(rows))
+                .nextCursor(hasNext ? cursor.apply(rows.get(rows.size() - 1)) : null)
+                .build();
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.ProductCatalogCacheProperties;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.service.ProductCatalogCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded LRU of product catalog attributes with a time to live, read through from the database.
+ * <p>
+ * Local invalidation uses the same generations as {@link OrderSearchCacheImpl}, per product instead
+ * of per user: a load that raced with a price change is not cached.
+ * <p>
+ * Changes made on other nodes are only caught by the version check in {@link #get(Long, long)}, and
+ * orders are priced from the row their stock reservation wrote or from {@link #reloadAll(Collection)}. A cached product is never replaced by
+ * an older version.
+ */
+@Service
+public class ProductCatalogCacheImpl implements ProductCatalogCache {
+    private final ProductRepository productRepository;
+    private final ProductCatalogCacheProperties properties;
+    private final Clock clock;
+
+    private final AtomicLong generation = new AtomicLong();
+    // Both guarded by the entries lock, so an invalidation cannot slip between check and insert
+    private final Map<Long, Invalidation> invalidations = new HashMap<>();
+    private final Map<Long, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter staleEvictions;
+
+    public ProductCatalogCacheImpl(ProductRepository productRepository, ProductCatalogCacheProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this(productRepository, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    ProductCatalogCacheImpl(ProductRepository productRepository, ProductCatalogCacheProperties properties,
+                            MeterRegistry meterRegistry, Clock clock) {
+        this.productRepository = productRepository;
+        this.properties = properties;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                boolean full = size() > properties.getMaxEntries();
+                if (full) {
+                    sizeEvictions.increment();
+                }
+                return full;
+            }
+        };
+        this.hits = Counter.builder("products.catalog.cache.gets").tag("result", "hit")
+                .description("Product lookups answered from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("products.catalog.cache.gets").tag("result", "miss")
+                .description("Product lookups that had to query the database")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("products.catalog.cache.evictions").tag("cause", "size")
+                .description("Cached products evicted to stay within the size bound")
+                .register(meterRegistry);
+        this.staleEvictions = Counter.builder("products.catalog.cache.evictions").tag("cause", "stale")
+                .description("Cached products dropped because they expired or were invalidated")
+                .register(meterRegistry);
+        Gauge.builder("products.catalog.cache.size", this, ProductCatalogCacheImpl::size)
+                .description("Products held in the cache")
+                .register(meterRegistry);
+        Gauge.builder("products.catalog.cache.hit.ratio", this, ProductCatalogCacheImpl::hitRatio)
+                .description("Share of product lookups answered from the cache since startup")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Map<Long, CatalogProduct> getAll(Collection<Long> ids) {
+        if (!properties.isEnabled()) {
+            return load(ids);
+        }
+        long now = clock.millis();
+        Map<Long, CatalogProduct> products = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (entries) {
+            for (var id : ids) {
+                var entry = entries.get(id);
+                if (entry != null && entry.expiresAt() <= now) {
+                    entries.remove(id);
+                    staleEvictions.increment();
+                    entry = null;
+                }
+                if (entry != null) {
+                    products.put(id, entry.product());
+                } else {
+                    missing.add(id);
+                }
+            }
+        }
+        hits.increment(products.size());
+        if (missing.isEmpty()) {
+            return products;
+        }
+
+        misses.increment(missing.size());
+        long loadedAtGeneration = generation.get();
+        var loaded = load(missing);
+        loaded.values().forEach(product -> cache(product, loadedAtGeneration, now));
+        products.putAll(loaded);
+        return products;
+    }
+
+    @Override
+    public Optional<CatalogProduct> get(Long id, long version) {
+        if (!properties.isEnabled()) {
+            return Optional.ofNullable(load(List.of(id)).get(id));
+        }
+        long now = clock.millis();
+        synchronized (entries) {
+            var entry = entries.get(id);
+            if (entry != null && entry.expiresAt() > now && isAtLeast(entry.product(), version)) {
+                hits.increment();
+                return Optional.of(entry.product());
+            }
+            if (entry != null) {
+                entries.remove(id);
+                staleEvictions.increment();
+            }
+        }
+        misses.increment();
+        long loadedAtGeneration = generation.get();
+        var loaded = Optional.ofNullable(load(List.of(id)).get(id));
+        loaded.ifPresent(product -> cache(product, loadedAtGeneration, now));
+        return loaded;
+    }
+
+    @Override
+    public Map<Long, CatalogProduct> reloadAll(Collection<Long> ids) {
+        long loadedAtGeneration = generation.get();
+        var loaded = load(ids);
+        if (properties.isEnabled()) {
+            long now = clock.millis();
+            loaded.values().forEach(product -> cache(product, loadedAtGeneration, now));
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(CatalogProduct product) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long writtenAtGeneration = generation.get();
+        // Not cached before commit, a rollback would leave it ahead of the database
+        TransactionCallbacks.afterCommit(() -> cache(product, writtenAtGeneration, clock.millis()));
+    }
+
+    @Override
+    public void invalidate(Long id) {
+        TransactionCallbacks.afterCommit(() -> bump(id));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${products.catalog-cache.purge-interval:1m}")
+    public void purge() {
+        long now = clock.millis();
+        long expiredBefore = now - properties.getTtl().toMillis();
+        synchronized (entries) {
+            var iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expiresAt() <= now) {
+                    iterator.remove();
+                    staleEvictions.increment();
+                }
+            }
+            invalidations.values().removeIf(invalidation -> invalidation.at() < expiredBefore);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double hitRatio() {
+        double lookups = hits.count() + misses.count();
+        return lookups > 0 ? hits.count() / lookups : Double.NaN;
+    }
+
+    private Map<Long, CatalogProduct> load(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return productRepository.findCatalogAttributes(ids).stream()
+                .collect(Collectors.toMap(ProductRepository.CatalogAttributes::getId, CatalogProduct::of));
+    }
+
+    /**
+     * Caches a product read after {@code loadedAtGeneration}, unless it was invalidated since or a
+     * newer version is already cached.
+     */
+    private void cache(CatalogProduct product, long loadedAtGeneration, long loadedAt) {
+        long expiresAt = loadedAt + properties.getTtl().toMillis();
+        synchronized (entries) {
+            var invalidation = invalidations.get(product.id());
+            if (invalidation != null && loadedAtGeneration < invalidation.generation()) {
+                return;
+            }
+            var cached = entries.get(product.id());
+            if (cached == null || isAtLeast(product, cached.product().version())) {
+                entries.put(product.id(), new Entry(product, expiresAt));
+            }
+        }
+    }
+
+    private static boolean isAtLeast(CatalogProduct product, Long version) {
+        return version == null || product.version() != null && product.version() >= version;
+    }
+
+    private void bump(Long id) {
+        synchronized (entries) {
+            invalidations.put(id, new Invalidation(generation.incrementAndGet(), clock.millis()));
+            if (entries.remove(id) != null) {
+                staleEvictions.increment();
+            }
+        }
+    }
+
+    private record Entry(CatalogProduct product, long expiresAt) {
+    }
+
+    private record Invalidation(long generation, long at) {
+    }
+}
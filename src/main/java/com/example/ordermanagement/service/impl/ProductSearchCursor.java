@@ -0,0 +1,31 @@
+package com.example.ordermanagement.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a product in the ranked results of a search, handed to clients as an opaque token
+ * so the next page can start right after it. Remembers whether the search fell back to fuzzy
+ * matching, so later pages continue the same way.
+ */
+public record ProductSearchCursor(boolean fuzzy, float score, Long id) {
+
+    public String encode() {
+        // The raw bits keep the score exact, so the next page starts precisely after this product
+        var value = (fuzzy ? "f" : "t") + "." + Float.floatToIntBits(score) + "." + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static ProductSearchCursor decode(String token) {
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split("\\.");
+            if (parts.length != 3 || !(parts[0].equals("t") || parts[0].equals("f"))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ProductSearchCursor(parts[0].equals("f"), Float.intBitsToFloat(Integer.parseInt(parts[1])),
+                    Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
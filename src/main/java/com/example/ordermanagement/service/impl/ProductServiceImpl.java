@@ -1,56 +1,148 @@
 package com.example.ordermanagement.service.impl;
 
 import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.domain.repository.ProductSearchRepository;
 import com.example.ordermanagement.dto.CreateProductRequest;
+import com.example.ordermanagement.dto.CursorPageDto;
 import com.example.ordermanagement.dto.ProductDto;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
 import com.example.ordermanagement.mapper.ProductMapper;
+import com.example.ordermanagement.service.InventoryLedgerService;
+import com.example.ordermanagement.service.ProductCatalogCache;
 import com.example.ordermanagement.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final ProductRepository productRepository;
+    private final ProductSearchRepository productSearchRepository;
     private final ProductMapper productMapper;
+    private final InventoryLedgerService inventoryLedgerService;
+    private final ProductCatalogCache productCatalogCache;
 
     @Override
     @Transactional
     public ProductDto createProduct(CreateProductRequest request) {
         var product = productMapper.toEntity(request);
         var savedProduct = productRepository.save(product);
+        productCatalogCache.invalidate(savedProduct.getId());
         return productMapper.toDto(savedProduct);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ProductDto getProduct(Long id) {
-        return productRepository.findById(id)
-                .map(productMapper::toDto)
+        // Stock changes with every order, so it is never cached
+        var stock = productRepository.findStockLevelById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        // The attributes must be at least as new as the version that goes out as the ETag
+        var product = productCatalogCache.get(id, stock.getVersion())
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        return ProductDto.builder()
+                .id(product.id())
+                .name(product.name())
+                .description(product.description())
+                .price(product.price())
+                .stockQuantity(stock.getStockQuantity())
+                .version(stock.getVersion())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getProductVersion(Long id) {
+        return productRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductDto> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(productMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<ProductDto> getProducts(String cursor, Integer size) {
+        int pageSize = size != null ? size : 50;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long afterId = cursor != null ? IdCursor.decode(cursor).id() : 0;
+
+        var products = productRepository.findByIdGreaterThanOrderById(afterId, Limit.of(PageSlice.limit(pageSize)));
+        return PageSlice.of(products, pageSize).toCursorPage(
+                page -> page.stream().map(productMapper::toDto).toList(),
+                last -> new IdCursor(last.getId()).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProductDto> searchProducts(String query, String cursor, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be blank");
+        }
+        int pageSize = size != null ? size : 20;
+        if (pageSize < 1 || pageSize > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+
+        int limit = PageSlice.limit(pageSize);
+        List<ProductSearchRepository.Hit> hits;
+        boolean fuzzy;
+        if (cursor != null) {
+            var after = ProductSearchCursor.decode(cursor);
+            fuzzy = after.fuzzy();
+            hits = fuzzy
+                    ? productSearchRepository.searchFuzzy(query, after.score(), after.id(), limit)
+                    : productSearchRepository.searchText(query, after.score(), after.id(), limit);
+        } else {
+            hits = productSearchRepository.searchText(query, null, null, limit);
+            fuzzy = hits.isEmpty();
+            if (fuzzy) {
+                hits = productSearchRepository.searchFuzzy(query, null, null, limit);
+            }
+        }
+
+        return PageSlice.of(hits, pageSize).toCursorPage(
+                page -> page.stream().map(ProductSearchRepository.Hit::product).toList(),
+                last -> new ProductSearchCursor(fuzzy, last.score(), last.product().getId()).encode());
     }
 
     @Override
     @Transactional
     public ProductDto updateStock(Long id, Integer quantity) {
+        if (inventoryLedgerService.isManaged(id)) {
+            // Settle deferred reservations first so they are not subtracted from the new quantity later
+            inventoryLedgerService.flush();
+        }
+
         var product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
         product.setStockQuantity(quantity);
-        return productMapper.toDto(productRepository.save(product));
+        var savedProduct = productRepository.save(product);
+        inventoryLedgerService.refresh(id);
+        return productMapper.toDto(savedProduct);
+    }
+
+    @Override
+    @Transactional
+    public ProductDto updatePrice(Long id, BigDecimal price) {
+        if (price.signum() <= 0) {
+            throw new IllegalArgumentException("Price must be greater than 0");
+        }
+        var product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+
+        product.setPrice(price);
+        var savedProduct = productRepository.save(product);
+        productCatalogCache.invalidate(id);
+        return productMapper.toDto(savedProduct);
     }
 
     @Override
@@ -60,5 +152,7 @@ public class ProductServiceImpl implements ProductService {
             throw new ResourceNotFoundException("Product not found");
         }
         productRepository.deleteById(id);
+        inventoryLedgerService.refresh(id);
+        productCatalogCache.invalidate(id);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.service.OrderNumberGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) order numbers, as issued before time-ordered numbers were introduced.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.order-number.generator", havingValue = "random")
+public class RandomOrderNumberGenerator implements OrderNumberGenerator {
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
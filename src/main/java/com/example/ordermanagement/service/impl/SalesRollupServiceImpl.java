@@ -0,0 +1,275 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.SalesRollupProperties;
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderItem;
+import com.example.ordermanagement.domain.model.OrderStatus;
+import com.example.ordermanagement.domain.repository.SalesRollupRepository;
+import com.example.ordermanagement.domain.repository.SalesRollupRepository.ProductTotals;
+import com.example.ordermanagement.domain.repository.SalesRollupRepository.Totals;
+import com.example.ordermanagement.dto.RevenueRowDto;
+import com.example.ordermanagement.service.SalesRollupService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Applies each order change to the rollups as a delta in the same transaction, so the rollups
+ * commit or roll back together with the orders. Deltas go to a random slot of their rows, which
+ * keeps concurrent orders of the same day from queueing on one row lock.
+ * <p>
+ * A rebuild never blocks writers. It aggregates id ranges of the orders on several connections
+ * that all read one exported snapshot, and reads what the rollups held in that same snapshot. The
+ * difference is how far the rollups had drifted from the orders at that point. Every later change
+ * carries its own delta, so the drift stays the same, and the rebuild applies it as one more delta
+ * on top of whatever writers have added since. Rebuilds take turns, so no drift is corrected twice.
+ */
+@Slf4j
+@Service
+public class SalesRollupServiceImpl implements SalesRollupService {
+    static final int MAX_PRODUCTS = 100;
+    private static final String BY_DAY = "day";
+    private static final String BY_STATUS = "status";
+    private static final String BY_PRODUCT = "product";
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final SalesRollupProperties properties;
+    private final TransactionTemplate rebuildTransaction;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate correctionTransaction;
+
+    private final ExecutorService rebuildRunner = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "sales-rollup-rebuild"));
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public SalesRollupServiceImpl(SalesRollupRepository salesRollupRepository, SalesRollupProperties properties,
+                                  PlatformTransactionManager transactionManager) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.properties = properties;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.chunkTransaction.setReadOnly(true);
+        this.correctionTransaction = new TransactionTemplate(transactionManager);
+        this.correctionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional
+    public void recordCreated(Collection<Order> orders) {
+        salesRollupRepository.add(
+                merge(orders.stream().map(order -> totalsOf(order, order.getStatus()))),
+                mergeProducts(orders.stream().flatMap(order -> productTotalsOf(order, order.getStatus()))),
+                slot());
+    }
+
+    @Override
+    @Transactional
+    public void recordStatusChange(Order order, OrderStatus previousStatus) {
+        salesRollupRepository.add(
+                List.of(totalsOf(order, previousStatus).negate(), totalsOf(order, order.getStatus())),
+                Stream.concat(productTotalsOf(order, previousStatus).map(ProductTotals::negate),
+                        productTotalsOf(order, order.getStatus())).toList(),
+                slot());
+    }
+
+    @Override
+    @Transactional
+    public void removeOrdersOfUser(Long userId) {
+        salesRollupRepository.add(
+                salesRollupRepository.orderTotalsOfUser(userId).stream().map(Totals::negate).toList(),
+                salesRollupRepository.productTotalsOfUser(userId).stream().map(ProductTotals::negate).toList(),
+                slot());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevenueRowDto> getRevenue(LocalDate from, LocalDate to, String status, String groupBy,
+                                          Integer limit) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("From date must not be after to date");
+        }
+        var orderStatus = status != null ? parseStatus(status) : null;
+        var grouping = groupBy != null ? groupBy.toLowerCase(Locale.ROOT) : BY_DAY;
+        return switch (grouping) {
+            case BY_DAY -> salesRollupRepository.revenueByDay(from, to, orderStatus);
+            case BY_STATUS -> salesRollupRepository.revenueByStatus(from, to, orderStatus);
+            case BY_PRODUCT -> {
+                int products = limit != null ? limit : 20;
+                if (products < 1 || products > MAX_PRODUCTS) {
+                    throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PRODUCTS);
+                }
+                yield salesRollupRepository.revenueByProduct(from, to, orderStatus, products);
+            }
+            default -> throw new IllegalArgumentException(
+                    "Group by must be " + BY_DAY + ", " + BY_STATUS + " or " + BY_PRODUCT);
+        };
+    }
+
+    @Override
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        var executor = Executors.newFixedThreadPool(properties.getRebuildThreads());
+        try {
+            rebuildTransaction.executeWithoutResult(status -> {
+                // Taken before anything is read, so the snapshot below includes the corrections of a
+                // rebuild this one had to wait for
+                salesRollupRepository.lockForRebuild();
+                var snapshot = salesRollupRepository.exportSnapshot();
+
+                List<Future<Chunk>> chunks = new ArrayList<>();
+                salesRollupRepository.orderIdRange().ifPresent(range -> {
+                    for (long from = range[0]; from <= range[1]; from += properties.getRebuildChunkSize()) {
+                        long fromId = from;
+                        long toId = Math.min(from + properties.getRebuildChunkSize() - 1, range[1]);
+                        chunks.add(executor.submit(() -> aggregate(snapshot, fromId, toId)));
+                    }
+                });
+
+                // Start from what the rollups held in the snapshot, negated, and add the orders to it
+                Map<List<Object>, Totals> orderTotals = new HashMap<>();
+                Map<List<Object>, ProductTotals> productTotals = new HashMap<>();
+                salesRollupRepository.rolledUpOrderTotals().forEach(t ->
+                        orderTotals.merge(List.of(t.day(), t.status()), t.negate(), Totals::plus));
+                salesRollupRepository.rolledUpProductTotals().forEach(t -> productTotals.merge(
+                        List.of(t.day(), t.productId(), t.status()), t.negate(), ProductTotals::plus));
+                for (var chunk : chunks) {
+                    var totals = await(chunk);
+                    totals.orders().forEach(t -> orderTotals.merge(List.of(t.day(), t.status()), t, Totals::plus));
+                    totals.products().forEach(t -> productTotals.merge(List.of(t.day(), t.productId(), t.status()),
+                            t, ProductTotals::plus));
+                }
+
+                var orderCorrections = orderTotals.values().stream().filter(t -> !t.isZero()).toList();
+                var productCorrections = productTotals.values().stream().filter(t -> !t.isZero()).toList();
+                // Committed like any other delta, while this transaction still keeps other rebuilds out
+                correctionTransaction.executeWithoutResult(correction ->
+                        salesRollupRepository.add(orderCorrections, productCorrections, slot()));
+                log.info("Rebuilt sales rollups from {} chunks of orders in {} ms; corrected {} order and {} product"
+                                + " totals", chunks.size(), (System.nanoTime() - startedAt) / 1_000_000,
+                        orderCorrections.size(), productCorrections.size());
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            rebuildRunner.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Failed to rebuild sales rollups", e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuilding.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    @PreDestroy
+    void stopRebuild() {
+        rebuildRunner.shutdownNow();
+    }
+
+    private Chunk aggregate(String snapshot, long fromId, long toId) {
+        return chunkTransaction.execute(status -> {
+            salesRollupRepository.useSnapshot(snapshot);
+            return new Chunk(salesRollupRepository.orderTotalsBetweenIds(fromId, toId),
+                    salesRollupRepository.productTotalsBetweenIds(fromId, toId));
+        });
+    }
+
+    private static Chunk await(Future<Chunk> chunk) {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding sales rollups", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to aggregate orders for the sales rollups", e.getCause());
+        }
+    }
+
+    private short slot() {
+        return (short) ThreadLocalRandom.current().nextInt(properties.getSlots());
+    }
+
+    private static OrderStatus parseStatus(String status) {
+        try {
+            return OrderStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown order status: " + status);
+        }
+    }
+
+    private static Totals totalsOf(Order order, OrderStatus status) {
+        return new Totals(dayOf(order), status, 1,
+                order.getItems().stream().mapToLong(OrderItem::getQuantity).sum(),
+                order.getTotalAmount());
+    }
+
+    /**
+     * Totals per product of one order; repeated lines of a product count as one order of it.
+     */
+    private static Stream<ProductTotals> productTotalsOf(Order order, OrderStatus status) {
+        var day = dayOf(order);
+        return order.getItems().stream()
+                .collect(Collectors.groupingBy(item -> item.getProduct().getId(), TreeMap::new, Collectors.toList()))
+                .entrySet().stream()
+                .map(lines -> new ProductTotals(day, lines.getKey(), status, 1,
+                        lines.getValue().stream().mapToLong(OrderItem::getQuantity).sum(),
+                        lines.getValue().stream().map(OrderItem::getTotalPrice).reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+
+    private static LocalDate dayOf(Order order) {
+        return LocalDate.ofInstant(order.getCreatedAt(), ZoneOffset.UTC);
+    }
+
+    private static List<Totals> merge(Stream<Totals> totals) {
+        return List.copyOf(totals.collect(Collectors.toMap(t -> List.of(t.day(), t.status()), t -> t, Totals::plus))
+                .values());
+    }
+
+    private static List<ProductTotals> mergeProducts(Stream<ProductTotals> totals) {
+        return List.copyOf(totals.collect(Collectors.toMap(t -> List.of(t.day(), t.productId(), t.status()), t -> t,
+                ProductTotals::plus)).values());
+    }
+
+    private record Chunk(List<Totals> orders, List<ProductTotals> products) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.service.OrderNumberGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered order numbers in the UUID version 7 layout: a 48-bit Unix millisecond timestamp,
+ * a 12-bit counter and 62 random bits. New numbers land at the right-hand edge of the
+ * {@code order_number} index instead of on a random page.
+ * <p>
+ * The timestamp and counter are advanced together with a single CAS, so numbers from one
+ * instance are strictly increasing even within the same millisecond. When the counter runs out
+ * the timestamp part is borrowed from the next millisecond. The random bits come from
+ * {@link ThreadLocalRandom} rather than {@code SecureRandom}; order numbers are identifiers,
+ * not secrets.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.order-number.generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedOrderNumberGenerator implements OrderNumberGenerator {
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final Clock clock;
+
+    // Last issued timestamp and counter, packed as (millis << COUNTER_BITS) | counter
+    private final AtomicLong state = new AtomicLong();
+
+    public TimeOrderedOrderNumberGenerator() {
+        this(Clock.systemUTC());
+    }
+
+    TimeOrderedOrderNumberGenerator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID next() {
+        long timeAndCounter = nextTimeAndCounter(clock.millis());
+        long mostSignificantBits = (timeAndCounter >>> COUNTER_BITS) << 16
+                | VERSION
+                | (timeAndCounter & ((1L << COUNTER_BITS) - 1));
+        long leastSignificantBits = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    private long nextTimeAndCounter(long millis) {
+        long candidate = millis << COUNTER_BITS;
+        while (true) {
+            long last = state.get();
+            long next = candidate > last ? candidate : last + 1;
+            if (state.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -1,23 +1,30 @@
 package com.example.ordermanagement.service.impl;
 
 import com.example.ordermanagement.domain.model.User;
+import com.example.ordermanagement.domain.repository.OrderRepository;
 import com.example.ordermanagement.domain.repository.UserRepository;
 import com.example.ordermanagement.dto.CreateUserRequest;
+import com.example.ordermanagement.dto.CursorPageDto;
 import com.example.ordermanagement.dto.UserDto;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
+import com.example.ordermanagement.service.OrderSearchCache;
+import com.example.ordermanagement.service.SalesRollupService;
 import com.example.ordermanagement.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final OrderSearchCache orderSearchCache;
+    private final SalesRollupService salesRollupService;
 
     @Override
     @Transactional
@@ -44,10 +51,17 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<UserDto> getUsers(String cursor, Integer size) {
+        int pageSize = size != null ? size : 50;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long afterId = cursor != null ? IdCursor.decode(cursor).id() : 0;
+
+        var users = userRepository.findByIdGreaterThanOrderById(afterId, Limit.of(PageSlice.limit(pageSize)));
+        return PageSlice.of(users, pageSize).toCursorPage(
+                page -> page.stream().map(this::mapToDto).toList(),
+                last -> new IdCursor(last.getId()).encode());
     }
 
     @Override
@@ -56,7 +70,12 @@ public class UserServiceImpl implements UserService {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found");
         }
+        salesRollupService.removeOrdersOfUser(id);
+        // Bulk deletes instead of cascading through the user's orders one entity at a time
+        orderRepository.deleteItemsByUserId(id);
+        orderRepository.deleteByUserId(id);
         userRepository.deleteById(id);
+        orderSearchCache.invalidate(id);
     }
 
     private UserDto mapToDto(User user) {
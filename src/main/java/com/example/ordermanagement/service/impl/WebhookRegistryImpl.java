@@ -0,0 +1,158 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.domain.model.Webhook;
+import com.example.ordermanagement.domain.repository.WebhookRepository;
+import com.example.ordermanagement.exception.ResourceNotFoundException;
+import com.example.ordermanagement.service.WebhookRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps every webhook subscription in an immutable snapshot that is swapped as a whole, so
+ * readers never lock and never see a half-applied change.
+ * <p>
+ * Registrations and deletions made through this registry are applied right after their
+ * transaction commits. A periodic reload picks up anything changed behind its back, such as
+ * webhooks registered on another node; {@code webhooks.registry.staleness.seconds} reports how
+ * long ago the last reload succeeded.
+ */
+@Slf4j
+@Service
+public class WebhookRegistryImpl implements WebhookRegistry {
+    private final WebhookRepository webhookRepository;
+    private final Clock clock;
+
+    // Serializes snapshot swaps so a reload cannot overwrite a change committed while it was reading
+    private final Object lock = new Object();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public WebhookRegistryImpl(WebhookRepository webhookRepository, MeterRegistry meterRegistry) {
+        this(webhookRepository, meterRegistry, Clock.systemUTC());
+    }
+
+    WebhookRegistryImpl(WebhookRepository webhookRepository, MeterRegistry meterRegistry, Clock clock) {
+        this.webhookRepository = webhookRepository;
+        this.clock = clock;
+        Gauge.builder("webhooks.registry.size", this, registry -> registry.snapshot.byId().size())
+                .description("Webhook subscriptions held in memory")
+                .register(meterRegistry);
+        Gauge.builder("webhooks.registry.staleness.seconds", this, WebhookRegistryImpl::stalenessSeconds)
+                .description("Time since the registry was last reloaded from the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public Webhook register(Webhook webhook) {
+        var saved = webhookRepository.save(webhook);
+        var subscription = Subscription.of(saved);
+        TransactionCallbacks.afterCommit(() -> apply(current -> current.with(subscription)));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long id) {
+        var webhook = webhookRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Webhook not found"));
+        webhookRepository.delete(webhook);
+        TransactionCallbacks.afterCommit(() -> apply(current -> current.without(id)));
+    }
+
+    @Override
+    public List<Subscription> subscribers(String eventType) {
+        return current().byEventType().getOrDefault(eventType, List.of());
+    }
+
+    @Override
+    public Collection<Subscription> all() {
+        return current().byId().values();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${webhooks.registry.reload-interval:30s}")
+    public void reload() {
+        try {
+            synchronized (lock) {
+                snapshot = load();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to reload webhook registry, keeping {} subscriptions", snapshot.byId().size(), e);
+        }
+    }
+
+    private Snapshot current() {
+        var current = snapshot;
+        if (current.loadedAt() == null) {
+            // Nothing may be dispatched against the empty registry before the first load
+            synchronized (lock) {
+                if (snapshot.loadedAt() == null) {
+                    snapshot = load();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        return Snapshot.of(webhookRepository.findAll().stream().map(Subscription::of).toList(), clock.instant());
+    }
+
+    private void apply(UnaryOperator<Snapshot> change) {
+        synchronized (lock) {
+            snapshot = change.apply(snapshot);
+        }
+    }
+
+    private double stalenessSeconds() {
+        var loadedAt = snapshot.loadedAt();
+        return loadedAt == null ? Double.NaN : Duration.between(loadedAt, clock.instant()).toMillis() / 1000.0;
+    }
+
+    /**
+     * Subscriptions by id and by event type. Never modified; changes produce a new snapshot.
+     */
+    private record Snapshot(Map<Long, Subscription> byId, Map<String, List<Subscription>> byEventType,
+                            Instant loadedAt) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), null);
+
+        static Snapshot of(Collection<Subscription> subscriptions, Instant loadedAt) {
+            var byId = subscriptions.stream()
+                    .collect(Collectors.toUnmodifiableMap(Subscription::id, subscription -> subscription));
+            var byEventType = subscriptions.stream()
+                    .collect(Collectors.groupingBy(Subscription::eventType,
+                            Collectors.collectingAndThen(Collectors.toList(), List::copyOf)));
+            return new Snapshot(byId, Map.copyOf(byEventType), loadedAt);
+        }
+
+        Snapshot with(Subscription subscription) {
+            var byId = new HashMap<>(this.byId);
+            byId.put(subscription.id(), subscription);
+            return of(byId.values(), loadedAt);
+        }
+
+        Snapshot without(Long id) {
+            if (!byId.containsKey(id)) {
+                return this;
+            }
+            var byId = new HashMap<>(this.byId);
+            byId.remove(id);
+            return of(byId.values(), loadedAt);
+        }
+    }
+}
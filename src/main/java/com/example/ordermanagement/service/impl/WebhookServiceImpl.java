@@ -1,75 +1,415 @@
 package com.example.ordermanagement.service.impl;
 
-import com.example.ordermanagement.domain.model.Order;
-import com.example.ordermanagement.domain.model.Webhook;
-import com.example.ordermanagement.domain.repository.WebhookRepository;
+import com.example.ordermanagement.config.WebhookDeliveryProperties;
+import com.example.ordermanagement.domain.model.OrderEvent;
+import com.example.ordermanagement.domain.model.WebhookDelivery;
+import com.example.ordermanagement.domain.model.WebhookDeliveryStatus;
+import com.example.ordermanagement.domain.repository.OrderEventRepository;
+import com.example.ordermanagement.domain.repository.WebhookDeliveryRepository;
+import com.example.ordermanagement.service.WebhookRegistry;
+import com.example.ordermanagement.service.WebhookRegistry.Subscription;
 import com.example.ordermanagement.service.WebhookService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.example.ordermanagement.service.WebhookStatusAccumulator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Delivers order events to webhooks from the persistent {@code webhook_deliveries} queue.
+ * <p>
+ * Each endpoint gets at most {@code max-in-flight-per-endpoint} concurrent requests and its own
+ * circuit breaker; deliveries are only claimed for endpoints with free capacity, so a slow or dead
+ * subscriber leaves its backlog in the database instead of holding threads or connections that
+ * healthy subscribers need. Requests are non-blocking and share one {@link WebClient}. Failed
+ * attempts are retried with exponential backoff and jitter until {@code max-attempts} is reached.
+ * The webhook's own status is updated write-behind through the {@link WebhookStatusAccumulator}.
+ * Subscribers are looked up in the {@link WebhookRegistry}, not the database.
+ * <p>
+ * Webhooks registered with a {@code maxBatchSize} receive JSON arrays of events instead, one
+ * request per batch. A partial batch is held back until its oldest event has waited
+ * {@code maxLingerMs}, checked at the poll interval.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class WebhookServiceImpl implements WebhookService {
-    private final WebhookRepository webhookRepository;
-    private final WebClient.Builder webClientBuilder;
-    private final ObjectMapper objectMapper;
+    private static final int MAX_ERROR_LENGTH = 255;
+    static final String SCHEMA_VERSION_HEADER = "X-Event-Schema-Version";
+
+    private final WebhookRegistry webhookRegistry;
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final WebhookStatusAccumulator webhookStatusAccumulator;
+    private final WebClient webhookWebClient;
+    private final TransactionTemplate transactionTemplate;
+    private final WebhookDeliveryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    private final Timer latency;
+    private final Map<Long, EndpointState> endpoints = new ConcurrentHashMap<>();
+    private final Map<Long, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+
+    public WebhookServiceImpl(WebhookRegistry webhookRegistry,
+                              WebhookDeliveryRepository webhookDeliveryRepository,
+                              OrderEventRepository orderEventRepository,
+                              WebhookStatusAccumulator webhookStatusAccumulator, WebClient webhookWebClient,
+                              TransactionTemplate transactionTemplate, WebhookDeliveryProperties properties,
+                              MeterRegistry meterRegistry) {
+        this(webhookRegistry, webhookDeliveryRepository, orderEventRepository,
+                webhookStatusAccumulator, webhookWebClient, transactionTemplate, properties, meterRegistry,
+                Clock.systemUTC());
+    }
+
+    WebhookServiceImpl(WebhookRegistry webhookRegistry,
+                       WebhookDeliveryRepository webhookDeliveryRepository,
+                       OrderEventRepository orderEventRepository,
+                       WebhookStatusAccumulator webhookStatusAccumulator, WebClient webhookWebClient,
+                       TransactionTemplate transactionTemplate, WebhookDeliveryProperties properties,
+                       MeterRegistry meterRegistry, Clock clock) {
+        this.webhookRegistry = webhookRegistry;
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.orderEventRepository = orderEventRepository;
+        this.webhookStatusAccumulator = webhookStatusAccumulator;
+        this.webhookWebClient = webhookWebClient;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.latency = Timer.builder("webhooks.delivery.latency")
+                .description("Duration of webhook delivery requests")
+                .register(meterRegistry);
+    }
 
-    @Async
     @Override
-    public void notifyOrderCreated(Order order) {
-        sendWebhookNotification("ORDER_CREATED", order);
+    public void dispatch(OrderEvent event) {
+        var webhookIds = webhookRegistry.subscribers(event.getEventType().name()).stream()
+                .map(Subscription::id)
+                .toList();
+        if (!webhookIds.isEmpty()) {
+            // The registry may still list webhooks another node has deleted; those are skipped
+            webhookDeliveryRepository.enqueue(event.getId(), webhookIds, clock.instant());
+        }
     }
 
-    @Async
     @Override
-    public void notifyOrderCancelled(Order order) {
-        sendWebhookNotification("ORDER_CANCELLED", order);
-    }
-
-    private void sendWebhookNotification(String eventType, Order order) {
-        webhookRepository.findByEventType(eventType)
-                .forEach(webhook -> {
-                    try {
-                        String payload = objectMapper.writeValueAsString(order);
-
-                        webClientBuilder.build()
-                                .post()
-                                .uri(webhook.getUrl())
-                                .contentType(MediaType.APPLICATION_JSON)
-                                .bodyValue(payload)
-                                .retrieve()
-                                .toBodilessEntity()
-                                .subscribe(
-                                        response -> {
-                                            log.info("Webhook notification sent successfully: {}", webhook.getUrl());
-                                            updateWebhookStatus(webhook, "SUCCESS");
-                                        },
-                                        error -> {
-                                            log.error("Failed to send webhook notification: {}", error.getMessage());
-                                            updateWebhookStatus(webhook, "FAILED");
-                                        }
-                                );
-                    } catch (Exception e) {
-                        log.error("Error processing webhook notification", e);
-                        updateWebhookStatus(webhook, "FAILED");
-                    }
-                });
-    }
-
-    private void updateWebhookStatus(Webhook webhook, String status) {
-        webhook.setStatus(status);
-        webhook.setLastTriggeredAt(Instant.now());
-        if ("FAILED".equals(status)) {
-            webhook.setRetryCount(webhook.getRetryCount() + 1);
-        }
-        webhookRepository.save(webhook);
-    }
-} 
\ No newline at end of file
+    @Scheduled(fixedDelayString = "${webhooks.delivery.poll-interval:250ms}")
+    public void deliverDue() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        var subscriptions = webhookRegistry.all();
+        var subscribed = subscriptions.stream().map(Subscription::id).collect(Collectors.toSet());
+        endpoints.keySet().retainAll(subscribed);
+        // Drop the meters of deleted webhooks, so their tags don't pile up in the registry
+        endpointMeters.entrySet().removeIf(entry -> {
+            if (subscribed.contains(entry.getKey())) {
+                return false;
+            }
+            meterRegistry.remove(entry.getValue().batchSize());
+            meterRegistry.remove(entry.getValue().latency());
+            return true;
+        });
+
+        for (var subscription : subscriptions) {
+            var endpoint = endpoints.computeIfAbsent(subscription.id(), id -> new EndpointState(
+                    properties.getMaxInFlightPerEndpoint(),
+                    properties.getCircuitFailureThreshold(),
+                    properties.getCircuitOpenDuration()));
+            var now = clock.instant();
+            // Only this thread acquires permits, so they can only grow until the deliveries are sent
+            int permits = endpoint.availablePermits(now);
+            if (permits == 0) {
+                continue;
+            }
+            List<List<ClaimedDelivery>> requests =
+                    transactionTemplate.execute(status -> claim(subscription, permits, now));
+            if (requests != null && !requests.isEmpty()) {
+                var meters = endpointMeters.computeIfAbsent(subscription.id(), this::registerEndpointMeters);
+                requests.forEach(deliveries -> send(endpoint, meters, subscription, deliveries));
+            }
+        }
+    }
+
+    /**
+     * Claims due deliveries and groups them into one request per permit: a single delivery each,
+     * or up to {@code maxBatchSize} for batched webhooks. Deliveries that would only make up a
+     * partial batch are left for a later poll until the oldest due one has lingered long enough since
+     * it was queued.
+     */
+    private List<List<ClaimedDelivery>> claim(Subscription subscription, int permits, Instant now) {
+        int batchSize = subscription.batched() ? subscription.maxBatchSize() : 1;
+        var due = webhookDeliveryRepository.claimDue(subscription.id(), now, permits * batchSize);
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        int count = due.size();
+        var oldest = due.stream().map(WebhookDelivery::getCreatedAt).min(Comparator.naturalOrder()).orElseThrow();
+        if (oldest.plus(subscription.maxLinger()).isAfter(now)) {
+            count -= count % batchSize;
+        }
+        if (count == 0) {
+            // Row locks on the rest are released when the transaction ends
+            return List.of();
+        }
+        due = due.subList(0, count);
+        webhookDeliveryRepository.lease(due.stream().map(WebhookDelivery::getId).toList(),
+                now.plus(properties.getLease()));
+
+        Map<Long, OrderEvent> events = orderEventRepository.findAllById(due.stream()
+                        .map(delivery -> delivery.getEvent().getId())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(OrderEvent::getId, Function.identity()));
+        var deliveries = due.stream()
+                .map(delivery -> {
+                    // Deliveries of the same event share one payload array
+                    var event = events.get(delivery.getEvent().getId());
+                    return new ClaimedDelivery(delivery.getId(), event.getPayload(), event.getSchemaVersion(),
+                            delivery.getAttempts());
+                })
+                .toList();
+
+        List<List<ClaimedDelivery>> requests = new ArrayList<>();
+        for (int from = 0; from < deliveries.size(); from += batchSize) {
+            requests.add(deliveries.subList(from, Math.min(from + batchSize, deliveries.size())));
+        }
+        return requests;
+    }
+
+    private void send(EndpointState endpoint, EndpointMeters meters, Subscription subscription,
+                      List<ClaimedDelivery> deliveries) {
+        endpoint.acquire();
+        long startedAt = System.nanoTime();
+        var schemaVersion = schemaVersion(deliveries);
+        var body = subscription.batched()
+                ? jsonArray(deliveries.stream().map(ClaimedDelivery::payload).toList())
+                : deliveries.get(0).payload();
+        meters.batchSize().record(deliveries.size());
+        try {
+            webhookWebClient.post()
+                    .uri(subscription.url())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .headers(headers -> {
+                        if (schemaVersion != null) {
+                            headers.set(SCHEMA_VERSION_HEADER, String.valueOf(schemaVersion));
+                        }
+                    })
+                    .bodyValue(body)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(properties.getRequestTimeout())
+                    // Recording the outcome blocks on the database, so keep it off the event loop
+                    .publishOn(Schedulers.boundedElastic())
+                    .subscribe(
+                            response -> succeeded(endpoint, meters, subscription, deliveries, startedAt),
+                            error -> failed(endpoint, meters, subscription, deliveries, startedAt, error));
+        } catch (RuntimeException e) {
+            failed(endpoint, meters, subscription, deliveries, startedAt, e);
+        }
+    }
+
+    private void succeeded(EndpointState endpoint, EndpointMeters meters, Subscription subscription,
+                           List<ClaimedDelivery> deliveries, long startedAt) {
+        endpoint.onSuccess();
+        recordLatency(meters, startedAt);
+        var now = clock.instant();
+        count("delivered", deliveries.size());
+        record(subscription, deliveries, () -> deliveries.forEach(delivery -> webhookDeliveryRepository
+                .recordAttempt(delivery.id(), WebhookDeliveryStatus.DELIVERED, delivery.attempts() + 1, now, null, now)));
+        webhookStatusAccumulator.record(subscription.id(), true, now);
+    }
+
+    private void failed(EndpointState endpoint, EndpointMeters meters, Subscription subscription,
+                        List<ClaimedDelivery> deliveries, long startedAt, Throwable error) {
+        var now = clock.instant();
+        if (endpoint.onFailure(now)) {
+            log.warn("Circuit opened for webhook {} ({})", subscription.id(), subscription.url());
+        }
+        recordLatency(meters, startedAt);
+        log.debug("Webhook request with {} deliveries to {} failed: {}",
+                deliveries.size(), subscription.url(), error.getMessage());
+
+        var lastError = truncate(String.valueOf(error.getMessage()));
+        List<Runnable> updates = new ArrayList<>();
+        for (var delivery : deliveries) {
+            int attempts = delivery.attempts() + 1;
+            boolean exhausted = attempts >= properties.getMaxAttempts();
+            var status = exhausted ? WebhookDeliveryStatus.FAILED : WebhookDeliveryStatus.PENDING;
+            var nextAttemptAt = exhausted
+                    ? now
+                    : now.plus(backoff(attempts, properties.getInitialBackoff(), properties.getMaxBackoff()));
+            count(exhausted ? "failed" : "retried", 1);
+            updates.add(() -> webhookDeliveryRepository.recordAttempt(delivery.id(), status, attempts,
+                    nextAttemptAt, lastError, null));
+        }
+        record(subscription, deliveries, () -> updates.forEach(Runnable::run));
+        webhookStatusAccumulator.record(subscription.id(), false, now);
+    }
+
+    private void count(String outcome, int deliveries) {
+        meterRegistry.counter("webhooks.deliveries", "outcome", outcome).increment(deliveries);
+    }
+
+    private void record(Subscription subscription, List<ClaimedDelivery> deliveries, Runnable update) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> update.run());
+        } catch (RuntimeException e) {
+            // The leases expire and the deliveries are attempted again
+            log.error("Failed to record outcome of {} deliveries to webhook {}",
+                    deliveries.size(), subscription.id(), e);
+        }
+    }
+
+    private void recordLatency(EndpointMeters meters, long startedAt) {
+        var duration = Duration.ofNanos(System.nanoTime() - startedAt);
+        latency.record(duration);
+        meters.latency().record(duration);
+    }
+
+    /**
+     * Meters tagged with one webhook's id, registered when it is first sent to and removed once it
+     * is no longer subscribed.
+     */
+    private EndpointMeters registerEndpointMeters(Long webhookId) {
+        var tag = String.valueOf(webhookId);
+        return new EndpointMeters(
+                DistributionSummary.builder("webhooks.delivery.batch.size")
+                        .description("Events sent per webhook request")
+                        .tag("webhook", tag)
+                        .register(meterRegistry),
+                Timer.builder("webhooks.delivery.endpoint.latency")
+                        .description("Duration of webhook delivery requests per webhook")
+                        .tag("webhook", tag)
+                        .register(meterRegistry));
+    }
+
+    /**
+     * The schema version shared by all payloads of a request, or {@code null} if they differ.
+     */
+    private static Integer schemaVersion(List<ClaimedDelivery> deliveries) {
+        int version = deliveries.get(0).schemaVersion();
+        return deliveries.stream().allMatch(delivery -> delivery.schemaVersion() == version) ? version : null;
+    }
+
+    /**
+     * Joins encoded JSON payloads into one JSON array without decoding them again.
+     */
+    static byte[] jsonArray(List<byte[]> payloads) {
+        int length = 2 + Math.max(0, payloads.size() - 1);
+        for (var payload : payloads) {
+            length += payload.length;
+        }
+        var body = new byte[length];
+        body[0] = '[';
+        int position = 1;
+        for (int i = 0; i < payloads.size(); i++) {
+            if (i > 0) {
+                body[position++] = ',';
+            }
+            var payload = payloads.get(i);
+            System.arraycopy(payload, 0, body, position, payload.length);
+            position += payload.length;
+        }
+        body[position] = ']';
+        return body;
+    }
+
+    /**
+     * Exponential backoff with jitter: the delay doubles per attempt up to {@code max} and is then
+     * spread over its upper half, so retries from many deliveries don't arrive in lockstep.
+     */
+    static Duration backoff(int attempt, Duration initial, Duration max) {
+        long delay = Math.min(initial.toMillis() << Math.min(attempt - 1, 30), max.toMillis());
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private record EndpointMeters(DistributionSummary batchSize, Timer latency) {
+    }
+
+    private record ClaimedDelivery(Long id, byte[] payload, int schemaVersion, int attempts) {
+    }
+
+    /**
+     * In-flight requests and circuit breaker state of one endpoint.
+     * <p>
+     * The circuit opens after {@code failureThreshold} consecutive failures and rejects deliveries
+     * for {@code openDuration}. After that it is half open: a single trial request is let through,
+     * and its success closes the circuit while its failure opens it again.
+     */
+    static final class EndpointState {
+        private final int maxInFlight;
+        private final int failureThreshold;
+        private final Duration openDuration;
+
+        private int inFlight;
+        private int consecutiveFailures;
+        private Instant openUntil;
+
+        EndpointState(int maxInFlight, int failureThreshold, Duration openDuration) {
+            this.maxInFlight = maxInFlight;
+            this.failureThreshold = failureThreshold;
+            this.openDuration = openDuration;
+        }
+
+        synchronized int availablePermits(Instant now) {
+            if (openUntil == null) {
+                return Math.max(0, maxInFlight - inFlight);
+            }
+            if (now.isBefore(openUntil)) {
+                return 0;
+            }
+            return inFlight == 0 ? 1 : 0;
+        }
+
+        synchronized void acquire() {
+            inFlight++;
+        }
+
+        synchronized void onSuccess() {
+            inFlight--;
+            consecutiveFailures = 0;
+            openUntil = null;
+        }
+
+        /**
+         * Returns whether this failure opened the circuit.
+         */
+        synchronized boolean onFailure(Instant now) {
+            inFlight--;
+            consecutiveFailures++;
+            boolean halfOpen = openUntil != null && !now.isBefore(openUntil);
+            if (halfOpen || (openUntil == null && consecutiveFailures >= failureThreshold)) {
+                openUntil = now.plus(openDuration);
+                return true;
+            }
+            return false;
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+    }
+}
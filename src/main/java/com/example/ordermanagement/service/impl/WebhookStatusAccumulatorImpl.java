@@ -0,0 +1,107 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.WebhookDeliveryProperties;
+import com.example.ordermanagement.domain.repository.WebhookJdbcRepository;
+import com.example.ordermanagement.domain.repository.WebhookJdbcRepository.WebhookOutcome;
+import com.example.ordermanagement.service.WebhookStatusAccumulator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind aggregation of webhook status updates.
+ * <p>
+ * Outcomes are merged per webhook into an immutable pending update: the latest outcome wins the
+ * status and {@code last_triggered_at}, failures are summed into a {@code retry_count} delta.
+ * A flush removes each pending update atomically, so an outcome recorded concurrently lands in
+ * the next flush instead of being lost, and writes them all in one JDBC batch. Updates that
+ * cannot be written are put back for the next flush. When {@code max-pending-status-updates}
+ * webhooks are already waiting, outcomes for further webhooks are dropped and counted.
+ */
+@Slf4j
+@Service
+public class WebhookStatusAccumulatorImpl implements WebhookStatusAccumulator {
+    private final WebhookJdbcRepository webhookJdbcRepository;
+    private final WebhookDeliveryProperties properties;
+
+    private final ConcurrentHashMap<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final Counter flushed;
+    private final Counter dropped;
+
+    public WebhookStatusAccumulatorImpl(WebhookJdbcRepository webhookJdbcRepository,
+                                        WebhookDeliveryProperties properties, MeterRegistry meterRegistry) {
+        this.webhookJdbcRepository = webhookJdbcRepository;
+        this.properties = properties;
+        this.flushed = Counter.builder("webhooks.status.updates.flushed")
+                .description("Webhook status updates written to the database")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("webhooks.status.updates.dropped")
+                .description("Webhook outcomes discarded because too many updates were pending")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void record(Long webhookId, boolean success, Instant triggeredAt) {
+        var update = new PendingUpdate(success ? "SUCCESS" : "FAILED", triggeredAt, success ? 0 : 1);
+        merge(webhookId, update);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${webhooks.delivery.status-flush-interval:250ms}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<WebhookOutcome> outcomes = new ArrayList<>();
+        for (var webhookId : pending.keySet()) {
+            var update = pending.remove(webhookId);
+            if (update != null) {
+                outcomes.add(new WebhookOutcome(webhookId, update.status(), update.lastTriggeredAt(),
+                        update.failures()));
+            }
+        }
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        try {
+            webhookJdbcRepository.applyOutcomes(outcomes);
+            flushed.increment(outcomes.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush status of {} webhooks, retrying with the next flush", outcomes.size(), e);
+            outcomes.forEach(outcome -> merge(outcome.webhookId(),
+                    new PendingUpdate(outcome.status(), outcome.lastTriggeredAt(), outcome.failures())));
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    int pendingUpdates() {
+        return pending.size();
+    }
+
+    private void merge(Long webhookId, PendingUpdate update) {
+        if (pending.size() >= properties.getMaxPendingStatusUpdates() && !pending.containsKey(webhookId)) {
+            dropped.increment();
+            return;
+        }
+        pending.merge(webhookId, update, PendingUpdate::combine);
+    }
+
+    private record PendingUpdate(String status, Instant lastTriggeredAt, int failures) {
+        PendingUpdate combine(PendingUpdate other) {
+            var latest = other.lastTriggeredAt.isBefore(lastTriggeredAt) ? this : other;
+            return new PendingUpdate(latest.status, latest.lastTriggeredAt, failures + other.failures);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- In public, like any other extension, so its operators resolve on the default search path
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+-- Kept up to date by PostgreSQL on every insert and update; name matches rank above description matches
+ALTER TABLE products
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', name), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED;
+
+CREATE INDEX idx_products_search_vector ON products USING GIN (search_vector);
+
+-- GiST rather than GIN so misspelled searches can walk names nearest first instead of sorting every candidate
+CREATE INDEX idx_products_name_trgm ON products USING GIST (name public.gist_trgm_ops);
@@ -0,0 +1,26 @@
+-- Order totals per day and status, maintained by SalesRollupServiceImpl as orders are written.
+-- Each (day, status) is spread over a few slots so concurrent orders rarely wait on the same row;
+-- readers sum the slots.
+CREATE TABLE sales_rollups
+(
+    day         DATE           NOT NULL,
+    status      VARCHAR(20)    NOT NULL,
+    slot        SMALLINT       NOT NULL,
+    order_count BIGINT         NOT NULL,
+    units       BIGINT         NOT NULL,
+    revenue     DECIMAL(14, 2) NOT NULL,
+    PRIMARY KEY (day, status, slot)
+);
+
+-- The same totals per product, counting each order once per product it contains
+CREATE TABLE product_sales_rollups
+(
+    day         DATE           NOT NULL,
+    product_id  BIGINT         NOT NULL,
+    status      VARCHAR(20)    NOT NULL,
+    slot        SMALLINT       NOT NULL,
+    order_count BIGINT         NOT NULL,
+    units       BIGINT         NOT NULL,
+    revenue     DECIMAL(14, 2) NOT NULL,
+    PRIMARY KEY (day, product_id, status, slot)
+);
@@ -0,0 +1,6 @@
+-- Order lines whose stock was reserved in the in-memory inventory ledger and has not
+-- yet been written back to products.stock_quantity.
+ALTER TABLE order_items
+    ADD COLUMN stock_deferred BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_order_items_stock_deferred ON order_items (product_id) WHERE stock_deferred;
@@ -0,0 +1,8 @@
+-- Hibernate now takes ids from the BIGSERIAL sequences with a pooled optimizer that reserves
+-- 50 ids per nextval() call, so the sequences have to advance in steps of 50. The next value of
+-- each sequence is its last value plus 50, which keeps every reserved block above the existing ids.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE webhooks_id_seq INCREMENT BY 50;
@@ -0,0 +1,17 @@
+-- Transactional outbox for order events, drained by the relay in OrderEventServiceImpl.
+CREATE TABLE order_events
+(
+    id           BIGSERIAL PRIMARY KEY,
+    event_type   VARCHAR(50) NOT NULL,
+    order_number UUID        NOT NULL,
+    payload      TEXT        NOT NULL,
+    published_at TIMESTAMP WITH TIME ZONE,
+    version      BIGINT                   DEFAULT 0,
+    created_at   TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at   TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER SEQUENCE order_events_id_seq INCREMENT BY 50;
+
+CREATE INDEX idx_order_events_unpublished ON order_events (id) WHERE published_at IS NULL;
+CREATE INDEX idx_order_events_published_at ON order_events (published_at) WHERE published_at IS NOT NULL;
@@ -0,0 +1,21 @@
+-- Durable queue of order events to be delivered to webhooks, one row per event and webhook.
+CREATE TABLE webhook_deliveries
+(
+    id              BIGSERIAL PRIMARY KEY,
+    webhook_id      BIGINT                   NOT NULL REFERENCES webhooks (id) ON DELETE CASCADE,
+    event_id        BIGINT                   NOT NULL REFERENCES order_events (id) ON DELETE CASCADE,
+    status          VARCHAR(20)              NOT NULL,
+    attempts        INTEGER                  NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_error      VARCHAR(255),
+    delivered_at    TIMESTAMP WITH TIME ZONE,
+    version         BIGINT                   DEFAULT 0,
+    created_at      TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at      TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT delivery_status_check CHECK (status IN ('PENDING', 'DELIVERED', 'FAILED'))
+);
+
+ALTER SEQUENCE webhook_deliveries_id_seq INCREMENT BY 50;
+
+CREATE INDEX idx_webhook_deliveries_due ON webhook_deliveries (webhook_id, next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_webhook_deliveries_event_id ON webhook_deliveries (event_id);
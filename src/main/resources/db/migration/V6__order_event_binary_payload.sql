@@ -0,0 +1,10 @@
+-- Event payloads are stored as the exact UTF-8 bytes sent to subscribers, tagged with the
+-- payload schema version. Existing payloads were written with the OrderDto layout (version 0).
+ALTER TABLE order_events
+    ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+
+ALTER TABLE order_events
+    ADD COLUMN schema_version INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE order_events
+    ALTER COLUMN schema_version DROP DEFAULT;
@@ -0,0 +1,4 @@
+-- Webhooks with a max_batch_size receive events as JSON arrays; NULL keeps one event per request
+ALTER TABLE webhooks
+    ADD COLUMN max_batch_size INTEGER CHECK (max_batch_size > 0),
+    ADD COLUMN max_linger_ms  INTEGER CHECK (max_linger_ms >= 0);
@@ -0,0 +1,4 @@
+-- Backs keyset pagination of a user's orders by (created_at, id); also serves plain user_id lookups
+CREATE INDEX idx_orders_user_created_at ON orders (user_id, created_at, id);
+
+DROP INDEX idx_orders_user_id;
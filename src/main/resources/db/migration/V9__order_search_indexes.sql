@@ -0,0 +1,12 @@
+-- Searches filtered by status page through one status of a user's orders in (created_at, id)
+-- order; the trailing id also makes this index cover the id page query
+CREATE INDEX idx_orders_user_status_created_at ON orders (user_id, status, created_at, id);
+
+-- Lets the order read projection fetch a page's items with an index-only scan
+CREATE INDEX idx_order_items_order_id_covering ON order_items (order_id, id)
+    INCLUDE (product_id, quantity, unit_price, total_price);
+
+DROP INDEX idx_order_items_order_id;
+
+-- Duplicates the index behind the unique constraint on order_number
+DROP INDEX idx_orders_order_number;
@@ -0,0 +1,162 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Polls orders and products over HTTP the way a client watching them would, with 95% of polls
+ * finding the resource unchanged, once always fetching the full representation and once sending
+ * the last ETag in {@code If-None-Match}. Sizes can be changed with {@code -Dbenchmark.etag.resources},
+ * {@code -Dbenchmark.etag.items} and {@code -Dbenchmark.etag.polls}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Testcontainers
+class ConditionalGetBenchmark extends TestContainersConfig {
+    private static final int RESOURCES = Integer.getInteger("benchmark.etag.resources", 1_000);
+    private static final int ITEMS_PER_ORDER = Integer.getInteger("benchmark.etag.items", 20);
+    private static final int POLLS = Integer.getInteger("benchmark.etag.polls", 20_000);
+    private static final double CHANGED_RATIO = 0.05;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private List<String> orderNumbers;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE order_items, orders, products, users CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, version, created_at, updated_at)
+                VALUES (1, 'poller', 'poller@example.com', 0, now(), now())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, version, created_at, updated_at)
+                SELECT g, 'Product ' || g, 'Description of product ' || g, 10, 100, 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, RESOURCES);
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, order_number, user_id, status, total_amount, version, created_at, updated_at)
+                SELECT g, gen_random_uuid(), 1, 'PENDING', 10 * ?, 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, ITEMS_PER_ORDER, RESOURCES);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, total_price, stock_deferred,
+                                         version, created_at, updated_at)
+                SELECT g, (g - 1) / ? + 1, (g - 1) % ? + 1, 1, 10, 10, FALSE, 0, now(), now()
+                FROM generate_series(1, ? * ?) g
+                """, ITEMS_PER_ORDER, RESOURCES, ITEMS_PER_ORDER, RESOURCES);
+        jdbcTemplate.execute("ANALYZE");
+        orderNumbers = jdbcTemplate.queryForList("SELECT CAST(order_number AS TEXT) FROM orders ORDER BY id", String.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE order_items, orders, products, users CASCADE");
+    }
+
+    @Test
+    void pollMostlyUnchangedOrders() throws Exception {
+        compare("orders", "UPDATE orders SET version = version + 1 WHERE id = ?",
+                id -> "/api/v1/orders/" + orderNumbers.get(id - 1));
+    }
+
+    @Test
+    void pollMostlyUnchangedProducts() throws Exception {
+        compare("products", "UPDATE products SET version = version + 1 WHERE id = ?",
+                id -> "/api/v1/products/" + id);
+    }
+
+    private void compare(String resource, String change, IntFunction<String> pathOf) throws Exception {
+        var full = poll(change, pathOf, false);
+        var conditional = poll(change, pathOf, true);
+
+        log.info("{}: {} polls, {}% unchanged; full fetch mean {} us, p99 {} us, {} MB sent; "
+                        + "conditional mean {} us, p99 {} us, {} MB sent, {} not modified",
+                resource, POLLS, Math.round(100 * (1 - CHANGED_RATIO)),
+                full.meanMicros(), full.p99Micros(), full.bytes() >> 20,
+                conditional.meanMicros(), conditional.p99Micros(), conditional.bytes() >> 20, conditional.notModified());
+
+        assertThat(conditional.notModified()).isGreaterThan((long) (POLLS * (1 - 2 * CHANGED_RATIO)));
+        assertThat(conditional.meanMicros()).isLessThan(full.meanMicros());
+    }
+
+    /**
+     * Polls random resources, changing one before 5% of the polls, and times only the requests.
+     * The conditional client first fetches every resource once to learn its ETag.
+     */
+    private Result poll(String change, IntFunction<String> pathOf, boolean conditional) throws Exception {
+        var random = new Random(42);
+        Map<Integer, String> etags = new HashMap<>();
+        for (int id = 1; id <= RESOURCES; id++) {
+            var response = get(pathOf.apply(id), null);
+            etags.put(id, response.headers().firstValue("ETag").orElseThrow());
+        }
+
+        long[] nanos = new long[POLLS];
+        long bytes = 0;
+        long notModified = 0;
+        for (int i = 0; i < POLLS; i++) {
+            int id = 1 + random.nextInt(RESOURCES);
+            if (random.nextDouble() < CHANGED_RATIO) {
+                jdbcTemplate.update(change, id);
+            }
+
+            long startedAt = System.nanoTime();
+            var response = get(pathOf.apply(id), conditional ? etags.get(id) : null);
+            nanos[i] = System.nanoTime() - startedAt;
+
+            bytes += response.body().length;
+            if (response.statusCode() == 304) {
+                notModified++;
+            } else {
+                assertThat(response.statusCode()).isEqualTo(200);
+                etags.put(id, response.headers().firstValue("ETag").orElseThrow());
+            }
+        }
+        Arrays.sort(nanos);
+        return new Result(Arrays.stream(nanos).sum() / POLLS / 1_000, nanos[(int) (POLLS * 0.99)] / 1_000,
+                bytes, notModified);
+    }
+
+    private HttpResponse<byte[]> get(String path, String ifNoneMatch) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private record Result(long meanMicros, long p99Micros, long bytes, long notModified) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.model.User;
+import com.example.ordermanagement.domain.repository.OrderRepository;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.domain.repository.UserRepository;
+import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.example.ordermanagement.exception.InsufficientStockException;
+import com.example.ordermanagement.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a single product from many threads and compares the old read-modify-write reservation
+ * (optimistic locking with retries) against the guarded UPDATE used by {@code OrderServiceImpl}.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class HotSkuStockBenchmark extends TestContainersConfig {
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+    private static final int INITIAL_STOCK = 2_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Product hotProduct;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+        productRepository.deleteAll();
+
+        hotProduct = productRepository.save(Product.builder()
+                .name("Hot product")
+                .price(BigDecimal.TEN)
+                .stockQuantity(INITIAL_STOCK)
+                .build());
+    }
+
+    @Test
+    void readModifyWriteWithOptimisticRetries() throws Exception {
+        var retries = new AtomicInteger();
+        var reserved = hammer("read-modify-write", () -> {
+            while (true) {
+                try {
+                    return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                        var product = productRepository.findById(hotProduct.getId()).orElseThrow();
+                        if (product.getStockQuantity() < 1) {
+                            return false;
+                        }
+                        product.setStockQuantity(product.getStockQuantity() - 1);
+                        return true;
+                    }));
+                } catch (OptimisticLockingFailureException e) {
+                    retries.incrementAndGet();
+                }
+            }
+        });
+
+        log.info("read-modify-write needed {} optimistic retries", retries.get());
+        assertNothingOversold(reserved);
+    }
+
+    @Test
+    void guardedConditionalUpdate() throws Exception {
+        var reserved = hammer("guarded update", () -> Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                productRepository.decrementStock(hotProduct.getId(), 1).isPresent())));
+
+        assertNothingOversold(reserved);
+    }
+
+    @Test
+    void createOrderAgainstHotProduct() throws Exception {
+        var user = userRepository.save(User.builder().username("buyer").email("buyer@example.com").build());
+        var request = CreateOrderRequest.builder()
+                .userId(user.getId())
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(hotProduct.getId(), 1)))
+                .build();
+
+        var reserved = hammer("createOrder", () -> {
+            try {
+                orderService.createOrder(request);
+                return true;
+            } catch (InsufficientStockException e) {
+                return false;
+            }
+        });
+
+        assertNothingOversold(reserved);
+        assertThat(orderRepository.count()).isEqualTo(INITIAL_STOCK);
+    }
+
+    private int hammer(String name, BooleanSupplier reservation) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        var reserved = new AtomicInteger();
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        if (reservation.getAsBoolean()) {
+                            reserved.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        log.info("{}: {} attempts from {} threads in {} s ({} attempts/s)",
+                name, THREADS * ATTEMPTS_PER_THREAD, THREADS,
+                String.format("%.2f", seconds), String.format("%.0f", THREADS * ATTEMPTS_PER_THREAD / seconds));
+        return reserved.get();
+    }
+
+    private void assertNothingOversold(int reserved) {
+        var stock = productRepository.findById(hotProduct.getId()).orElseThrow().getStockQuantity();
+        assertThat(reserved).isEqualTo(INITIAL_STOCK);
+        assertThat(stock).isZero();
+    }
+}
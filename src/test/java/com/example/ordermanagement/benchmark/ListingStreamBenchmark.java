@@ -0,0 +1,163 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.service.ProductService;
+import com.example.ordermanagement.service.impl.IdCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads 1M products and 1M users, streams each listing over HTTP as NDJSON while sampling the
+ * live heap, and checks it stays flat; also compares a keyset page deep in the catalog with the
+ * first one. The row count can be changed with {@code -Dbenchmark.listing.rows}. Meant to be run
+ * under a small heap as well, e.g.
+ * {@code mvn test -Pbenchmark -Dtest=ListingStreamBenchmark -DargLine=-Xmx128m}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Testcontainers
+class ListingStreamBenchmark extends TestContainersConfig {
+    private static final int ROWS = Integer.getInteger("benchmark.listing.rows", 1_000_000);
+    private static final int RUNS = 30;
+    private static final int PAGE_SIZE = 50;
+    // Far below what either listing would take if it were held in memory
+    private static final long MAX_LIVE_HEAP_GROWTH = 64L << 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE order_items, orders, products, users CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, version, created_at, updated_at)
+                SELECT g, 'Product ' || g, 'Description of product ' || g, 10 + g % 90, 100, 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, version, created_at, updated_at)
+                SELECT g, 'user' || g, 'user' || g || '@example.com', 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, ROWS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE order_items, orders, products, users CASCADE");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"products", "users"})
+    void streamMillionRows_KeepsHeapFlat(String listing) throws Exception {
+        long baseline = liveHeap();
+        var peak = new AtomicLong(baseline);
+        var sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peak.accumulateAndGet(liveHeap(), Math::max), 0, 500, TimeUnit.MILLISECONDS);
+
+        long lines = 0;
+        long bytes = 0;
+        long startedAt = System.nanoTime();
+        try {
+            var response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/" + listing + "/stream"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            assertThat(response.statusCode()).isEqualTo(200);
+            try (InputStream body = response.body()) {
+                var buffer = new byte[64 * 1024];
+                for (int read; (read = body.read(buffer)) != -1; ) {
+                    bytes += read;
+                    for (int i = 0; i < read; i++) {
+                        if (buffer[i] == '\n') {
+                            lines++;
+                        }
+                    }
+                }
+            }
+        } finally {
+            sampler.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        log.info("streamed {} {} ({} MB) in {} s, {} rows/s; live heap {} MB before, {} MB at peak, max heap {} MB",
+                lines, listing, bytes >> 20, Math.round(seconds), Math.round(lines / seconds), baseline >> 20,
+                peak.get() >> 20, Runtime.getRuntime().maxMemory() >> 20);
+
+        assertThat(lines).isEqualTo(ROWS);
+        assertThat(peak.get() - baseline).isLessThan(MAX_LIVE_HEAP_GROWTH);
+    }
+
+    @Test
+    void keysetPage_DeepInTheCatalog_CostsAsMuchAsTheFirst() {
+        var deepCursor = new IdCursor(ROWS - PAGE_SIZE * 2L).encode();
+
+        var first = time(() -> productService.getProducts(null, PAGE_SIZE));
+        var deep = time(() -> productService.getProducts(deepCursor, PAGE_SIZE));
+
+        log.info("keyset: first page {} ms, page at row {} {} ms", first.toMillis(), ROWS - PAGE_SIZE * 2,
+                deep.toMillis());
+
+        assertThat(productService.getProducts(deepCursor, PAGE_SIZE).getItems()).hasSize(PAGE_SIZE);
+        assertThat(deep).isLessThan(first.multipliedBy(3).plusMillis(5));
+    }
+
+    /**
+     * Heap still in use after a full collection, which is what the listing keeps reachable.
+     */
+    private static long liveHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Median duration over {@link #RUNS} runs, after as many warm-up runs.
+     */
+    private static Duration time(Supplier<?> page) {
+        for (int i = 0; i < RUNS; i++) {
+            page.get();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long startedAt = System.nanoTime();
+            page.get();
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[RUNS / 2]);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.model.User;
+import com.example.ordermanagement.domain.repository.OrderRepository;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.domain.repository.UserRepository;
+import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares ingesting 10k orders through {@code POST /api/v1/orders/batch} against 10k calls to
+ * {@code POST /api/v1/orders}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.org.hibernate.SQL=INFO")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers
+class OrderBatchBenchmark extends TestContainersConfig {
+    private static final int ORDERS = 10_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private List<CreateOrderRequest> requests;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+        productRepository.deleteAll();
+
+        var users = userRepository.saveAll(IntStream.range(0, 100)
+                .mapToObj(i -> User.builder().username("user" + i).email("user" + i + "@example.com").build())
+                .toList());
+        var products = productRepository.saveAll(IntStream.range(0, 200)
+                .mapToObj(i -> Product.builder()
+                        .name("Product " + i)
+                        .price(BigDecimal.valueOf(10 + i))
+                        .stockQuantity(1_000_000)
+                        .build())
+                .toList());
+
+        requests = IntStream.range(0, ORDERS)
+                .mapToObj(i -> CreateOrderRequest.builder()
+                        .userId(users.get(i % users.size()).getId())
+                        .items(IntStream.range(0, 3)
+                                .mapToObj(line -> new CreateOrderRequest.OrderItemRequest(
+                                        products.get((i * 3 + line) % products.size()).getId(), 1 + line))
+                                .toList())
+                        .build())
+                .toList();
+    }
+
+    @Test
+    void singleOrderCalls() throws Exception {
+        long startedAt = System.nanoTime();
+        for (var request : requests) {
+            mockMvc.perform(post("/api/v1/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+        report("single calls", startedAt);
+    }
+
+    @Test
+    void batchEndpoint() throws Exception {
+        long startedAt = System.nanoTime();
+        for (int from = 0; from < ORDERS; from += BATCH_SIZE) {
+            mockMvc.perform(post("/api/v1/orders/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new ArrayList<>(requests.subList(from, from + BATCH_SIZE)))))
+                    .andExpect(status().isOk());
+        }
+        report("batch endpoint", startedAt);
+    }
+
+    private void report(String name, long startedAt) {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        log.info("{}: {} orders in {} s ({} orders/s)", name, ORDERS,
+                String.format("%.2f", seconds), String.format("%.0f", ORDERS / seconds));
+        assertThat(orderRepository.count()).isEqualTo(ORDERS);
+    }
+}
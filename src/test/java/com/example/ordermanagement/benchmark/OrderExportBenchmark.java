@@ -0,0 +1,129 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports 1M orders over HTTP as NDJSON while sampling the live heap, and checks it stays flat
+ * instead of growing with the export. The row count can be changed with
+ * {@code -Dbenchmark.export.rows}. Meant to be run under a small heap as well, e.g.
+ * {@code mvn test -Pbenchmark -Dtest=OrderExportBenchmark -DargLine=-Xmx128m}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Testcontainers
+class OrderExportBenchmark extends TestContainersConfig {
+    private static final int ROWS = Integer.getInteger("benchmark.export.rows", 1_000_000);
+    // Far below what the export would take if it were held in memory
+    private static final long MAX_LIVE_HEAP_GROWTH = 64L << 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE order_items, orders, products, users CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, version, created_at, updated_at)
+                VALUES (1, 'finance', 'finance@example.com', 0, now(), now())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO products (id, name, price, stock_quantity, version, created_at, updated_at)
+                VALUES (1, 'Product', 10, 100, 0, now(), now())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, order_number, user_id, status, total_amount, version, created_at, updated_at)
+                SELECT g, gen_random_uuid(), 1, 'DELIVERED', 10, 0, now() - g * INTERVAL '1 second', now()
+                FROM generate_series(1, ?) g
+                """, ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, total_price, stock_deferred,
+                                         version, created_at, updated_at)
+                SELECT g, g, 1, 1, 10, 10, FALSE, 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, ROWS);
+        // Same index as migration V8; the test schema is generated by Hibernate
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_orders_user_created_at ON orders (user_id, created_at, id)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE order_items, orders, products, users CASCADE");
+    }
+
+    @Test
+    void exportMillionOrders_KeepsHeapFlat() throws Exception {
+        long baseline = liveHeap();
+        var peak = new AtomicLong(baseline);
+        var sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peak.accumulateAndGet(liveHeap(), Math::max), 0, 500, TimeUnit.MILLISECONDS);
+
+        long lines = 0;
+        long bytes = 0;
+        long startedAt = System.nanoTime();
+        try {
+            var response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/orders/export?userId=1"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            assertThat(response.statusCode()).isEqualTo(200);
+            try (InputStream body = response.body()) {
+                var buffer = new byte[64 * 1024];
+                for (int read; (read = body.read(buffer)) != -1; ) {
+                    bytes += read;
+                    for (int i = 0; i < read; i++) {
+                        if (buffer[i] == '\n') {
+                            lines++;
+                        }
+                    }
+                }
+            }
+        } finally {
+            sampler.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        log.info("exported {} orders ({} MB) in {} s, {} rows/s; live heap {} MB before, {} MB at peak, max heap {} MB",
+                lines, bytes >> 20, Math.round(seconds), Math.round(lines / seconds), baseline >> 20,
+                peak.get() >> 20, Runtime.getRuntime().maxMemory() >> 20);
+
+        assertThat(lines).isEqualTo(ROWS);
+        assertThat(peak.get() - baseline).isLessThan(MAX_LIVE_HEAP_GROWTH);
+    }
+
+    /**
+     * Heap still in use after a full collection, which is what the export keeps reachable.
+     */
+    private static long liveHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
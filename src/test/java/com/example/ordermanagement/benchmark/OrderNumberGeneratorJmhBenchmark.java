@@ -0,0 +1,74 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.service.OrderNumberGenerator;
+import com.example.ordermanagement.service.impl.RandomOrderNumberGenerator;
+import com.example.ordermanagement.service.impl.TimeOrderedOrderNumberGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generation cost of random and time-ordered order numbers, single-threaded and with eight
+ * threads sharing one generator. Run with {@code mvn test -Pbenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderNumberGeneratorJmhBenchmark {
+    private final OrderNumberGenerator random = new RandomOrderNumberGenerator();
+    private final OrderNumberGenerator timeOrdered = new TimeOrderedOrderNumberGenerator();
+
+    @Benchmark
+    @Threads(1)
+    public UUID random() {
+        return random.next();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID timeOrdered() {
+        return timeOrdered.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID randomContended() {
+        return random.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID timeOrderedContended() {
+        return timeOrdered.next();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws Exception {
+        var results = new Runner(new OptionsBuilder()
+                .include(getClass().getName())
+                .build())
+                .run();
+
+        assertThat(results).hasSize(4);
+    }
+}
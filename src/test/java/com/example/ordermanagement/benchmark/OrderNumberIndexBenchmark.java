@@ -0,0 +1,80 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.service.OrderNumberGenerator;
+import com.example.ordermanagement.service.impl.RandomOrderNumberGenerator;
+import com.example.ordermanagement.service.impl.TimeOrderedOrderNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts 10M order numbers from each generator into a table with a unique index, the way
+ * {@code orders.order_number} is indexed, and compares insert throughput and index size.
+ * The row count can be changed with {@code -Dbenchmark.order-numbers.rows}.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class OrderNumberIndexBenchmark extends TestContainersConfig {
+    private static final int ROWS = Integer.getInteger("benchmark.order-numbers.rows", 10_000_000);
+    private static final int BATCH_SIZE = 10_000;
+    // Throughput is reported for the last rows, once the index no longer fits in cache
+    private static final int MEASURED_ROWS = Math.min(1_000_000, ROWS);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareIndexSizeAndInsertThroughput() {
+        var random = insert("order_numbers_random", new RandomOrderNumberGenerator());
+        var timeOrdered = insert("order_numbers_time_ordered", new TimeOrderedOrderNumberGenerator());
+
+        log.info("random:       {} rows/s over the last {} rows, index {} MB",
+                random.rowsPerSecond(), MEASURED_ROWS, random.indexBytes() >> 20);
+        log.info("time-ordered: {} rows/s over the last {} rows, index {} MB",
+                timeOrdered.rowsPerSecond(), MEASURED_ROWS, timeOrdered.indexBytes() >> 20);
+
+        // Random keys split pages all over the tree and leave them about half to two thirds full
+        assertThat(timeOrdered.indexBytes()).isLessThan(random.indexBytes());
+    }
+
+    private Result insert(String table, OrderNumberGenerator generator) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id BIGSERIAL PRIMARY KEY, order_number UUID NOT NULL UNIQUE)");
+
+        long measuredFrom = 0;
+        for (int inserted = 0; inserted < ROWS; inserted += BATCH_SIZE) {
+            if (measuredFrom == 0 && inserted >= ROWS - MEASURED_ROWS) {
+                measuredFrom = System.nanoTime();
+            }
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < Math.min(BATCH_SIZE, ROWS - inserted); i++) {
+                batch.add(new Object[]{generator.next()});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (order_number) VALUES (?)", batch);
+        }
+        double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+
+        Long indexBytes = jdbcTemplate.queryForObject(
+                "SELECT pg_relation_size(?::regclass)", Long.class, table + "_order_number_key");
+        jdbcTemplate.execute("DROP TABLE " + table);
+        return new Result(Math.round(MEASURED_ROWS / seconds), indexBytes);
+    }
+
+    private record Result(long rowsPerSecond, long indexBytes) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.repository.OrderRepository;
+import com.example.ordermanagement.dto.OrderDto;
+import com.example.ordermanagement.mapper.OrderMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads pages of 20 and 500 orders with five items each into {@link OrderDto}s, once by loading
+ * managed entities with a fetch join and mapping them, and once through the scalar projection
+ * {@link OrderRepository#findDtosByIdIn} uses, and compares latency and bytes allocated per page.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class OrderReadModelBenchmark extends TestContainersConfig {
+    private static final int ORDERS = 500;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int WARMUP_RUNS = 200;
+    private static final int RUNS = 500;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE order_items, orders, products, users CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, version, created_at, updated_at)
+                VALUES (1, 'reader', 'reader@example.com', 0, now(), now())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO products (id, name, price, stock_quantity, version, created_at, updated_at)
+                SELECT g, 'Product ' || g, 10, 100, 0, now(), now() FROM generate_series(1, ?) g
+                """, ITEMS_PER_ORDER);
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, order_number, user_id, status, total_amount, version, created_at, updated_at)
+                SELECT g, gen_random_uuid(), 1, 'DELIVERED', 50, 0, now(), now() FROM generate_series(1, ?) g
+                """, ORDERS);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, total_price, stock_deferred,
+                                         version, created_at, updated_at)
+                SELECT (o - 1) * ? + p, o, p, 1, 10, 10, FALSE, 0, now(), now()
+                FROM generate_series(1, ?) o, generate_series(1, ?) p
+                """, ITEMS_PER_ORDER, ORDERS, ITEMS_PER_ORDER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE order_items, orders, products, users CASCADE");
+    }
+
+    @Test
+    void compareEntityMappingWithProjection() {
+        for (int pageSize : new int[]{20, ORDERS}) {
+            var ids = LongStream.rangeClosed(1, pageSize).boxed().toList();
+            var entities = measure(ids, this::mapEntities);
+            var projection = measure(ids, orderRepository::findDtosByIdIn);
+
+            log.info("page of {}: entities {} µs, {} KB per page; projection {} µs, {} KB per page", pageSize,
+                    entities.micros(), entities.bytes() >> 10, projection.micros(), projection.bytes() >> 10);
+
+            assertThat(projection.bytes()).isLessThan(entities.bytes());
+        }
+    }
+
+    private List<OrderDto> mapEntities(List<Long> ids) {
+        return entityManager.createQuery("select distinct o from Order o left join fetch o.items where o.id in :ids",
+                        Order.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .map(orderMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Mean latency and bytes allocated by this thread per page, each read in its own read-only
+     * transaction, the way the service runs it.
+     */
+    private Result measure(List<Long> ids, Function<List<Long>, List<OrderDto>> read) {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            List<OrderDto> page = transactionTemplate.execute(status -> read.apply(ids));
+            assertThat(page).hasSize(ids.size());
+        }
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            transactionTemplate.execute(status -> read.apply(ids));
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(elapsed / RUNS / 1_000, allocated / RUNS);
+    }
+
+    private record Result(long micros, long bytes) {
+    }
+}
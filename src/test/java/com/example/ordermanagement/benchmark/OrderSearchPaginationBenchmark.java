@@ -0,0 +1,141 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.service.OrderService;
+import com.example.ordermanagement.service.impl.OrderCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads 5M orders, a tenth of them belonging to one customer with a deep history, and compares
+ * fetching page 1 and page 10,000 of that customer's orders with offset and with cursor
+ * pagination. The row count can be changed with {@code -Dbenchmark.orders.rows}.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class OrderSearchPaginationBenchmark extends TestContainersConfig {
+    private static final int ROWS = Integer.getInteger("benchmark.orders.rows", 5_000_000);
+    private static final int USERS = 1_000;
+    private static final long HEAVY_USER_ID = 1;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 10_000;
+    private static final int RUNS = 30;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE orders, users CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, version, created_at, updated_at)
+                SELECT g, 'user' || g, 'user' || g || '@example.com', 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, USERS);
+        // Every tenth order belongs to the heavy user; created_at steps back one second per order
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, order_number, user_id, status, total_amount, version, created_at, updated_at)
+                SELECT g, gen_random_uuid(),
+                       CASE WHEN g % 10 = 0 THEN 1 ELSE 2 + g % (? - 1) END,
+                       'DELIVERED', 10, 0,
+                       now() - g * INTERVAL '1 second', now()
+                FROM generate_series(1, ?) g
+                """, USERS, ROWS);
+        // Same index as migration V8; the test schema is generated by Hibernate
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_orders_user_created_at ON orders (user_id, created_at, id)");
+        jdbcTemplate.execute("ANALYZE orders");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE orders, users CASCADE");
+    }
+
+    @Test
+    void comparePageOneWithPageTenThousand() {
+        var offsetFirst = time(() -> orderService.searchOrders(offsetRequest(0)));
+        var offsetDeep = time(() -> orderService.searchOrders(offsetRequest(DEEP_PAGE - 1)));
+
+        var deepCursor = cursorAt((DEEP_PAGE - 1) * PAGE_SIZE);
+        var cursorFirst = time(() -> orderService.searchOrdersByCursor(cursorRequest(null)));
+        var cursorDeep = time(() -> orderService.searchOrdersByCursor(cursorRequest(deepCursor)));
+
+        log.info("offset: page 1 {} ms, page {} {} ms", offsetFirst.toMillis(), DEEP_PAGE, offsetDeep.toMillis());
+        log.info("cursor: page 1 {} ms, page {} {} ms", cursorFirst.toMillis(), DEEP_PAGE, cursorDeep.toMillis());
+
+        assertThat(cursorDeep).isLessThan(offsetDeep);
+        assertThat(cursorDeep).isLessThan(cursorFirst.multipliedBy(3).plusMillis(5));
+    }
+
+    private OrderSearchRequest offsetRequest(int page) {
+        return OrderSearchRequest.builder()
+                .userId(HEAVY_USER_ID)
+                .sortBy("createdAt")
+                .sortDirection("desc")
+                .page(page)
+                .size(PAGE_SIZE)
+                .build();
+    }
+
+    private OrderSearchRequest cursorRequest(String cursor) {
+        return OrderSearchRequest.builder()
+                .userId(HEAVY_USER_ID)
+                .sortDirection("desc")
+                .size(PAGE_SIZE)
+                .cursor(cursor)
+                .build();
+    }
+
+    /**
+     * The cursor a client would hold after paging through {@code position} orders.
+     */
+    private String cursorAt(int position) {
+        return jdbcTemplate.queryForObject("""
+                        SELECT created_at, id FROM orders
+                        WHERE user_id = ?
+                        ORDER BY created_at DESC, id DESC
+                        OFFSET ? LIMIT 1
+                        """,
+                (rs, rowNum) -> new OrderCursor(rs.getTimestamp("created_at").toInstant(), rs.getLong("id")).encode(),
+                HEAVY_USER_ID, position - 1);
+    }
+
+    /**
+     * Median duration over {@link #RUNS} runs, after as many warm-up runs.
+     */
+    private static Duration time(Supplier<?> search) {
+        for (int i = 0; i < RUNS; i++) {
+            search.get();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long startedAt = System.nanoTime();
+            search.get();
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[RUNS / 2]);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.dto.CursorPageDto;
+import com.example.ordermanagement.dto.ProductDto;
+import com.example.ordermanagement.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Searches a catalog of 1M products built from combinations of everyday product words, timing
+ * broad, specific, next-page and misspelled searches. The catalog size can be changed with
+ * {@code -Dbenchmark.products.rows}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class ProductSearchBenchmark extends TestContainersConfig {
+    private static final int ROWS = Integer.getInteger("benchmark.products.rows", 1_000_000);
+    private static final int PAGE_SIZE = 20;
+    private static final int RUNS = 30;
+    private static final Duration TARGET = Duration.ofMillis(10);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("ALTER TABLE products DROP COLUMN IF EXISTS search_vector");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_products_name_trgm");
+        jdbcTemplate.execute("TRUNCATE order_items, products CASCADE");
+        // 10 styles x 12 materials x 20 kinds, each combination repeated with its own model number
+        jdbcTemplate.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, version, created_at, updated_at)
+                SELECT g,
+                       style || ' ' || material || ' ' || kind || ' Model ' || g,
+                       'A ' || lower(style) || ' ' || lower(kind) || ' made of ' || lower(material)
+                           || ', built to last and easy to care for',
+                       10 + g % 90, 100, 0, now(), now()
+                FROM generate_series(1, ?) g,
+                     LATERAL (SELECT (ARRAY ['Classic', 'Slim', 'Rugged', 'Compact', 'Premium', 'Vintage', 'Modern',
+                                             'Travel', 'Outdoor', 'Deluxe'])[1 + g % 10] AS style,
+                                     (ARRAY ['Leather', 'Canvas', 'Steel', 'Wooden', 'Cotton', 'Wool', 'Bamboo',
+                                             'Ceramic', 'Nylon', 'Silk', 'Copper', 'Glass'])[1 + g / 10 % 12] AS material,
+                                     (ARRAY ['Wallet', 'Backpack', 'Watch', 'Lamp', 'Mug', 'Scarf', 'Jacket',
+                                             'Headphones', 'Speaker', 'Bottle', 'Kettle', 'Chair', 'Desk', 'Blanket',
+                                             'Umbrella', 'Notebook', 'Pen', 'Tent', 'Helmet', 'Camera'])[1 + g / 120 % 20]
+                                         AS kind) words
+                """, ROWS);
+        // The column and indexes of migration V10; the test schema is generated by Hibernate
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V10__product_search.sql")).execute(dataSource);
+        jdbcTemplate.execute("VACUUM ANALYZE products");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE order_items, products CASCADE");
+    }
+
+    @Test
+    void searchMillionProducts() {
+        var broad = time(() -> search("leather wallet", null));
+        var specific = time(() -> search("slim leather wallet", null));
+        var nextCursor = search("slim leather wallet", null).getNextCursor();
+        var nextPage = time(() -> search("slim leather wallet", nextCursor));
+        var misspelled = time(() -> search("slim lether walet", null));
+
+        log.info("{} products: broad {} ms, specific {} ms, next page {} ms, misspelled {} ms", ROWS,
+                millis(broad), millis(specific), millis(nextPage), millis(misspelled));
+
+        assertThat(search("slim lether walet", null).getItems()).isNotEmpty();
+        assertThat(specific).isLessThan(TARGET);
+        assertThat(nextPage).isLessThan(TARGET);
+    }
+
+    private CursorPageDto<ProductDto> search(String query, String cursor) {
+        var page = productService.searchProducts(query, cursor, PAGE_SIZE);
+        assertThat(page.getItems()).isNotEmpty();
+        return page;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+
+    /**
+     * Median duration over {@link #RUNS} runs, after as many warm-up runs.
+     */
+    private static Duration time(Supplier<?> search) {
+        for (int i = 0; i < RUNS; i++) {
+            search.get();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long startedAt = System.nanoTime();
+            search.get();
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[RUNS / 2]);
+    }
+}
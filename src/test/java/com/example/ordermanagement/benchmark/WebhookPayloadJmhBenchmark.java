@@ -0,0 +1,116 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderEventType;
+import com.example.ordermanagement.domain.model.OrderItem;
+import com.example.ordermanagement.domain.model.OrderStatus;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.model.User;
+import com.example.ordermanagement.mapper.OrderEventMapper;
+import com.example.ordermanagement.mapper.OrderItemMapper;
+import com.example.ordermanagement.mapper.OrderMapper;
+import com.example.ordermanagement.service.impl.OrderEventPayloadEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of producing the request bodies for one order event with 1, 10 and 100 subscribed
+ * webhooks: rendering the full order DTO to a string per delivery, against encoding the event
+ * payload once and sharing the bytes. Run with {@code mvn test -Pbenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookPayloadJmhBenchmark {
+    private static final int ITEMS_PER_ORDER = 20;
+
+    @Param({"1", "10", "100"})
+    public int subscribers;
+
+    private ObjectMapper objectMapper;
+    private OrderMapper orderMapper;
+    private OrderEventMapper orderEventMapper;
+    private OrderEventPayloadEncoder encoder;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        orderMapper = Mappers.getMapper(OrderMapper.class);
+        ReflectionTestUtils.setField(orderMapper, "orderItemMapper", Mappers.getMapper(OrderItemMapper.class));
+        orderEventMapper = Mappers.getMapper(OrderEventMapper.class);
+        encoder = new OrderEventPayloadEncoder(objectMapper);
+
+        var user = new User();
+        user.setId(1L);
+        order = Order.builder()
+                .orderNumber(UUID.randomUUID())
+                .user(user)
+                .status(OrderStatus.PENDING)
+                .totalAmount(BigDecimal.ZERO)
+                .build();
+        for (long i = 1; i <= ITEMS_PER_ORDER; i++) {
+            var product = Product.builder().name("Product " + i).description("Description of product " + i)
+                    .price(BigDecimal.valueOf(i)).stockQuantity(100).build();
+            product.setId(i);
+            order.addItem(OrderItem.builder().product(product).quantity(2).unitPrice(product.getPrice())
+                    .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(2))).build());
+        }
+    }
+
+    @Benchmark
+    public void serializePerDelivery(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < subscribers; i++) {
+            blackhole.consume(objectMapper.writeValueAsString(orderMapper.toDto(order))
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void encodeOnce(Blackhole blackhole) {
+        var payload = encoder.encode(orderEventMapper.toPayload(order, OrderEventType.ORDER_CREATED, Instant.now()));
+        for (int i = 0; i < subscribers; i++) {
+            blackhole.consume(payload);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws Exception {
+        var results = new Runner(new OptionsBuilder()
+                .include(getClass().getName())
+                .build())
+                .run();
+
+        assertThat(results).hasSize(6);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.ordermanagement.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every statement sent to the database so tests can assert on round trips.
+ * A JDBC batch is recorded once, since it is executed as a single round trip. Prepared statements
+ * are also kept verbatim with the parameters bound when they ran, so tests can replay them.
+ */
+@TestConfiguration
+public class SqlStatementCounter implements BeanPostProcessor {
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private final List<Execution> executions = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return wrap(DataSource.class, dataSource, null);
+        }
+        return bean;
+    }
+
+    public void reset() {
+        statements.clear();
+        executions.clear();
+    }
+
+    public int count() {
+        return statements.size();
+    }
+
+    /**
+     * Counts recorded statements whose normalized SQL starts with the given prefix,
+     * e.g. {@code "insert into order_items"}.
+     */
+    public long count(String sqlPrefix) {
+        var prefix = sqlPrefix.toLowerCase(Locale.ROOT);
+        return statements.stream()
+                .filter(sql -> sql.startsWith(prefix))
+                .count();
+    }
+
+    public List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    /**
+     * Prepared statements as sent, in execution order, with their parameters in index order.
+     */
+    public List<Execution> executions() {
+        return List.copyOf(executions);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T wrap(Class<T> type, T target, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                record(args != null && args.length > 0 && args[0] instanceof String s ? s : sql);
+                if (sql != null) {
+                    executions.add(new Execution(sql, Collections.unmodifiableList(new ArrayList<>(parameters.values()))));
+                }
+            } else if (method.getName().startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                parameters.put(index, method.getName().equals("setNull") ? null : args[1]);
+            } else if (method.getName().equals("clearParameters")) {
+                parameters.clear();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection connection) {
+                return wrap(Connection.class, connection, null);
+            }
+            if (result instanceof PreparedStatement statement && !(result instanceof java.sql.CallableStatement)) {
+                return wrap(PreparedStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                return wrap(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    public record Execution(String sql, List<Object> parameters) {
+    }
+
+    private void record(String sql) {
+        if (sql != null) {
+            statements.add(sql.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ordermanagement.controller;
 
+import com.example.ordermanagement.config.SqlStatementCounter;
 import com.example.ordermanagement.config.TestContainersConfig;
 import com.example.ordermanagement.domain.model.Product;
 import com.example.ordermanagement.domain.model.User;
@@ -13,6 +14,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -22,15 +25,21 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 @Testcontainers
+@Import(SqlStatementCounter.class)
 class OrderControllerIntegrationTest extends TestContainersConfig {
 
     @Autowired
@@ -45,6 +54,9 @@ class OrderControllerIntegrationTest extends TestContainersConfig {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
     private User testUser;
     private Product testProduct;
 
@@ -141,6 +153,41 @@ class OrderControllerIntegrationTest extends TestContainersConfig {
                 .andExpect(jsonPath("$.status").value("CANCELLED"));
     }
 
+    @Test
+    void getOrder_UnchangedOrder_NotModifiedWithoutLoadingIt() throws Exception {
+        var request = CreateOrderRequest.builder()
+                .userId(testUser.getId())
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), 1)))
+                .build();
+        var created = objectMapper.readValue(mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn().getResponse().getContentAsString(), OrderDto.class);
+
+        var etag = mockMvc.perform(get("/api/v1/orders/{orderNumber}", created.getOrderNumber()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isEqualTo("\"0\"");
+
+        sqlStatementCounter.reset();
+        mockMvc.perform(get("/api/v1/orders/{orderNumber}", created.getOrderNumber())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertThat(sqlStatementCounter.statements()).singleElement()
+                .satisfies(sql -> assertThat(sql).doesNotContain("order_items"));
+
+        mockMvc.perform(post("/api/v1/orders/{orderNumber}/cancel", created.getOrderNumber()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/orders/{orderNumber}", created.getOrderNumber())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
     @Test
     void createOrder_UserNotFound() throws Exception {
         var request = CreateOrderRequest.builder()
@@ -189,4 +236,39 @@ class OrderControllerIntegrationTest extends TestContainersConfig {
                 .andExpect(jsonPath("$[0].userId").value(testUser.getId()))
                 .andExpect(jsonPath("$[0].status").value("PENDING"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void exportOrders_StreamsCsv() throws Exception {
+        var request = CreateOrderRequest.builder()
+                .userId(testUser.getId())
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), 2)))
+                .build();
+        var created = objectMapper.readValue(mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), OrderDto.class);
+
+        var export = mockMvc.perform(get("/api/v1/orders/export")
+                        .param("userId", testUser.getId().toString())
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var body = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+        var lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[1]).startsWith(created.getOrderNumber() + "," + testUser.getId() + ",PENDING,200.00,");
+    }
+
+    @Test
+    void exportOrders_UnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/orders/export")
+                        .param("userId", testUser.getId().toString())
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
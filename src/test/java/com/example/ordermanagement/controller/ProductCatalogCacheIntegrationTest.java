@@ -0,0 +1,153 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.model.User;
+import com.example.ordermanagement.domain.repository.OrderRepository;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.domain.repository.UserRepository;
+import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.example.ordermanagement.dto.OrderDto;
+import com.example.ordermanagement.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The product catalog cache is off in the test profile; these tests run with it on, in a context of
+ * their own so no other test sees what they cache. Changes "on another node" are saved straight
+ * through the repository, which never invalidates this node's cache.
+ */
+@SpringBootTest(properties = "products.catalog-cache.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers
+class ProductCatalogCacheIntegrationTest extends TestContainersConfig {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User testUser;
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+        productRepository.deleteAll();
+
+        testUser = userRepository.save(User.builder()
+                .username("testuser")
+                .email("test@example.com")
+                .build());
+        testProduct = productRepository.save(Product.builder()
+                .name("Test Product")
+                .description("Test Description")
+                .price(BigDecimal.valueOf(100))
+                .stockQuantity(10)
+                .build());
+    }
+
+    @Test
+    void getProduct_CachedCatalogFollowsPriceChangesAndLiveStock() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(100.0));
+
+        mockMvc.perform(put("/api/v1/products/{id}/price", testProduct.getId()).param("price", "80.00"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/v1/products/{id}/stock", testProduct.getId()).param("quantity", "3"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(80.0))
+                .andExpect(jsonPath("$.stockQuantity").value(3));
+
+        mockMvc.perform(put("/api/v1/products/{id}/price", testProduct.getId()).param("price", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getProduct_ChangedOnAnotherNode_NeverServesTheCachedBodyUnderTheNewETag() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        changePriceOnAnotherNode(new BigDecimal("70.00"));
+
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.price").value(70.0));
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void createOrder_ChangedOnAnotherNode_IsPricedAtTheNewPriceAndServedWithIt() throws Exception {
+        placeOrder(1);
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        changePriceOnAnotherNode(new BigDecimal("7.50"));
+        var order = placeOrder(2);
+
+        assertThat(order.getItems()).singleElement()
+                .satisfies(item -> assertThat(item.getUnitPrice()).isEqualByComparingTo("7.50"));
+        assertThat(order.getTotalAmount()).isEqualByComparingTo("15.00");
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.price").value(7.5))
+                .andExpect(jsonPath("$.stockQuantity").value(7));
+    }
+
+    private void changePriceOnAnotherNode(BigDecimal price) {
+        transactionTemplate.executeWithoutResult(status -> productRepository.findById(testProduct.getId())
+                .orElseThrow()
+                .setPrice(price));
+    }
+
+    private OrderDto placeOrder(int quantity) {
+        return orderService.createOrder(CreateOrderRequest.builder()
+                .userId(testUser.getId())
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), quantity)))
+                .build());
+    }
+}
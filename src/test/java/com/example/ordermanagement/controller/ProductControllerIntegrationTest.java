@@ -0,0 +1,126 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers
+class ProductControllerIntegrationTest extends TestContainersConfig {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+
+        testProduct = productRepository.save(Product.builder()
+                .name("Test Product")
+                .description("Test Description")
+                .price(BigDecimal.valueOf(100))
+                .stockQuantity(10)
+                .build());
+    }
+
+    @Test
+    void getProduct_ETagFollowsTheVersion() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/api/v1/products/{id}/stock", testProduct.getId()).param("quantity", "5"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.stockQuantity").value(5));
+    }
+
+    @Test
+    void getProducts_PagesThroughTheCatalogByCursor() throws Exception {
+        var second = productRepository.save(Product.builder()
+                .name("Second Product")
+                .price(BigDecimal.ONE)
+                .stockQuantity(1)
+                .build());
+
+        var firstPage = mockMvc.perform(get("/api/v1/products").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(testProduct.getId()))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/v1/products").param("size", "1")
+                        .param("cursor", JsonPath.<String>read(firstPage, "$.nextCursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(second.getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void streamProducts_WritesOneLinePerProduct() throws Exception {
+        productRepository.save(Product.builder()
+                .name("Second Product")
+                .price(BigDecimal.ONE)
+                .stockQuantity(1)
+                .build());
+
+        var result = mockMvc.perform(get("/api/v1/products/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines().toList()).hasSize(2)
+                .allSatisfy(line -> assertThat(line).startsWith("{"))
+                .first()
+                .satisfies(line -> assertThat(line).contains("\"name\":\"Test Product\"", "\"stockQuantity\":10"));
+    }
+
+    @Test
+    void getProduct_ConditionalRequestForMissingProduct_NotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", testProduct.getId() + 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotFound());
+    }
+}
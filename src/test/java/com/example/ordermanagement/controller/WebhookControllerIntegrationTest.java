@@ -47,6 +47,37 @@ class WebhookControllerIntegrationTest extends TestContainersConfig {
                 .andExpect(jsonPath("$.retryCount").value(0));
     }
 
+    @Test
+    void registerWebhook_BatchDelivery() throws Exception {
+        var request = WebhookRegistrationRequest.builder()
+                .url("http://example.com/webhook")
+                .eventType("ORDER_CREATED")
+                .maxBatchSize(100)
+                .maxLingerMs(500)
+                .build();
+
+        mockMvc.perform(post("/api/v1/webhooks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.maxBatchSize").value(100))
+                .andExpect(jsonPath("$.maxLingerMs").value(500));
+    }
+
+    @Test
+    void registerWebhook_InvalidBatchSize() throws Exception {
+        var request = WebhookRegistrationRequest.builder()
+                .url("http://example.com/webhook")
+                .eventType("ORDER_CREATED")
+                .maxBatchSize(0)
+                .build();
+
+        mockMvc.perform(post("/api/v1/webhooks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void registerWebhook_InvalidUrl() throws Exception {
         var request = WebhookRegistrationRequest.builder()
@@ -0,0 +1,198 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.config.SqlStatementCounter;
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.service.OrderService;
+import com.example.ordermanagement.service.impl.OrderCursor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN} on every shape of the order search id page against the schema built by the
+ * Flyway migrations, seeded with a realistic volume, and fails when a shape is planned with a
+ * sequential scan or an explicit sort. The statements are the ones Hibernate actually sends for
+ * each search, captured with their bound parameters by the {@link SqlStatementCounter}. The schema
+ * lives apart from the one the other tests let Hibernate generate.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.flyway.schemas=" + OrderSearchPlanIntegrationTest.SCHEMA,
+        "spring.datasource.hikari.schema=" + OrderSearchPlanIntegrationTest.SCHEMA,
+        "spring.jpa.properties.hibernate.default_schema=" + OrderSearchPlanIntegrationTest.SCHEMA,
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+@Testcontainers
+@Import(SqlStatementCounter.class)
+class OrderSearchPlanIntegrationTest extends TestContainersConfig {
+    static final String SCHEMA = "search_plans";
+
+    private static final int USERS = 2_000;
+    private static final int ORDERS = 400_000;
+    // Every tenth order belongs to one heavy user
+    private static final long HEAVY_USER_ID = 1;
+    private static final Set<String> FORBIDDEN_NODES = Set.of("Seq Scan", "Sort", "Incremental Sort");
+    private static final Pattern ORDERS_ONLY = Pattern.compile("\\bfrom (\\w+\\.)?orders\\b");
+    private static final Pattern ORDER_ITEMS = Pattern.compile("\\border_items\\b");
+
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email)
+                SELECT g, 'user' || g, 'user' || g || '@example.com' FROM generate_series(1, ?) g
+                """, USERS);
+        // created_at steps back one minute per order; 80% delivered, the rest spread over other statuses
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, order_number, user_id, status, total_amount, created_at, updated_at)
+                SELECT g, gen_random_uuid(),
+                       CASE WHEN g % 10 = 0 THEN 1 ELSE 2 + g % (? - 1) END,
+                       CASE WHEN g % 20 = 1 THEN 'PENDING'
+                            WHEN g % 20 = 2 THEN 'CANCELLED'
+                            WHEN g % 20 IN (3, 4) THEN 'CONFIRMED'
+                            ELSE 'DELIVERED' END,
+                       10, now() - g * INTERVAL '1 minute', now()
+                FROM generate_series(1, ?) g
+                """, USERS, ORDERS);
+        jdbcTemplate.execute("VACUUM ANALYZE users");
+        jdbcTemplate.execute("VACUUM ANALYZE orders");
+        seeded = true;
+    }
+
+    @Test
+    void byUser_NewestFirst() {
+        assertIndexOrdered(() -> orderService.searchOrders(search().sortDirection("desc").build()));
+    }
+
+    @Test
+    void byUser_OldestFirst() {
+        assertIndexOrdered(() -> orderService.searchOrders(search().sortDirection("asc").build()));
+    }
+
+    @Test
+    void byUser_DeepOffset() {
+        assertIndexOrdered(() -> orderService.searchOrders(search().sortDirection("desc").page(100).build()));
+    }
+
+    @Test
+    void byUserAndStatus() {
+        assertIndexOrdered(() -> orderService.searchOrders(search().sortDirection("desc").status("PENDING").build()));
+    }
+
+    @Test
+    void byUserAndDateRange() {
+        assertIndexOrdered(() -> orderService.searchOrders(search().sortDirection("desc")
+                .startDate(LocalDate.now().minusDays(30)).endDate(LocalDate.now()).build()));
+    }
+
+    @Test
+    void byUserStatusAndDateRange() {
+        assertIndexOrdered(() -> orderService.searchOrders(search().sortDirection("desc").status("DELIVERED")
+                .startDate(LocalDate.now().minusDays(30)).endDate(LocalDate.now()).build()));
+    }
+
+    @Test
+    void byUser_AfterCursor() {
+        var cursor = new OrderCursor(daysAgo(60), (long) ORDERS / 2).encode();
+
+        assertIndexOrdered(() -> orderService.searchOrdersByCursor(search().sortDirection("desc").cursor(cursor)
+                .build()));
+    }
+
+    @Test
+    void byUserAndStatus_AfterCursor() {
+        var cursor = new OrderCursor(daysAgo(60), (long) ORDERS / 2).encode();
+
+        assertIndexOrdered(() -> orderService.searchOrdersByCursor(search().sortDirection("asc").status("CONFIRMED")
+                .cursor(cursor).build()));
+    }
+
+    @Test
+    void byOrderNumber() {
+        var orderNumber = jdbcTemplate.queryForObject("SELECT order_number FROM orders WHERE id = 1", UUID.class);
+
+        assertIndexOrdered(() -> orderService.getOrderVersion(orderNumber));
+    }
+
+    private static OrderSearchRequest.OrderSearchRequestBuilder search() {
+        return OrderSearchRequest.builder().userId(HEAVY_USER_ID).size(20);
+    }
+
+    /**
+     * Runs the search, then explains every statement it sent that reads the orders table on its own.
+     * Statements joining the order items fetch a page by primary key and are left out.
+     */
+    private void assertIndexOrdered(Runnable search) {
+        sqlStatementCounter.reset();
+        search.run();
+        var queries = sqlStatementCounter.executions().stream()
+                .filter(execution -> ORDERS_ONLY.matcher(execution.sql()).find()
+                        && !ORDER_ITEMS.matcher(execution.sql()).find())
+                .toList();
+        assertThat(queries).as("order queries").isNotEmpty();
+
+        for (var query : queries) {
+            var plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + query.sql(), String.class,
+                    query.parameters().toArray());
+            assertThat(nodeTypes(plan))
+                    .as("plan of %s with %s%n%s", query.sql(), query.parameters(), plan)
+                    .doesNotContainAnyElementsOf(FORBIDDEN_NODES);
+        }
+    }
+
+    private List<String> nodeTypes(String plan) {
+        try {
+            List<String> nodeTypes = new ArrayList<>();
+            collectNodeTypes(objectMapper.readTree(plan).get(0).get("Plan"), nodeTypes);
+            return nodeTypes;
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable plan: " + plan, e);
+        }
+    }
+
+    private static void collectNodeTypes(JsonNode node, List<String> nodeTypes) {
+        nodeTypes.add(node.get("Node Type").asText());
+        if (node.has("Plans")) {
+            node.get("Plans").forEach(child -> collectNodeTypes(child, nodeTypes));
+        }
+    }
+
+    private static Instant daysAgo(int days) {
+        return Instant.now().minus(Duration.ofDays(days));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.dto.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Product search against the column and indexes of migration V10, applied on top of the schema
+ * Hibernate generates for the tests. A few known products sit among generated filler so the
+ * planner has a reason to use the indexes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class ProductSearchRepositoryIntegrationTest extends TestContainersConfig {
+    private static final int FILLER = 20_000;
+
+    @Autowired
+    private ProductSearchRepository productSearchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        applyProductSearchMigration(jdbcTemplate, dataSource);
+        jdbcTemplate.execute("TRUNCATE order_items, products CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, version, created_at, updated_at)
+                SELECT g, 'Gadget ' || g, 'Spare part number ' || g, 5, 10, 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, FILLER);
+        insertProduct(FILLER + 1, "Leather Wallet", "Slim wallet made of full grain leather");
+        insertProduct(FILLER + 2, "Canvas Wallet", "Wallet with a leather trim");
+        insertProduct(FILLER + 3, "Leather Belt", "Belt for everyday wear");
+        insertProduct(FILLER + 4, "Wireless Headphones", "Over-ear headphones with noise cancelling");
+        jdbcTemplate.execute("ANALYZE products");
+    }
+
+    /**
+     * Adds the column and indexes of migration V10, which the Hibernate generated schema lacks.
+     */
+    static void applyProductSearchMigration(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        jdbcTemplate.execute("ALTER TABLE products DROP COLUMN IF EXISTS search_vector");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_products_name_trgm");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V10__product_search.sql")).execute(dataSource);
+    }
+
+    @Test
+    void searchText_RanksNameMatchesAboveDescriptionMatches() {
+        var hits = productSearchRepository.searchText("leather wallet", null, null, 10);
+
+        assertThat(hits).extracting(hit -> hit.product().getName())
+                .containsExactly("Leather Wallet", "Canvas Wallet");
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    void searchText_MatchesWordForms() {
+        assertThat(productSearchRepository.searchText("wallets", null, null, 10))
+                .extracting(hit -> hit.product().getName())
+                .containsExactlyInAnyOrder("Leather Wallet", "Canvas Wallet");
+    }
+
+    @Test
+    void searchText_KeysetPagesCoverEveryMatchOnce() {
+        List<String> names = new ArrayList<>();
+        Float afterScore = null;
+        Long afterId = null;
+        for (var page = productSearchRepository.searchText("leather", null, null, 1); !page.isEmpty();
+             page = productSearchRepository.searchText("leather", afterScore, afterId, 1)) {
+            var last = page.get(0);
+            names.add(last.product().getName());
+            afterScore = last.score();
+            afterId = last.product().getId();
+        }
+
+        assertThat(names).containsExactlyInAnyOrder("Leather Wallet", "Canvas Wallet", "Leather Belt");
+        assertThat(names.get(2)).isEqualTo("Canvas Wallet");
+    }
+
+    @Test
+    void searchFuzzy_FindsMisspelledNamesClosestFirst() {
+        assertThat(productSearchRepository.searchText("wireles headphnes", null, null, 10)).isEmpty();
+
+        var hits = productSearchRepository.searchFuzzy("wireles headphnes", null, null, 10);
+
+        assertThat(hits).extracting(hit -> hit.product().getName()).first().isEqualTo("Wireless Headphones");
+        assertThat(hits).extracting(ProductSearchRepository.Hit::product).extracting(ProductDto::getStockQuantity)
+                .containsOnly(10);
+    }
+
+    @Test
+    void searches_UseTheSearchIndexes() {
+        assertThat(plan(ProductSearchRepository.SELECT_TEXT + "ORDER BY score DESC, id\nLIMIT 21", "leather wallet"))
+                .contains("idx_products_search_vector")
+                .doesNotContain("Seq Scan");
+        assertThat(plan(ProductSearchRepository.SELECT_FUZZY + "ORDER BY score, id\nLIMIT 21",
+                "wireles headphnes", "wireles headphnes"))
+                .contains("idx_products_name_trgm")
+                .doesNotContain("Seq Scan");
+    }
+
+    private String plan(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+
+    private void insertProduct(long id, String name, String description) {
+        jdbcTemplate.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, version, created_at, updated_at)
+                VALUES (?, ?, ?, 20, 10, 0, now(), now())
+                """, id, name, description);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ordermanagement.domain.repository;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.domain.model.OrderEvent;
+import com.example.ordermanagement.domain.model.OrderEventType;
+import com.example.ordermanagement.domain.model.Webhook;
+import com.example.ordermanagement.domain.model.WebhookDeliveryStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class WebhookDeliveryRepositoryIntegrationTest extends TestContainersConfig {
+
+    @Autowired
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+
+    @Autowired
+    private WebhookRepository webhookRepository;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        webhookDeliveryRepository.deleteAll();
+        webhookRepository.deleteAll();
+        orderEventRepository.deleteAll();
+    }
+
+    @Test
+    void enqueue_DeletedWebhook_IsSkippedInsteadOfFailingTheInsert() {
+        var kept = webhookRepository.save(webhook("http://kept"));
+        var deleted = webhookRepository.save(webhook("http://deleted"));
+        var event = orderEventRepository.save(OrderEvent.builder()
+                .eventType(OrderEventType.ORDER_CREATED)
+                .orderNumber(UUID.randomUUID())
+                .payload("{}".getBytes(StandardCharsets.UTF_8))
+                .schemaVersion(1)
+                .build());
+        // Another node deletes the webhook while this one still has it in its registry snapshot
+        webhookRepository.deleteById(deleted.getId());
+
+        Integer queued = transactionTemplate.execute(status ->
+                webhookDeliveryRepository.enqueue(event.getId(), List.of(kept.getId(), deleted.getId()), Instant.now()));
+
+        assertThat(queued).isEqualTo(1);
+        assertThat(webhookDeliveryRepository.countByWebhookIdAndStatus(kept.getId(), WebhookDeliveryStatus.PENDING))
+                .isEqualTo(1);
+    }
+
+    private static Webhook webhook(String url) {
+        return Webhook.builder()
+                .url(url)
+                .eventType(OrderEventType.ORDER_CREATED.name())
+                .status("ACTIVE")
+                .retryCount(0)
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.InventoryLedgerProperties;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryLedgerServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private InventoryLedgerServiceImpl inventoryLedgerService;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new InventoryLedgerProperties();
+        properties.setEnabled(true);
+        properties.setHotProductIds(Set.of(1L));
+        properties.setStripes(4);
+
+        inventoryLedgerService = new InventoryLedgerServiceImpl(productRepository, properties, transactionTemplate);
+        when(productRepository.findAvailableStock(any())).thenReturn(List.of(availableStock(1L, 10)));
+        inventoryLedgerService.rebuild();
+
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void rebuild_ManagesOnlyHotProducts() {
+        assertThat(inventoryLedgerService.isManaged(1L)).isTrue();
+        assertThat(inventoryLedgerService.isManaged(2L)).isFalse();
+    }
+
+    @Test
+    void tryReserve_NeverHandsOutMoreThanAvailable() {
+        assertThat(inventoryLedgerService.tryReserve(1L, 7)).isTrue();
+        assertThat(inventoryLedgerService.tryReserve(1L, 4)).isFalse();
+        assertThat(inventoryLedgerService.tryReserve(1L, 3)).isTrue();
+        assertThat(inventoryLedgerService.tryReserve(1L, 1)).isFalse();
+    }
+
+    @Test
+    void tryReserve_RollbackReturnsStock() {
+        assertThat(inventoryLedgerService.tryReserve(1L, 10)).isTrue();
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(inventoryLedgerService.tryReserve(1L, 10)).isTrue();
+    }
+
+    @Test
+    void release_ReturnsStockOnlyAfterCommit() {
+        assertThat(inventoryLedgerService.tryReserve(1L, 10)).isTrue();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        inventoryLedgerService.release(1L, 4);
+        assertThat(inventoryLedgerService.tryReserve(1L, 1)).isFalse();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(inventoryLedgerService.tryReserve(1L, 4)).isTrue();
+    }
+
+    @Test
+    void tryReserve_RefusedUntilLedgerIsLoaded() {
+        var properties = new InventoryLedgerProperties();
+        properties.setEnabled(true);
+        properties.setHotProductIds(Set.of(1L));
+        var unloaded = new InventoryLedgerServiceImpl(productRepository, properties, transactionTemplate);
+
+        assertThat(unloaded.isManaged(1L)).isTrue();
+        assertThat(unloaded.tryReserve(1L, 1)).isFalse();
+    }
+
+    @Test
+    void refresh_WaitsForInFlightReservations() throws Exception {
+        assertThat(inventoryLedgerService.tryReserve(1L, 4)).isTrue();
+
+        // The reservation has not committed yet, so the snapshot still shows all 10 units
+        var executor = Executors.newSingleThreadExecutor();
+        var reloaded = new CountDownLatch(1);
+        executor.execute(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                inventoryLedgerService.refresh(1L);
+                complete(TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+                reloaded.countDown();
+            }
+        });
+        assertThat(reloaded.await(200, TimeUnit.MILLISECONDS)).isFalse();
+
+        // Once it has committed, the reload reads its deferred line and counts it exactly once
+        when(productRepository.findAvailableStock(any())).thenReturn(List.of(availableStock(1L, 6)));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(reloaded.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+
+        assertThat(inventoryLedgerService.tryReserve(1L, 6)).isTrue();
+        assertThat(inventoryLedgerService.tryReserve(1L, 1)).isFalse();
+    }
+
+    @Test
+    void stripedStock_ConcurrentReservationsNeverOversell() throws Exception {
+        var stock = new InventoryLedgerServiceImpl.StripedStock(8);
+        stock.reset(10_000);
+
+        var executor = Executors.newFixedThreadPool(16);
+        var start = new CountDownLatch(1);
+        var taken = new AtomicInteger();
+        for (int t = 0; t < 16; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        int quantity = 1 + i % 3;
+                        if (stock.tryTake(quantity)) {
+                            taken.addAndGet(quantity);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(taken.get() + stock.available()).isEqualTo(10_000);
+        assertThat(stock.available()).isLessThan(3);
+    }
+
+    private static void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static ProductRepository.AvailableStock availableStock(Long id, Integer available) {
+        return new ProductRepository.AvailableStock() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getAvailable() {
+                return available;
+            }
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.domain.model.OrderEventType;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.repository.OrderJdbcRepository;
+import com.example.ordermanagement.domain.repository.OrderJdbcRepository.StockChange;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.domain.repository.UserRepository;
+import com.example.ordermanagement.dto.BatchOrderResult;
+import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.example.ordermanagement.service.InventoryLedgerService;
+import com.example.ordermanagement.service.OrderEventService;
+import com.example.ordermanagement.service.OrderSearchCache;
+import com.example.ordermanagement.service.SalesRollupService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBatchServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private OrderJdbcRepository orderJdbcRepository;
+    @Mock
+    private InventoryLedgerService inventoryLedgerService;
+    @Mock
+    private OrderEventService orderEventService;
+    @Mock
+    private OrderSearchCache orderSearchCache;
+    @Mock
+    private SalesRollupService salesRollupService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OrderBatchServiceImpl orderBatchService;
+
+    private Product cheapProduct;
+    private Product scarceProduct;
+
+    @BeforeEach
+    void setUp() {
+        orderBatchService = new OrderBatchServiceImpl(userRepository, productRepository, orderJdbcRepository,
+                inventoryLedgerService, new TimeOrderedOrderNumberGenerator(), orderEventService, orderSearchCache,
+                salesRollupService, transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator());
+
+        cheapProduct = Product.builder().name("Cheap").price(BigDecimal.ONE).stockQuantity(100).build();
+        cheapProduct.setId(1L);
+        scarceProduct = Product.builder().name("Scarce").price(BigDecimal.TEN).stockQuantity(1).build();
+        scarceProduct.setId(2L);
+
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void createOrders_FailedOrdersDoNotAffectTheOthers() {
+        when(userRepository.findExistingIds(any())).thenReturn(List.of(1L));
+        when(productRepository.findAllById(any())).thenReturn(List.of(cheapProduct, scarceProduct));
+        // Stock lines are sorted by product id: [cheap for order 0, cheap for order 3, scarce for order 3]
+        when(orderJdbcRepository.decrementStock(anyList())).thenReturn(new int[]{1, 1, 0});
+
+        var results = orderBatchService.createOrders(List.of(
+                order(1L, line(1L, 2)),
+                order(1L),
+                order(99L, line(1L, 1)),
+                order(1L, line(1L, 1), line(2L, 5)),
+                order(1L, line(42L, 1))));
+
+        assertThat(results).extracting(BatchOrderResult::isSuccess)
+                .containsExactly(true, false, false, false, false);
+        assertThat(results.get(0).getOrderNumber()).isNotNull();
+        assertThat(results.get(1).getError()).contains("items");
+        assertThat(results.get(2).getError()).isEqualTo("User not found");
+        assertThat(results.get(3).getError()).isEqualTo("Insufficient stock for product: Scarce");
+        assertThat(results.get(4).getError()).isEqualTo("Product not found");
+
+        verify(orderJdbcRepository).incrementStock(List.of(new StockChange(1L, 1)));
+        var inserted = ArgumentCaptor.forClass(List.class);
+        verify(orderJdbcRepository).insertOrders(inserted.capture());
+        assertThat(inserted.getValue()).hasSize(1);
+        verify(orderEventService).recordAll(OrderEventType.ORDER_CREATED, inserted.getValue());
+        verify(orderSearchCache).invalidate(1L);
+        verify(salesRollupService).recordCreated(inserted.getValue());
+    }
+
+    @Test
+    void createOrders_NullEntries_FailOnlyTheirOwnIndex() {
+        when(userRepository.findExistingIds(any())).thenReturn(List.of(1L));
+        when(productRepository.findAllById(any())).thenReturn(List.of(cheapProduct));
+        when(orderJdbcRepository.decrementStock(anyList())).thenReturn(new int[]{1});
+
+        var withNullItem = order(1L);
+        withNullItem.setItems(Arrays.asList(line(1L, 1), null));
+        var results = orderBatchService.createOrders(Arrays.asList(null, order(1L, line(1L, 1)), withNullItem));
+
+        assertThat(results).extracting(BatchOrderResult::isSuccess).containsExactly(false, true, false);
+        assertThat(results.get(0).getError()).isEqualTo("Order must not be null");
+        assertThat(results.get(2).getError()).contains("items");
+    }
+
+    @Test
+    void createOrders_ChunkFailure_ReportsEveryOrderInTheChunk() {
+        when(userRepository.findExistingIds(any())).thenReturn(List.of(1L));
+        when(productRepository.findAllById(any())).thenReturn(List.of(cheapProduct));
+        when(orderJdbcRepository.decrementStock(anyList())).thenReturn(new int[]{1, 1});
+        doThrow(new IllegalStateException("connection lost")).when(orderJdbcRepository).insertOrders(anyList());
+
+        var results = orderBatchService.createOrders(List.of(order(1L, line(1L, 1)), order(1L, line(1L, 1))));
+
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.isSuccess()).isFalse();
+            assertThat(result.getError()).isEqualTo("Order could not be stored");
+        });
+        verifyNoInteractions(orderEventService);
+    }
+
+    @Test
+    void createOrders_TooManyOrders_ThrowsException() {
+        var requests = Collections.nCopies(OrderBatchServiceImpl.MAX_BATCH_SIZE + 1, order(1L, line(1L, 1)));
+
+        assertThatThrownBy(() -> orderBatchService.createOrders(requests))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CreateOrderRequest order(Long userId, CreateOrderRequest.OrderItemRequest... items) {
+        return CreateOrderRequest.builder()
+                .userId(userId)
+                .items(List.of(items))
+                .build();
+    }
+
+    private static CreateOrderRequest.OrderItemRequest line(Long productId, int quantity) {
+        return new CreateOrderRequest.OrderItemRequest(productId, quantity);
+    }
+}
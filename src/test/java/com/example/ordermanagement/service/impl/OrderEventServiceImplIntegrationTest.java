@@ -0,0 +1,93 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.domain.model.OrderEvent;
+import com.example.ordermanagement.domain.model.OrderEventType;
+import com.example.ordermanagement.domain.repository.OrderEventRepository;
+import com.example.ordermanagement.service.OrderEventService;
+import com.example.ordermanagement.service.WebhookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        "outbox.relay.enabled=true",
+        "outbox.relay.batch-size=20",
+        "outbox.relay.poll-interval=1h"
+})
+@ActiveProfiles("test")
+@Testcontainers
+class OrderEventServiceImplIntegrationTest extends TestContainersConfig {
+
+    @Autowired
+    private OrderEventService orderEventService;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @MockBean
+    private WebhookService webhookService;
+
+    private final Queue<Long> dispatchedIds = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        orderEventRepository.deleteAll();
+        doAnswer(invocation -> dispatchedIds.add(invocation.<OrderEvent>getArgument(0).getId()))
+                .when(webhookService).dispatch(any());
+    }
+
+    @Test
+    void relay_ConcurrentRelays_PublishEachEventExactlyOnce() throws Exception {
+        orderEventRepository.saveAll(IntStream.range(0, 500)
+                .mapToObj(i -> OrderEvent.builder()
+                        .eventType(OrderEventType.ORDER_CREATED)
+                        .orderNumber(UUID.randomUUID())
+                        .payload("{}".getBytes(StandardCharsets.UTF_8))
+                        .schemaVersion(1)
+                        .build())
+                .toList());
+
+        var executor = Executors.newFixedThreadPool(4);
+        var start = new CountDownLatch(1);
+        try {
+            List<Callable<Void>> relays = IntStream.range(0, 4)
+                    .<Callable<Void>>mapToObj(i -> () -> {
+                        start.await();
+                        orderEventService.relay();
+                        return null;
+                    })
+                    .toList();
+            List<Future<Void>> futures = relays.stream().map(executor::submit).toList();
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(dispatchedIds).hasSize(500).doesNotHaveDuplicates();
+        assertThat(orderEventRepository.findAll())
+                .allSatisfy(event -> assertThat(event.getPublishedAt()).isNotNull());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.OutboxProperties;
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderEvent;
+import com.example.ordermanagement.domain.model.OrderEventType;
+import com.example.ordermanagement.domain.repository.OrderEventRepository;
+import com.example.ordermanagement.domain.model.OrderItem;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.dto.OrderEventPayload;
+import com.example.ordermanagement.mapper.OrderEventMapper;
+import com.example.ordermanagement.service.WebhookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mapstruct.factory.Mappers;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventServiceImplTest {
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+    @Mock
+    private WebhookService webhookService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderEventServiceImpl orderEventService;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new OutboxProperties();
+        properties.setBatchSize(2);
+
+        orderEventService = new OrderEventServiceImpl(orderEventRepository, webhookService,
+                Mappers.getMapper(OrderEventMapper.class), new OrderEventPayloadEncoder(objectMapper), transactionTemplate,
+                properties,
+                meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void record_StoresEncodedVersionedPayload() throws Exception {
+        var product = Product.builder().name("Widget").price(BigDecimal.TEN).build();
+        product.setId(7L);
+        var order = Order.builder().orderNumber(UUID.randomUUID()).totalAmount(BigDecimal.valueOf(20)).build();
+        order.addItem(OrderItem.builder().product(product).quantity(2).unitPrice(BigDecimal.TEN)
+                .totalPrice(BigDecimal.valueOf(20)).build());
+
+        orderEventService.record(OrderEventType.ORDER_CREATED, order);
+
+        var saved = ArgumentCaptor.forClass(OrderEvent.class);
+        verify(orderEventRepository).save(saved.capture());
+        assertThat(saved.getValue().getEventType()).isEqualTo(OrderEventType.ORDER_CREATED);
+        assertThat(saved.getValue().getOrderNumber()).isEqualTo(order.getOrderNumber());
+        assertThat(saved.getValue().getSchemaVersion()).isEqualTo(OrderEventPayload.SCHEMA_VERSION);
+
+        var payload = objectMapper.readValue(saved.getValue().getPayload(), OrderEventPayload.class);
+        assertThat(payload.getSchemaVersion()).isEqualTo(OrderEventPayload.SCHEMA_VERSION);
+        assertThat(payload.getEventType()).isEqualTo(OrderEventType.ORDER_CREATED);
+        assertThat(payload.getOccurredAt()).isEqualTo(NOW);
+        assertThat(payload.getOrderNumber()).isEqualTo(order.getOrderNumber());
+        assertThat(payload.getItems()).singleElement()
+                .satisfies(item -> assertThat(item.getProductId()).isEqualTo(7L));
+        assertThat(new String(saved.getValue().getPayload(), StandardCharsets.UTF_8)).doesNotContain("Widget");
+    }
+
+    @Test
+    void relay_DrainsFullBatchesAndMarksThemPublished() {
+        var events = IntStream.range(0, 3).mapToObj(i -> event((long) i, NOW.minusSeconds(10))).toList();
+        when(orderEventRepository.claimUnpublished(2))
+                .thenReturn(events.subList(0, 2))
+                .thenReturn(events.subList(2, 3));
+        when(orderEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc()).thenReturn(Optional.empty());
+
+        orderEventService.relay();
+
+        events.forEach(event -> verify(webhookService).dispatch(event));
+        verify(orderEventRepository).markPublished(List.of(0L, 1L), NOW);
+        verify(orderEventRepository).markPublished(List.of(2L), NOW);
+        assertThat(meterRegistry.counter("orders.outbox.relayed").count()).isEqualTo(3);
+        assertThat(meterRegistry.timer("orders.outbox.lag").totalTime(TimeUnit.SECONDS)).isEqualTo(30);
+    }
+
+    @Test
+    void relay_EmptyOutbox_PublishesNothing() {
+        when(orderEventRepository.claimUnpublished(2)).thenReturn(List.of());
+        when(orderEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc()).thenReturn(Optional.empty());
+
+        orderEventService.relay();
+
+        verifyNoInteractions(webhookService);
+        verify(orderEventRepository, never()).markPublished(anyList(), any());
+    }
+
+    @Test
+    void relay_ReportsAgeOfOldestPendingEvent() {
+        when(orderEventRepository.claimUnpublished(2)).thenReturn(List.of());
+        when(orderEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc())
+                .thenReturn(Optional.of(event(1L, NOW.minusSeconds(42))));
+
+        orderEventService.relay();
+
+        assertThat(meterRegistry.get("orders.outbox.oldest.pending.seconds").gauge().value()).isEqualTo(42);
+    }
+
+    @Test
+    void purgePublished_DeletesEventsOlderThanRetention() {
+        orderEventService.purgePublished();
+
+        verify(orderEventRepository).deletePublishedBefore(eq(NOW.minus(new OutboxProperties().getRetention())));
+    }
+
+    private static OrderEvent event(Long id, Instant createdAt) {
+        var event = OrderEvent.builder()
+                .eventType(OrderEventType.ORDER_CREATED)
+                .orderNumber(UUID.randomUUID())
+                .payload("{}".getBytes(StandardCharsets.UTF_8))
+                .schemaVersion(OrderEventPayload.SCHEMA_VERSION)
+                .build();
+        event.setId(id);
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+}
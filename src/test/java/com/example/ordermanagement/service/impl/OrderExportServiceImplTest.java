@@ -0,0 +1,142 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.domain.repository.OrderExportRepository;
+import com.example.ordermanagement.domain.repository.UserRepository;
+import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.exception.ResourceNotFoundException;
+import com.example.ordermanagement.service.OrderExportService.Format;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceImplTest {
+    private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final Instant CREATED_AT = Instant.parse("2024-03-01T12:00:00Z");
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private OrderExportRepository orderExportRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OrderExportServiceImpl orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        orderExportService = new OrderExportServiceImpl(userRepository, orderExportRepository, objectMapper,
+                transactionManager);
+    }
+
+    @Test
+    void exportNdjson_WritesOneObjectPerOrderWithItsItems() throws Exception {
+        givenLines(line(1L, FIRST, 10L, 2), line(1L, FIRST, 11L, 1), line(2L, SECOND, null, null));
+
+        var lines = export(Format.NDJSON).split("\n");
+
+        assertThat(lines).hasSize(2).allSatisfy(line -> assertThat(line).startsWith("{"));
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("orderNumber").asText()).isEqualTo(FIRST.toString());
+        assertThat(first.get("createdAt").asText()).isEqualTo(CREATED_AT.toString());
+        assertThat(first.get("items")).extracting(item -> item.get("productId").asLong()).containsExactly(10L, 11L);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("orderNumber").asText()).isEqualTo(SECOND.toString());
+        assertThat(second.get("items")).isEmpty();
+    }
+
+    @Test
+    void exportCsv_WritesOneRowPerItem() throws Exception {
+        givenLines(line(1L, FIRST, 10L, 2), line(2L, SECOND, null, null));
+
+        var lines = export(Format.CSV).split("\n");
+
+        assertThat(lines).containsExactly(
+                "order_number,user_id,status,total_amount,created_at,product_id,quantity,unit_price,total_price",
+                FIRST + ",7,PENDING,20.00,2024-03-01T12:00:00Z,10,2,10.00,20.00",
+                SECOND + ",7,PENDING,20.00,2024-03-01T12:00:00Z,,,,");
+    }
+
+    @Test
+    void prepareExport_UnknownUser_FailsBeforeWriting() {
+        when(userRepository.existsById(7L)).thenReturn(false);
+
+        assertThatThrownBy(() -> orderExportService.prepareExport(filter(), Format.CSV))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(orderExportRepository);
+    }
+
+    @Test
+    void format_Unknown_ThrowsException() {
+        assertThat(Format.of("csv")).isEqualTo(Format.CSV);
+        assertThatThrownBy(() -> Format.of("xml"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("xml");
+    }
+
+    private String export(Format format) throws Exception {
+        var out = new ByteArrayOutputStream();
+        orderExportService.prepareExport(filter(), format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void givenLines(ResultSet... rows) {
+        when(userRepository.existsById(7L)).thenReturn(true);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(4);
+            for (var row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(orderExportRepository).forEachLine(eq(7L), isNull(), isNull(), isNull(), any());
+    }
+
+    private static OrderSearchRequest filter() {
+        return OrderSearchRequest.builder().userId(7L).build();
+    }
+
+    private static ResultSet line(Long orderId, UUID orderNumber, Long productId, Integer quantity)
+            throws SQLException {
+        var rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(orderId);
+        when(rs.getObject("order_number", UUID.class)).thenReturn(orderNumber);
+        when(rs.getLong("user_id")).thenReturn(7L);
+        when(rs.getString("status")).thenReturn("PENDING");
+        when(rs.getBigDecimal("total_amount")).thenReturn(new BigDecimal("20.00"));
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.from(CREATED_AT));
+        when(rs.getObject("product_id", Long.class)).thenReturn(productId);
+        when(rs.getObject("quantity", Integer.class)).thenReturn(quantity);
+        when(rs.getBigDecimal("unit_price")).thenReturn(productId != null ? new BigDecimal("10.00") : null);
+        when(rs.getBigDecimal("total_price")).thenReturn(productId != null ? new BigDecimal("20.00") : null);
+        return rs;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.OrderSearchCacheProperties;
+import com.example.ordermanagement.dto.OrderDto;
+import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.dto.PageDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderSearchCacheImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final OrderSearchCacheProperties properties = new OrderSearchCacheProperties();
+    private Instant now = Instant.parse("2024-03-01T10:00:00Z");
+
+    private OrderSearchCacheImpl cache;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxEntries(2);
+        properties.setTtl(Duration.ofSeconds(30));
+        var clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        };
+        cache = new OrderSearchCacheImpl(properties, meterRegistry, clock);
+    }
+
+    @Test
+    void get_EquivalentRequestsShareAPage() {
+        var first = cache.get(OrderSearchRequest.builder().userId(1L).build(), loader());
+        var second = cache.get(OrderSearchRequest.builder().userId(1L).page(0).size(20).sortBy("createdAt")
+                .sortDirection("ASC").build(), loader());
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void get_ExpiredPageIsReloaded() {
+        cache.get(request(1L), loader());
+
+        now = now.plusSeconds(31);
+        cache.get(request(1L), loader());
+
+        assertThat(loads).hasValue(2);
+        assertThat(evictions("stale")).isEqualTo(1);
+    }
+
+    @Test
+    void get_LeastRecentlyUsedPageIsEvictedBeyondMaxEntries() {
+        cache.get(request(1L), loader());
+        cache.get(request(2L), loader());
+        cache.get(request(1L), loader());
+        cache.get(request(3L), loader());
+
+        cache.get(request(1L), loader());
+        cache.get(request(2L), loader());
+
+        assertThat(loads).hasValue(4);
+        assertThat(evictions("size")).isEqualTo(2);
+        assertThat(meterRegistry.get("orders.search.cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void get_Disabled_AlwaysLoads() {
+        properties.setEnabled(false);
+
+        cache.get(request(1L), loader());
+        cache.get(request(1L), loader());
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void invalidate_DropsOnlyTheUsersPagesAfterCommit() {
+        cache.get(request(1L), loader());
+        cache.get(request(2L), loader());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(1L);
+            cache.get(request(1L), loader());
+            assertThat(loads).hasValue(2);
+        } finally {
+            commit();
+        }
+
+        cache.get(request(1L), loader());
+        cache.get(request(2L), loader());
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void invalidate_PageLoadedDuringTheChangeIsNotServed() {
+        cache.get(request(1L), () -> {
+            // The change commits while this page is being read
+            cache.invalidate(1L);
+            return loader().get();
+        });
+
+        cache.get(request(1L), loader());
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void purge_RemovesExpiredPages() {
+        cache.get(request(1L), loader());
+        now = now.plusSeconds(10);
+        cache.get(request(2L), loader());
+
+        now = now.plusSeconds(25);
+        cache.purge();
+
+        assertThat(cache.size()).isEqualTo(1);
+        cache.get(request(2L), loader());
+        assertThat(loads).hasValue(2);
+    }
+
+    private Supplier<PageDto<OrderDto>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return PageDto.<OrderDto>builder().items(List.of()).page(0).size(20).build();
+        };
+    }
+
+    private static OrderSearchRequest request(Long userId) {
+        return OrderSearchRequest.builder().userId(userId).build();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("orders.search.cache.gets").tag("result", result).counter().count();
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.get("orders.search.cache.evictions").tag("cause", cause).counter().count();
+    }
+
+    private static void commit() {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+}
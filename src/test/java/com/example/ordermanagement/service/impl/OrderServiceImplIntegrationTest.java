@@ -0,0 +1,390 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.OrderSearchCacheProperties;
+import com.example.ordermanagement.config.SqlStatementCounter;
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderItem;
+import com.example.ordermanagement.domain.model.OrderStatus;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.model.User;
+import com.example.ordermanagement.domain.repository.OrderJdbcRepository;
+import com.example.ordermanagement.domain.repository.OrderRepository;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.domain.repository.UserRepository;
+import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.example.ordermanagement.dto.OrderSearchRequest;
+import com.example.ordermanagement.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+@Import(SqlStatementCounter.class)
+class OrderServiceImplIntegrationTest extends TestContainersConfig {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderJdbcRepository orderJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private OrderSearchCacheProperties orderSearchCacheProperties;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+        productRepository.deleteAll();
+
+        testUser = userRepository.save(User.builder()
+                .username("testuser")
+                .email("test@example.com")
+                .build());
+    }
+
+    @Test
+    void createOrder_LargeCart_LoadsProductsOnceAndReservesWithOneUpdatePerProduct() {
+        var products = createProducts(40, 100);
+        var request = CreateOrderRequest.builder()
+                .userId(testUser.getId())
+                .items(products.stream()
+                        .map(product -> new CreateOrderRequest.OrderItemRequest(product.getId(), 1))
+                        .toList())
+                .build();
+
+        sqlStatementCounter.reset();
+        orderService.createOrder(request);
+
+        assertThat(sqlStatementCounter.statements())
+                .filteredOn(sql -> sql.startsWith("select") && sql.contains(" from products "))
+                .hasSize(1);
+        assertThat(sqlStatementCounter.count("update products")).isEqualTo(40);
+        assertThat(productRepository.findAll())
+                .allSatisfy(product -> assertThat(product.getStockQuantity()).isEqualTo(99));
+    }
+
+    @Test
+    void createOrder_TwentyItems_WritesItemsInOneBatch() {
+        var product = createProducts(1, 100).get(0);
+        var request = CreateOrderRequest.builder()
+                .userId(testUser.getId())
+                .items(Collections.nCopies(20, new CreateOrderRequest.OrderItemRequest(product.getId(), 1)))
+                .build();
+
+        sqlStatementCounter.reset();
+        var order = orderService.createOrder(request);
+
+        assertThat(order.getItems()).hasSize(20);
+        assertThat(sqlStatementCounter.count("insert into orders")).isEqualTo(1);
+        assertThat(sqlStatementCounter.count("insert into order_items")).isEqualTo(1);
+        assertThat(sqlStatementCounter.count("update products")).isEqualTo(1);
+        // At most one id block per table
+        assertThat(sqlStatementCounter.count("select nextval")).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void createOrder_LongOrderHistory_KeepsQueryCountAndLatencyFlat() {
+        var product = createProducts(1, 1_000_000).get(0);
+        var regular = userRepository.save(User.builder()
+                .username("regular")
+                .email("regular@example.com")
+                .build());
+        transactionTemplate.executeWithoutResult(status -> orderJdbcRepository.insertOrders(
+                IntStream.range(0, 10_000)
+                        .mapToObj(i -> Order.builder()
+                                .orderNumber(UUID.randomUUID())
+                                .user(regular)
+                                .status(OrderStatus.DELIVERED)
+                                .totalAmount(BigDecimal.TEN)
+                                .build())
+                        .toList()));
+
+        // Warm up both paths before measuring
+        IntStream.range(0, 20).forEach(i -> {
+            placeOrder(testUser, product);
+            placeOrder(regular, product);
+        });
+
+        var newcomerStatements = orderStatements(() -> placeOrder(testUser, product));
+        var regularStatements = orderStatements(() -> placeOrder(regular, product));
+        assertThat(regularStatements).isEqualTo(newcomerStatements);
+
+        long newcomerNanos = timeOrders(testUser, product, 50);
+        long regularNanos = timeOrders(regular, product, 50);
+        assertThat(regularNanos).isLessThan(newcomerNanos * 3 + Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void searchOrdersByCursor_WalksEveryOrderOnceAcrossTies() {
+        // One batch shares a single created_at, so only the id tie-breaker keeps pages apart
+        transactionTemplate.executeWithoutResult(status -> orderJdbcRepository.insertOrders(
+                IntStream.range(0, 25)
+                        .mapToObj(i -> Order.builder()
+                                .orderNumber(UUID.randomUUID())
+                                .user(testUser)
+                                .status(OrderStatus.PENDING)
+                                .totalAmount(BigDecimal.TEN)
+                                .build())
+                        .toList()));
+        var expected = orderRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt", "id")).stream()
+                .map(Order::getOrderNumber)
+                .toList();
+
+        List<UUID> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var page = orderService.searchOrdersByCursor(OrderSearchRequest.builder()
+                    .userId(testUser.getId())
+                    .sortDirection("desc")
+                    .size(10)
+                    .cursor(cursor)
+                    .build());
+            page.getItems().forEach(order -> walked.add(order.getOrderNumber()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(walked).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void searchOrders_StatementCountIsIndependentOfPageAndCartSize() {
+        var product = createProducts(1, 100).get(0);
+        var occasional = userRepository.save(User.builder()
+                .username("occasional")
+                .email("occasional@example.com")
+                .build());
+        insertOrdersWithItems(occasional, product, 2, 1);
+        insertOrdersWithItems(testUser, product, 30, 8);
+
+        var small = searchStatements(occasional, 2);
+        var large = searchStatements(testUser, 25);
+        var single = searchStatements(testUser, 1);
+
+        assertThat(large).hasSameSizeAs(small).hasSameSizeAs(single);
+        // The id page and one fetch of those orders with their items; products are never loaded
+        assertThat(large).filteredOn(sql -> sql.contains(" from orders ")).hasSize(2);
+        assertThat(large).noneMatch(sql -> sql.contains(" from products ")
+                || (sql.startsWith("select") && sql.contains(" from order_items ")));
+    }
+
+    @Test
+    void searchOrders_CountsOnlyWhenATotalIsRequested() {
+        var product = createProducts(1, 100).get(0);
+        insertOrdersWithItems(testUser, product, 30, 1);
+        var request = OrderSearchRequest.builder().userId(testUser.getId()).size(10);
+
+        sqlStatementCounter.reset();
+        var slice = orderService.searchOrders(request.build());
+        assertThat(slice.isHasNext()).isTrue();
+        assertThat(slice.getTotalElements()).isNull();
+        assertThat(sqlStatementCounter.statements()).noneMatch(sql -> sql.contains("count("));
+
+        var exact = orderService.searchOrders(request.total("exact").build());
+        assertThat(exact.getTotalElements()).isEqualTo(30L);
+        assertThat(exact.getTotalEstimated()).isFalse();
+
+        var estimated = orderService.searchOrders(request.total("estimated").build());
+        assertThat(estimated.getTotalElements()).isGreaterThan(10L);
+        assertThat(estimated.getTotalEstimated()).isTrue();
+    }
+
+    @Test
+    void searchOrders_CachedUntilTheUserPlacesOrCancelsAnOrder() {
+        var product = createProducts(1, 100).get(0);
+        var request = OrderSearchRequest.builder().userId(testUser.getId()).sortDirection("desc").build();
+        orderSearchCacheProperties.setEnabled(true);
+        try {
+            placeOrder(testUser, product);
+            assertThat(orderService.searchOrders(request).getItems()).hasSize(1);
+
+            sqlStatementCounter.reset();
+            assertThat(orderService.searchOrders(request).getItems()).hasSize(1);
+            assertThat(sqlStatementCounter.count()).isZero();
+
+            placeOrder(testUser, product);
+            var page = orderService.searchOrders(request);
+            assertThat(page.getItems()).hasSize(2);
+
+            orderService.cancelOrder(page.getItems().get(0).getOrderNumber());
+            assertThat(orderService.searchOrders(request).getItems().get(0).getStatus())
+                    .isEqualTo(OrderStatus.CANCELLED);
+        } finally {
+            orderSearchCacheProperties.setEnabled(false);
+        }
+    }
+
+    @Test
+    void getOrder_LoadsOrderAndItemsInOneStatement() {
+        var product = createProducts(1, 100).get(0);
+        var order = insertOrdersWithItems(testUser, product, 1, 12).get(0);
+
+        sqlStatementCounter.reset();
+        var dto = orderService.getOrder(order.getOrderNumber());
+
+        assertThat(dto.getItems()).hasSize(12)
+                .allSatisfy(item -> assertThat(item.getProductId()).isEqualTo(product.getId()));
+        assertThat(sqlStatementCounter.statements()).filteredOn(sql -> sql.startsWith("select")).hasSize(1);
+    }
+
+    @Test
+    void createOrder_ConcurrentOverlappingCarts_NeverDeadlock() throws Exception {
+        var products = createProducts(10, 1_000);
+        var ascending = products.stream()
+                .map(product -> new CreateOrderRequest.OrderItemRequest(product.getId(), 1))
+                .toList();
+        var descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+
+        int ordersPerCart = 25;
+        var executor = Executors.newFixedThreadPool(4);
+        var start = new CountDownLatch(1);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            IntStream.range(0, 4).forEach(worker -> tasks.add(() -> {
+                start.await();
+                for (int i = 0; i < ordersPerCart; i++) {
+                    orderService.createOrder(CreateOrderRequest.builder()
+                            .userId(testUser.getId())
+                            .items(worker % 2 == 0 ? ascending : descending)
+                            .build());
+                }
+                return null;
+            }));
+
+            List<Future<Void>> futures = tasks.stream().map(executor::submit).toList();
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(orderRepository.count()).isEqualTo(4L * ordersPerCart);
+        assertThat(productRepository.findAll())
+                .allSatisfy(product -> assertThat(product.getStockQuantity()).isEqualTo(1_000 - 4 * ordersPerCart));
+    }
+
+    private void placeOrder(User user, Product product) {
+        orderService.createOrder(CreateOrderRequest.builder()
+                .userId(user.getId())
+                .items(List.of(new CreateOrderRequest.OrderItemRequest(product.getId(), 1)))
+                .build());
+    }
+
+    /**
+     * Statements run while placing an order, ignoring id block fetches, which depend on where
+     * the sequences happen to be.
+     */
+    private List<String> orderStatements(Runnable placeOrder) {
+        sqlStatementCounter.reset();
+        placeOrder.run();
+        return sqlStatementCounter.statements().stream()
+                .filter(sql -> !sql.startsWith("select nextval"))
+                .toList();
+    }
+
+    /**
+     * Statements run by one search for the user's newest orders, after checking the page is full.
+     */
+    private List<String> searchStatements(User user, int size) {
+        var request = OrderSearchRequest.builder()
+                .userId(user.getId())
+                .sortDirection("desc")
+                .size(size)
+                .build();
+        sqlStatementCounter.reset();
+        var orders = orderService.searchOrders(request);
+        var statements = sqlStatementCounter.statements();
+
+        assertThat(orders.getItems()).hasSize(size);
+        return statements;
+    }
+
+    private List<Order> insertOrdersWithItems(User user, Product product, int count, int itemsPerOrder) {
+        var orders = IntStream.range(0, count)
+                .mapToObj(i -> {
+                    var order = Order.builder()
+                            .orderNumber(UUID.randomUUID())
+                            .user(user)
+                            .status(OrderStatus.PENDING)
+                            .totalAmount(product.getPrice().multiply(BigDecimal.valueOf(itemsPerOrder)))
+                            .build();
+                    IntStream.range(0, itemsPerOrder).forEach(line -> order.addItem(OrderItem.builder()
+                            .product(product)
+                            .quantity(1)
+                            .unitPrice(product.getPrice())
+                            .totalPrice(product.getPrice())
+                            .build()));
+                    return order;
+                })
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            orderJdbcRepository.insertOrders(orders);
+            orderJdbcRepository.insertOrderItems(orders.stream()
+                    .flatMap(order -> order.getItems().stream())
+                    .toList());
+        });
+        return orders;
+    }
+
+    private long timeOrders(User user, Product product, int orders) {
+        long startedAt = System.nanoTime();
+        IntStream.range(0, orders).forEach(i -> placeOrder(user, product));
+        return System.nanoTime() - startedAt;
+    }
+
+    private List<Product> createProducts(int count, int stock) {
+        return productRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> Product.builder()
+                        .name("Product " + i)
+                        .price(BigDecimal.TEN)
+                        .stockQuantity(stock)
+                        .build())
+                .toList());
+    }
+}
@@ -1,36 +1,54 @@
 package com.example.ordermanagement.service.impl;
 
 import com.example.ordermanagement.domain.model.*;
+import com.example.ordermanagement.domain.repository.OrderItemRepository;
 import com.example.ordermanagement.domain.repository.OrderRepository;
+import com.example.ordermanagement.domain.repository.OrderRepositoryCustom.OrderPosition;
 import com.example.ordermanagement.domain.repository.ProductRepository;
 import com.example.ordermanagement.domain.repository.UserRepository;
 import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.example.ordermanagement.dto.OrderDto;
 import com.example.ordermanagement.dto.OrderSearchRequest;
 import com.example.ordermanagement.exception.InsufficientStockException;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
 import com.example.ordermanagement.mapper.OrderItemMapper;
 import com.example.ordermanagement.mapper.OrderMapper;
-import com.example.ordermanagement.service.WebhookService;
+import com.example.ordermanagement.service.InventoryLedgerService;
+import com.example.ordermanagement.service.OrderEventService;
+import com.example.ordermanagement.service.OrderNumberGenerator;
+import com.example.ordermanagement.service.OrderSearchCache;
+import com.example.ordermanagement.service.ProductCatalogCache;
+import com.example.ordermanagement.service.ProductCatalogCache.CatalogProduct;
+import com.example.ordermanagement.service.SalesRollupService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,11 +61,23 @@ class OrderServiceImplTest {
     @Mock
     private ProductRepository productRepository;
     @Mock
-    private WebhookService webhookService;
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private InventoryLedgerService inventoryLedgerService;
+    @Spy
+    private OrderNumberGenerator orderNumberGenerator = new TimeOrderedOrderNumberGenerator();
+    @Mock
+    private OrderEventService orderEventService;
     @Mock
     private OrderMapper orderMapper;
     @Mock
     private OrderItemMapper orderItemMapper;
+    @Mock
+    private OrderSearchCache orderSearchCache;
+    @Mock
+    private SalesRollupService salesRollupService;
+    @Mock
+    private ProductCatalogCache productCatalogCache;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -67,9 +97,11 @@ class OrderServiceImplTest {
         // ID will be set by JPA
 
         testProduct = new Product();
+        testProduct.setId(1L);
         testProduct.setName("Test Product");
         testProduct.setPrice(BigDecimal.valueOf(99.99));
         testProduct.setStockQuantity(10);
+        testProduct.setVersion(3L);
         // ID will be set by JPA
 
         testOrder = new Order();
@@ -84,23 +116,134 @@ class OrderServiceImplTest {
         orderItemRequest.setProductId(1L);
         orderItemRequest.setQuantity(2);
         createOrderRequest.setItems(Collections.singletonList(orderItemRequest));
+
+        lenient().when(orderSearchCache.get(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
     }
 
     @Test
     void createOrder_Success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(productCatalogCache.getAll(any())).thenReturn(Map.of(1L, catalogProduct(testProduct)));
+        when(productRepository.decrementStock(1L, 2)).thenReturn(Optional.of(reserved(testProduct)));
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
 
         orderService.createOrder(createOrderRequest);
 
         verify(orderRepository).save(any(Order.class));
-        verify(webhookService).notifyOrderCreated(any(Order.class));
+        verify(productRepository, never()).save(any(Product.class));
+        verify(orderEventService).record(eq(OrderEventType.ORDER_CREATED), any(Order.class));
+        verify(orderSearchCache).invalidate(1L);
+        verify(salesRollupService).recordCreated(List.of(testOrder));
+    }
+
+    @Test
+    void createOrder_DuplicateLines_DecrementsProductOnce() {
+        createOrderRequest.setItems(List.of(
+                new CreateOrderRequest.OrderItemRequest(1L, 2),
+                new CreateOrderRequest.OrderItemRequest(1L, 3)));
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(productCatalogCache.getAll(any())).thenReturn(Map.of(1L, catalogProduct(testProduct)));
+        when(productRepository.decrementStock(1L, 5)).thenReturn(Optional.of(reserved(testProduct)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.createOrder(createOrderRequest);
+
+        verify(productCatalogCache).getAll(List.of(1L));
+        verify(productRepository).decrementStock(1L, 5);
+        verify(productRepository, times(2)).getReferenceById(1L);
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    void createOrder_ProductChangedSinceCached_PricesLinesFromTheReservedRow() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(productCatalogCache.getAll(any())).thenReturn(Map.of(1L, catalogProduct(testProduct)));
+        // Another node changed the price after the product was cached here
+        var changed = new Product();
+        changed.setId(1L);
+        changed.setName("Test Product");
+        changed.setPrice(BigDecimal.valueOf(79.99));
+        changed.setVersion(5L);
+        when(productRepository.decrementStock(1L, 2)).thenReturn(Optional.of(reserved(changed)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.createOrder(createOrderRequest);
+
+        var savedOrder = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(savedOrder.capture());
+        assertThat(savedOrder.getValue().getItems())
+                .allSatisfy(item -> assertThat(item.getUnitPrice()).isEqualByComparingTo("79.99"));
+        assertThat(savedOrder.getValue().getTotalAmount()).isEqualByComparingTo("159.98");
+        verify(productCatalogCache).put(catalogProduct(changed));
+    }
+
+    @Test
+    void createOrder_DuplicateLinesExceedStock_ThrowsException() {
+        createOrderRequest.setItems(List.of(
+                new CreateOrderRequest.OrderItemRequest(1L, 6),
+                new CreateOrderRequest.OrderItemRequest(1L, 6)));
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(productCatalogCache.getAll(any())).thenReturn(Map.of(1L, catalogProduct(testProduct)));
+        when(productRepository.decrementStock(1L, 12)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> orderService.createOrder(createOrderRequest))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("Test Product");
+    }
+
+    @Test
+    void createOrder_HotProduct_ReservesInLedgerAndDefersStockUpdate() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(productCatalogCache.reloadAll(Set.of(1L))).thenReturn(Map.of(1L, catalogProduct(testProduct)));
+        when(inventoryLedgerService.isManaged(1L)).thenReturn(true);
+        when(inventoryLedgerService.tryReserve(1L, 2)).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.createOrder(createOrderRequest);
+
+        var savedOrder = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(savedOrder.capture());
+        assertThat(savedOrder.getValue().getItems())
+                .allSatisfy(item -> assertThat(item.getStockDeferred()).isTrue());
+        verify(productRepository, never()).decrementStock(any(), anyInt());
+        // The ledger leaves no version to check a cached price against
+        verify(productCatalogCache).getAll(List.of());
+    }
+
+    @Test
+    void createOrder_HotProductSoldOut_ThrowsException() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(productCatalogCache.reloadAll(Set.of(1L))).thenReturn(Map.of(1L, catalogProduct(testProduct)));
+        when(inventoryLedgerService.isManaged(1L)).thenReturn(true);
+        when(inventoryLedgerService.tryReserve(1L, 2)).thenReturn(false);
+
+        assertThatThrownBy(() -> orderService.createOrder(createOrderRequest))
+                .isInstanceOf(InsufficientStockException.class);
+    }
+
+    @Test
+    void createOrder_ProductNotFound_ThrowsException() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(productCatalogCache.getAll(any())).thenReturn(Map.of());
+
+        assertThatThrownBy(() -> orderService.createOrder(createOrderRequest))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Product not found");
     }
 
     @Test
     void createOrder_UserNotFound_ThrowsException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
 
         assertThatThrownBy(() -> orderService.createOrder(createOrderRequest))
                 .isInstanceOf(EntityNotFoundException.class)
@@ -109,13 +252,16 @@ class OrderServiceImplTest {
 
     @Test
     void createOrder_InsufficientStock_ThrowsException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         
         var productWithLowStock = new Product();
+        productWithLowStock.setId(1L);
         productWithLowStock.setStockQuantity(1);
         // Other product properties...
         
-        when(productRepository.findById(1L)).thenReturn(Optional.of(productWithLowStock));
+        when(productCatalogCache.getAll(any())).thenReturn(Map.of(1L, catalogProduct(productWithLowStock)));
+        when(productRepository.decrementStock(1L, 2)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderService.createOrder(createOrderRequest))
                 .isInstanceOf(InsufficientStockException.class)
@@ -124,15 +270,60 @@ class OrderServiceImplTest {
 
     @Test
     void cancelOrder_Success() {
+        testUser.setId(1L);
         when(orderRepository.findByOrderNumber(orderNumber)).thenReturn(Optional.of(testOrder));
 
         orderService.cancelOrder(orderNumber);
 
         verify(orderRepository).save(any(Order.class));
-        verify(webhookService).notifyOrderCancelled(any(Order.class));
+        verify(orderEventService).record(eq(OrderEventType.ORDER_CANCELLED), any(Order.class));
+        verify(orderSearchCache).invalidate(1L);
+        verify(salesRollupService).recordStatusChange(testOrder, OrderStatus.PENDING);
         assertThat(testOrder.getStatus()).isEqualTo(OrderStatus.CANCELLED);
     }
 
+    @Test
+    void cancelOrder_RestoresStockWithAtomicIncrement() {
+        testOrder.addItem(OrderItem.builder().product(testProduct).quantity(2).build());
+        testOrder.addItem(OrderItem.builder().product(testProduct).quantity(3).build());
+        when(orderRepository.findByOrderNumber(orderNumber)).thenReturn(Optional.of(testOrder));
+
+        orderService.cancelOrder(orderNumber);
+
+        verify(productRepository).incrementStock(1L, 5);
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void cancelOrder_UnflushedDeferredLine_ReleasesThroughLedgerOnly() {
+        var item = OrderItem.builder().product(testProduct).quantity(2).stockDeferred(true).build();
+        item.setId(7L);
+        testOrder.addItem(item);
+        when(orderRepository.findByOrderNumber(orderNumber)).thenReturn(Optional.of(testOrder));
+        when(orderItemRepository.clearStockDeferred(7L)).thenReturn(1);
+        when(inventoryLedgerService.isManaged(1L)).thenReturn(true);
+
+        orderService.cancelOrder(orderNumber);
+
+        verify(inventoryLedgerService).release(1L, 2);
+        verify(productRepository, never()).incrementStock(any(), anyInt());
+    }
+
+    @Test
+    void cancelOrder_FlushedDeferredLine_RestoresStockAndReleasesThroughLedger() {
+        var item = OrderItem.builder().product(testProduct).quantity(2).stockDeferred(true).build();
+        item.setId(7L);
+        testOrder.addItem(item);
+        when(orderRepository.findByOrderNumber(orderNumber)).thenReturn(Optional.of(testOrder));
+        when(orderItemRepository.clearStockDeferred(7L)).thenReturn(0);
+        when(inventoryLedgerService.isManaged(1L)).thenReturn(true);
+
+        orderService.cancelOrder(orderNumber);
+
+        verify(productRepository).incrementStock(1L, 2);
+        verify(inventoryLedgerService).release(1L, 2);
+    }
+
     @Test
     void cancelOrder_OrderNotFound_ThrowsException() {
         when(orderRepository.findByOrderNumber(orderNumber)).thenReturn(Optional.empty());
@@ -148,13 +339,122 @@ class OrderServiceImplTest {
         searchRequest.setUserId(1L);
         
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(orderRepository.findAll(any(Specification.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(Collections.singletonList(testOrder)));
+        when(orderRepository.findIds(any(Specification.class), any(Sort.class), eq(0L), eq(21)))
+                .thenReturn(List.of(1L));
+        when(orderRepository.findDtosByIdIn(List.of(1L))).thenReturn(List.of(dto(testOrder)));
 
         var result = orderService.searchOrders(searchRequest);
 
-        assertThat(result).isNotEmpty();
-        verify(orderRepository).findAll(any(Specification.class), any(Pageable.class));
+        assertThat(result.getItems()).isNotEmpty();
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getTotalElements()).isNull();
+        verify(orderRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verify(orderRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void searchOrders_SkipsToOffsetAndBreaksTiesOnId() {
+        var searchRequest = OrderSearchRequest.builder().userId(1L).page(2).size(3).sortBy("totalAmount").build();
+        var orders = List.of(dto(order(30L, 3)), dto(order(10L, 1)), dto(order(20L, 2)));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(orderRepository.findIds(any(Specification.class), any(Sort.class), eq(6L), eq(4)))
+                .thenReturn(List.of(30L, 10L, 20L, 40L));
+        when(orderRepository.findDtosByIdIn(List.of(30L, 10L, 20L))).thenReturn(orders);
+
+        var result = orderService.searchOrders(searchRequest);
+
+        assertThat(result.getItems()).isEqualTo(orders);
+        assertThat(result.getPage()).isEqualTo(2);
+        assertThat(result.getSize()).isEqualTo(3);
+        assertThat(result.isHasNext()).isTrue();
+        var sort = ArgumentCaptor.forClass(Sort.class);
+        verify(orderRepository).findIds(any(Specification.class), sort.capture(), eq(6L), eq(4));
+        assertThat(sort.getValue()).containsExactly(Sort.Order.asc("totalAmount"), Sort.Order.asc("id"));
+    }
+
+    @Test
+    void searchOrders_ExactTotal_CountsOnlyWhenAsked() {
+        var searchRequest = OrderSearchRequest.builder().userId(1L).size(2).total("exact").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(orderRepository.findIds(any(Specification.class), any(Sort.class), eq(0L), eq(3)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(orderRepository.count(any(Specification.class))).thenReturn(42L);
+
+        var result = orderService.searchOrders(searchRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(42L);
+        assertThat(result.getTotalEstimated()).isFalse();
+    }
+
+    @Test
+    void searchOrders_EstimatedTotal_UsesPlannerEstimateButNeverLessThanSeen() {
+        var searchRequest = OrderSearchRequest.builder().userId(1L).page(1).size(2).status("PENDING")
+                .total("estimated").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(orderRepository.findIds(any(Specification.class), any(Sort.class), eq(2L), eq(3)))
+                .thenReturn(List.of(3L, 4L, 5L));
+        when(orderRepository.estimateCount(1L, "PENDING", null, null)).thenReturn(1L);
+
+        var result = orderService.searchOrders(searchRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(5L);
+        assertThat(result.getTotalEstimated()).isTrue();
+        verify(orderRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void searchOrders_LastPage_KnowsExactTotalWithoutCounting() {
+        var searchRequest = OrderSearchRequest.builder().userId(1L).page(3).size(10).total("estimated").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(orderRepository.findIds(any(Specification.class), any(Sort.class), eq(30L), eq(11)))
+                .thenReturn(List.of(31L, 32L));
+        when(orderRepository.findDtosByIdIn(List.of(31L, 32L)))
+                .thenReturn(List.of(dto(order(31L, 1)), dto(order(32L, 2))));
+
+        var result = orderService.searchOrders(searchRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(32L);
+        assertThat(result.getTotalEstimated()).isFalse();
+        verify(orderRepository, never()).count(any(Specification.class));
+        verify(orderRepository, never()).estimateCount(any(), any(), any(), any());
+    }
+
+    @Test
+    void searchOrders_PagePastTheEnd_FallsBackToCounting() {
+        var searchRequest = OrderSearchRequest.builder().userId(1L).page(9).size(10).total("exact").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(orderRepository.findIds(any(Specification.class), any(Sort.class), eq(90L), eq(11)))
+                .thenReturn(List.of());
+        when(orderRepository.count(any(Specification.class))).thenReturn(32L);
+
+        var result = orderService.searchOrders(searchRequest);
+
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getTotalElements()).isEqualTo(32L);
+        assertThat(result.getTotalEstimated()).isFalse();
+    }
+
+    @Test
+    void searchOrders_PagePastTheEnd_EstimatesWithoutAssumingMoreOrders() {
+        var searchRequest = OrderSearchRequest.builder().userId(1L).page(9).size(10).total("estimated").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(orderRepository.findIds(any(Specification.class), any(Sort.class), eq(90L), eq(11)))
+                .thenReturn(List.of());
+        when(orderRepository.estimateCount(1L, null, null, null)).thenReturn(30L);
+
+        var result = orderService.searchOrders(searchRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(30L);
+        assertThat(result.getTotalEstimated()).isTrue();
+    }
+
+    @Test
+    void searchOrders_UnknownTotal_ThrowsException() {
+        var searchRequest = OrderSearchRequest.builder().userId(1L).total("approximate").build();
+
+        assertThatThrownBy(() -> orderService.searchOrders(searchRequest))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
@@ -168,4 +468,140 @@ class OrderServiceImplTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("User not found");
     }
-} 
\ No newline at end of file
+
+    @Test
+    void searchOrdersByCursor_FullPage_ReturnsCursorOfLastOrder() {
+        var request = OrderSearchRequest.builder().userId(1L).size(2).sortDirection("desc").build();
+        var orders = List.of(order(30L, 3), order(20L, 2));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(orderRepository.findPositions(any(Specification.class), any(Sort.class), eq(3)))
+                .thenReturn(List.of(position(orders.get(0)), position(orders.get(1)), position(order(10L, 1))));
+        when(orderRepository.findDtosByIdIn(List.of(30L, 20L)))
+                .thenReturn(orders.stream().map(OrderServiceImplTest::dto).toList());
+
+        var page = orderService.searchOrdersByCursor(request);
+
+        assertThat(page.getItems()).extracting(OrderDto::getOrderNumber)
+                .containsExactly(orders.get(0).getOrderNumber(), orders.get(1).getOrderNumber());
+        assertThat(OrderCursor.decode(page.getNextCursor())).isEqualTo(OrderCursor.of(orders.get(1)));
+        verify(orderRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchOrdersByCursor_LastOrderDeletedMeanwhile_CursorStillMovesPastIt() {
+        var request = OrderSearchRequest.builder().userId(1L).size(2).build();
+        var orders = List.of(order(10L, 1), order(20L, 2));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(orderRepository.findPositions(any(Specification.class), any(Sort.class), eq(3)))
+                .thenReturn(List.of(position(orders.get(0)), position(orders.get(1)), position(order(30L, 3))));
+        when(orderRepository.findDtosByIdIn(List.of(10L, 20L))).thenReturn(List.of(dto(orders.get(0))));
+
+        var page = orderService.searchOrdersByCursor(request);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(OrderCursor.decode(page.getNextCursor())).isEqualTo(OrderCursor.of(orders.get(1)));
+    }
+
+    @Test
+    void searchOrdersByCursor_LastPage_HasNoCursor() {
+        var request = OrderSearchRequest.builder().userId(1L).size(2).cursor(OrderCursor.of(order(40L, 4)).encode())
+                .build();
+        var order = order(50L, 5);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(orderRepository.findPositions(any(Specification.class), any(Sort.class), eq(3)))
+                .thenReturn(List.of(position(order)));
+        when(orderRepository.findDtosByIdIn(List.of(50L))).thenReturn(List.of(dto(order)));
+
+        var page = orderService.searchOrdersByCursor(request);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void searchOrdersByCursor_UnindexedSortKey_ThrowsException() {
+        var request = OrderSearchRequest.builder().userId(1L).sortBy("totalAmount").build();
+
+        assertThatThrownBy(() -> orderService.searchOrdersByCursor(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("createdAt");
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void searchOrdersByCursor_InvalidCursor_ThrowsException() {
+        var request = OrderSearchRequest.builder().userId(1L).cursor("not-a-cursor").build();
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> orderService.searchOrdersByCursor(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void orderCursor_RoundTripsCreationTimeAndId() {
+        var cursor = new OrderCursor(Instant.parse("2024-03-01T12:00:00.123456Z"), 42L);
+
+        assertThat(OrderCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    private Order order(Long id, long minute) {
+        var order = Order.builder()
+                .orderNumber(UUID.randomUUID())
+                .user(testUser)
+                .status(OrderStatus.PENDING)
+                .totalAmount(BigDecimal.TEN)
+                .build();
+        order.setId(id);
+        order.setCreatedAt(Instant.parse("2024-03-01T12:00:00Z").plusSeconds(minute * 60));
+        return order;
+    }
+
+    private static OrderPosition position(Order order) {
+        return new OrderPosition(order.getId(), order.getCreatedAt());
+    }
+
+    private static OrderDto dto(Order order) {
+        return OrderDto.builder()
+                .orderNumber(order.getOrderNumber())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .items(List.of())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+
+    private static ProductRepository.CatalogAttributes reserved(Product product) {
+        return new ProductRepository.CatalogAttributes() {
+            @Override
+            public Long getId() {
+                return product.getId();
+            }
+
+            @Override
+            public String getName() {
+                return product.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return product.getDescription();
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return product.getPrice();
+            }
+
+            @Override
+            public Long getVersion() {
+                return product.getVersion();
+            }
+        };
+    }
+
+    private static CatalogProduct catalogProduct(Product product) {
+        return new CatalogProduct(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getVersion());
+    }
+}
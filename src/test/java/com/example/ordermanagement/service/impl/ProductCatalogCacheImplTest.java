@@ -0,0 +1,261 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.ProductCatalogCacheProperties;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.domain.repository.ProductRepository.CatalogAttributes;
+import com.example.ordermanagement.service.ProductCatalogCache.CatalogProduct;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogCacheImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProductCatalogCacheProperties properties = new ProductCatalogCacheProperties();
+    private final AtomicReference<BigDecimal> price = new AtomicReference<>(BigDecimal.TEN);
+    private final AtomicLong version = new AtomicLong();
+    private Instant now = Instant.parse("2024-03-01T10:00:00Z");
+
+    private ProductCatalogCacheImpl cache;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxEntries(2);
+        properties.setTtl(Duration.ofMinutes(10));
+        var clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        };
+        cache = new ProductCatalogCacheImpl(productRepository, properties, meterRegistry, clock);
+        when(productRepository.findCatalogAttributes(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .filter(id -> id < 100)
+                        .map(id -> attributes(id, price.get(), version.get()))
+                        .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getAll_LoadsOnlyTheMissingProductsWithOneQuery() {
+        cache.get(1L, 0);
+
+        var products = cache.getAll(List.of(1L, 2L, 100L));
+
+        assertThat(products).containsOnlyKeys(1L, 2L);
+        verify(productRepository).findCatalogAttributes(List.of(1L));
+        verify(productRepository).findCatalogAttributes(List.of(2L, 100L));
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(3);
+        assertThat(meterRegistry.get("products.catalog.cache.hit.ratio").gauge().value()).isEqualTo(0.25);
+    }
+
+    @Test
+    void get_MissingProductIsNotCached() {
+        assertThat(cache.get(100L, 0)).isEmpty();
+        assertThat(cache.get(100L, 0)).isEmpty();
+
+        verify(productRepository, times(2)).findCatalogAttributes(anyCollection());
+    }
+
+    @Test
+    void get_LeastRecentlyUsedProductIsEvictedBeyondMaxEntries() {
+        cache.get(1L, 0);
+        cache.get(2L, 0);
+        cache.get(1L, 0);
+        cache.get(3L, 0);
+
+        cache.get(1L, 0);
+        cache.get(2L, 0);
+
+        verify(productRepository, times(4)).findCatalogAttributes(anyCollection());
+        assertThat(evictions("size")).isEqualTo(2);
+        assertThat(meterRegistry.get("products.catalog.cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void get_ExpiredProductIsReloaded() {
+        cache.get(1L, 0);
+
+        now = now.plus(Duration.ofMinutes(10));
+        price.set(BigDecimal.ONE);
+
+        assertThat(cache.get(1L, 0)).hasValueSatisfying(product -> assertThat(product.price()).isEqualTo("1"));
+        assertThat(evictions("stale")).isEqualTo(1);
+    }
+
+    @Test
+    void get_ProductChangedOnAnotherNode_IsReloadedForTheNewerVersion() {
+        cache.get(1L, 0);
+        price.set(BigDecimal.ONE);
+        version.set(1);
+
+        assertThat(cache.get(1L, 0)).hasValueSatisfying(product -> assertThat(product.price()).isEqualTo("10"));
+        assertThat(cache.get(1L, 1)).hasValueSatisfying(product -> assertThat(product.price()).isEqualTo("1"));
+        assertThat(cache.get(1L, 1)).hasValueSatisfying(product -> assertThat(product.version()).isEqualTo(1L));
+        verify(productRepository, times(2)).findCatalogAttributes(anyCollection());
+        assertThat(evictions("stale")).isEqualTo(1);
+    }
+
+    @Test
+    void reloadAll_IgnoresTheCachedCopyAndCachesWhatItRead() {
+        cache.get(1L, 0);
+        price.set(BigDecimal.ONE);
+
+        var reloaded = cache.reloadAll(List.of(1L, 100L));
+
+        assertThat(reloaded).containsOnlyKeys(1L);
+        assertThat(reloaded.get(1L).price()).isEqualTo("1");
+        assertThat(cache.get(1L, 0)).hasValueSatisfying(product -> assertThat(product.price()).isEqualTo("1"));
+        verify(productRepository, times(2)).findCatalogAttributes(anyCollection());
+    }
+
+    @Test
+    void put_CachesTheWrittenProductOnlyAfterCommit() {
+        cache.get(1L, 0);
+        var written = new CatalogProduct(1L, "Product 1", null, BigDecimal.ONE, 2L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.put(written);
+        assertThat(cache.get(1L, 0)).hasValueSatisfying(cached -> assertThat(cached.price()).isEqualTo("10"));
+        commit();
+
+        assertThat(cache.get(1L, 2)).hasValue(written);
+        verify(productRepository, times(1)).findCatalogAttributes(anyCollection());
+    }
+
+    @Test
+    void put_NeverReplacesANewerVersion() {
+        version.set(3);
+        cache.get(1L, 0);
+
+        cache.put(new CatalogProduct(1L, "Product 1", null, BigDecimal.ONE, 2L));
+
+        assertThat(cache.get(1L, 0)).hasValueSatisfying(cached -> assertThat(cached.version()).isEqualTo(3L));
+    }
+
+    @Test
+    void invalidate_DropsTheProductAfterCommit() {
+        cache.get(1L, 0);
+        price.set(BigDecimal.ONE);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate(1L);
+        assertThat(cache.get(1L, 0)).hasValueSatisfying(product -> assertThat(product.price()).isEqualTo("10"));
+        commit();
+
+        assertThat(cache.get(1L, 0)).hasValueSatisfying(product -> assertThat(product.price()).isEqualTo("1"));
+    }
+
+    @Test
+    void invalidate_ProductLoadedDuringTheChangeIsNotCached() {
+        when(productRepository.findCatalogAttributes(anyCollection())).thenAnswer(invocation -> {
+            // The price change commits while the old price is being read
+            var loaded = List.of(attributes(1L, price.get(), version.get()));
+            price.set(BigDecimal.ONE);
+            cache.invalidate(1L);
+            return loaded;
+        }).thenAnswer(invocation -> List.of(attributes(1L, price.get(), version.get())));
+
+        assertThat(cache.get(1L, 0)).hasValueSatisfying(product -> assertThat(product.price()).isEqualTo("10"));
+        assertThat(cache.get(1L, 0)).hasValueSatisfying(product -> assertThat(product.price()).isEqualTo("1"));
+    }
+
+    @Test
+    void get_Disabled_AlwaysLoads() {
+        properties.setEnabled(false);
+
+        cache.get(1L, 0);
+        cache.get(1L, 0);
+
+        verify(productRepository, times(2)).findCatalogAttributes(List.of(1L));
+        assertThat(cache.size()).isZero();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("products.catalog.cache.gets").tag("result", result).counter().count();
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.get("products.catalog.cache.evictions").tag("cause", cause).counter().count();
+    }
+
+    private static void commit() {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static CatalogAttributes attributes(Long id, BigDecimal price, Long version) {
+        return new CatalogAttributes() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return "Product " + id;
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return price;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
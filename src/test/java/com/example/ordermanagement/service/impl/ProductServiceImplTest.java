@@ -2,24 +2,31 @@ package com.example.ordermanagement.service.impl;
 
 import com.example.ordermanagement.domain.model.Product;
 import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.domain.repository.ProductSearchRepository;
 import com.example.ordermanagement.dto.CreateProductRequest;
 import com.example.ordermanagement.dto.ProductDto;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
 import com.example.ordermanagement.mapper.ProductMapper;
+import com.example.ordermanagement.service.InventoryLedgerService;
+import com.example.ordermanagement.service.ProductCatalogCache;
+import com.example.ordermanagement.service.ProductCatalogCache.CatalogProduct;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +35,18 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchRepository productSearchRepository;
+
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private InventoryLedgerService inventoryLedgerService;
+
+    @Mock
+    private ProductCatalogCache productCatalogCache;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -71,24 +87,27 @@ class ProductServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.getName()).isEqualTo(testProduct.getName());
         verify(productRepository).save(any(Product.class));
+        verify(productCatalogCache).invalidate(1L);
     }
 
     @Test
-    void getProduct_Success() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productMapper.toDto(testProduct)).thenReturn(testProductDto);
+    void getProduct_CatalogFromCacheAndStockFromDatabase() {
+        when(productRepository.findStockLevelById(1L)).thenReturn(Optional.of(stockLevel(7, 4L)));
+        when(productCatalogCache.get(1L, 4L)).thenReturn(Optional.of(new CatalogProduct(1L, "Test Product", null,
+                BigDecimal.valueOf(99.99), 4L)));
 
         var result = productService.getProduct(1L);
 
-        assertThat(result).isNotNull();
         assertThat(result.getName()).isEqualTo(testProduct.getName());
         assertThat(result.getPrice()).isEqualTo(testProduct.getPrice());
-        assertThat(result.getStockQuantity()).isEqualTo(testProduct.getStockQuantity());
+        assertThat(result.getStockQuantity()).isEqualTo(7);
+        assertThat(result.getVersion()).isEqualTo(4L);
+        verify(productRepository, never()).findById(any());
     }
 
     @Test
     void getProduct_NotFound_ThrowsException() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findStockLevelById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> productService.getProduct(1L))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -96,28 +115,91 @@ class ProductServiceImplTest {
     }
 
     @Test
-    void getAllProducts_Success() {
+    void getProductVersion_ReadsOnlyTheVersion() {
+        when(productRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        assertThat(productService.getProductVersion(1L)).isEqualTo(3L);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void getProductVersion_NotFound_ThrowsException() {
+        when(productRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.getProductVersion(1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void searchProducts_NoTextMatch_FallsBackToFuzzyAndKeepsItInTheCursor() {
+        when(productSearchRepository.searchText("lether", null, null, 2)).thenReturn(List.of());
+        when(productSearchRepository.searchFuzzy("lether", null, null, 2))
+                .thenReturn(List.of(new ProductSearchRepository.Hit(testProductDto, 0.25f),
+                        new ProductSearchRepository.Hit(ProductDto.builder().id(2L).build(), 0.5f)));
+
+        var result = productService.searchProducts("lether", null, 1);
+
+        assertThat(result.getItems()).containsExactly(testProductDto);
+        assertThat(ProductSearchCursor.decode(result.getNextCursor()))
+                .isEqualTo(new ProductSearchCursor(true, 0.25f, 1L));
+    }
+
+    @Test
+    void searchProducts_CursorContinuesAfterTheLastProduct() {
+        var cursor = new ProductSearchCursor(false, 0.1f, 1L).encode();
+        when(productSearchRepository.searchText("leather", 0.1f, 1L, 21))
+                .thenReturn(List.of(new ProductSearchRepository.Hit(testProductDto, 0.05f)));
+
+        var result = productService.searchProducts("leather", cursor, null);
+
+        assertThat(result.getItems()).containsExactly(testProductDto);
+        assertThat(result.getNextCursor()).isNull();
+        verify(productSearchRepository, never()).searchFuzzy(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void searchProducts_BlankQuery_ThrowsException() {
+        assertThatThrownBy(() -> productService.searchProducts(" ", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(productSearchRepository);
+    }
+
+    @Test
+    void getProducts_FullPage_ReturnsCursorAfterItsLastProduct() {
         var product2 = new Product();
+        product2.setId(2L);
         product2.setName("Test Product 2");
         product2.setPrice(BigDecimal.valueOf(199.99));
         product2.setStockQuantity(20);
 
-        var productDto2 = ProductDto.builder()
-                .id(2L)
-                .name("Test Product 2")
-                .price(BigDecimal.valueOf(199.99))
-                .stockQuantity(20)
-                .build();
-
-        when(productRepository.findAll()).thenReturn(Arrays.asList(testProduct, product2));
+        when(productRepository.findByIdGreaterThanOrderById(0L, Limit.of(2)))
+                .thenReturn(Arrays.asList(testProduct, product2));
         when(productMapper.toDto(testProduct)).thenReturn(testProductDto);
-        when(productMapper.toDto(product2)).thenReturn(productDto2);
 
-        var result = productService.getAllProducts();
+        var result = productService.getProducts(null, 1);
 
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getName()).isEqualTo(testProduct.getName());
-        assertThat(result.get(1).getName()).isEqualTo(product2.getName());
+        assertThat(result.getItems()).containsExactly(testProductDto);
+        assertThat(result.getNextCursor()).isEqualTo(new IdCursor(1L).encode());
+    }
+
+    @Test
+    void getProducts_LastPage_HasNoCursor() {
+        when(productRepository.findByIdGreaterThanOrderById(1L, Limit.of(51))).thenReturn(List.of());
+
+        var result = productService.getProducts(new IdCursor(1L).encode(), null);
+
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getProducts_InvalidArguments_ThrowsException() {
+        assertThatThrownBy(() -> productService.getProducts(null, ProductServiceImpl.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.getProducts("not a cursor", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        verifyNoInteractions(productRepository);
     }
 
     @Test
@@ -149,6 +231,34 @@ class ProductServiceImplTest {
         verify(productRepository).save(any(Product.class));
     }
 
+    @Test
+    void updatePrice_InvalidatesTheCachedProduct() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(testProduct)).thenReturn(testProduct);
+        when(productMapper.toDto(testProduct)).thenReturn(testProductDto);
+
+        productService.updatePrice(1L, BigDecimal.valueOf(79.99));
+
+        assertThat(testProduct.getPrice()).isEqualByComparingTo("79.99");
+        verify(productCatalogCache).invalidate(1L);
+    }
+
+    @Test
+    void updatePrice_NotFound_ThrowsException() {
+        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.updatePrice(1L, BigDecimal.ONE))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(productCatalogCache);
+    }
+
+    @Test
+    void updatePrice_NotPositive_ThrowsException() {
+        assertThatThrownBy(() -> productService.updatePrice(1L, BigDecimal.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(productRepository, productCatalogCache);
+    }
+
     @Test
     void deleteProduct_Success() {
         when(productRepository.existsById(1L)).thenReturn(true);
@@ -156,6 +266,7 @@ class ProductServiceImplTest {
         productService.deleteProduct(1L);
 
         verify(productRepository).deleteById(1L);
+        verify(productCatalogCache).invalidate(1L);
     }
 
     @Test
@@ -166,4 +277,18 @@ class ProductServiceImplTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Product not found");
     }
+
+    private static ProductRepository.StockLevel stockLevel(Integer stockQuantity, Long version) {
+        return new ProductRepository.StockLevel() {
+            @Override
+            public Integer getStockQuantity() {
+                return stockQuantity;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
 } 
\ No newline at end of file
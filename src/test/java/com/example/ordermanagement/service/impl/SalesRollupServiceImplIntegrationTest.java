@@ -0,0 +1,212 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.SalesRollupProperties;
+import com.example.ordermanagement.config.TestContainersConfig;
+import com.example.ordermanagement.domain.model.OrderStatus;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.model.User;
+import com.example.ordermanagement.domain.repository.OrderRepository;
+import com.example.ordermanagement.domain.repository.ProductRepository;
+import com.example.ordermanagement.domain.repository.UserRepository;
+import com.example.ordermanagement.dto.CreateOrderRequest;
+import com.example.ordermanagement.dto.RevenueRowDto;
+import com.example.ordermanagement.service.OrderBatchService;
+import com.example.ordermanagement.service.OrderService;
+import com.example.ordermanagement.service.SalesRollupService;
+import com.example.ordermanagement.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+class SalesRollupServiceImplIntegrationTest extends TestContainersConfig {
+    private static final String EXPECTED_BY_STATUS = """
+            SELECT o.status, COUNT(*) AS order_count,
+                   SUM((SELECT SUM(i.quantity) FROM order_items i WHERE i.order_id = o.id)) AS units,
+                   SUM(o.total_amount) AS revenue
+            FROM orders o
+            GROUP BY o.status
+            ORDER BY o.status
+            """;
+
+    private static final String EXPECTED_BY_PRODUCT = """
+            SELECT i.product_id, COUNT(DISTINCT o.id) AS order_count, SUM(i.quantity) AS units,
+                   SUM(i.total_price) AS revenue
+            FROM orders o
+                     JOIN order_items i ON i.order_id = o.id
+            GROUP BY i.product_id
+            ORDER BY revenue DESC, i.product_id
+            """;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesRollupProperties salesRollupProperties;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    private List<User> users;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+        productRepository.deleteAll();
+        jdbcTemplate.execute("DELETE FROM sales_rollups");
+        jdbcTemplate.execute("DELETE FROM product_sales_rollups");
+
+        users = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> userRepository.save(User.builder()
+                        .username("rollup" + i)
+                        .email("rollup" + i + "@example.com")
+                        .build()))
+                .toList();
+        products = IntStream.rangeClosed(1, 4)
+                .mapToObj(i -> productRepository.save(Product.builder()
+                        .name("Product " + i)
+                        .price(BigDecimal.valueOf(i * 5L + 0.25))
+                        .stockQuantity(1_000)
+                        .build()))
+                .toList();
+    }
+
+    @Test
+    void rollups_MatchTheOrdersAsTheyChangeAndAfterARebuild() {
+        var cancelled = orderService.createOrder(order(users.get(0), 0, 1, 1, 2));
+        orderService.createOrder(order(users.get(1), 3));
+        orderService.createOrder(order(users.get(2), 0, 3, 3));
+        orderBatchService.createOrders(IntStream.range(0, 30)
+                .mapToObj(i -> order(users.get(i % 3), i % 4, (i + 1) % 4))
+                .toList());
+        orderService.cancelOrder(cancelled.getOrderNumber());
+
+        assertMatchesOrders();
+
+        userService.deleteUser(users.get(1).getId());
+        assertMatchesOrders();
+
+        jdbcTemplate.update("UPDATE sales_rollups SET revenue = revenue + 1000");
+        salesRollupProperties.setRebuildChunkSize(4);
+        try {
+            salesRollupService.rebuild();
+        } finally {
+            salesRollupProperties.setRebuildChunkSize(100_000);
+        }
+        assertMatchesOrders();
+
+        orderService.createOrder(order(users.get(0), 2));
+        assertMatchesOrders();
+    }
+
+    @Test
+    void rebuild_OrdersWrittenMeanwhile_AreNeitherLostNorCountedTwice() throws Exception {
+        orderBatchService.createOrders(IntStream.range(0, 40)
+                .mapToObj(i -> order(users.get(i % 3), i % 4))
+                .toList());
+        jdbcTemplate.update("UPDATE product_sales_rollups SET units = units + 7");
+
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var writes = executor.submit(() -> IntStream.range(0, 20)
+                    .forEach(i -> orderService.createOrder(order(users.get(i % 3), i % 4, (i + 2) % 4))));
+            salesRollupProperties.setRebuildChunkSize(2);
+            try {
+                salesRollupService.rebuild();
+            } finally {
+                salesRollupProperties.setRebuildChunkSize(100_000);
+            }
+            writes.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertMatchesOrders();
+    }
+
+    @Test
+    void getRevenue_ByDay_CountsOrdersOfTheRange() {
+        orderService.createOrder(order(users.get(0), 0, 1));
+        orderService.createOrder(order(users.get(1), 1));
+
+        assertThat(salesRollupService.getRevenue(today, today, null, "day", null))
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row.getDay()).isEqualTo(today);
+                    assertThat(row.getOrderCount()).isEqualTo(2);
+                    assertThat(row.getUnits()).isEqualTo(3);
+                });
+        assertThat(salesRollupService.getRevenue(today.plusDays(1), today.plusDays(7), null, "day", null))
+                .isEmpty();
+    }
+
+    private void assertMatchesOrders() {
+        var byStatus = jdbcTemplate.query(EXPECTED_BY_STATUS, (rs, rowNum) -> RevenueRowDto.builder()
+                .status(OrderStatus.valueOf(rs.getString("status")))
+                .orderCount(rs.getLong("order_count"))
+                .units(rs.getLong("units"))
+                .revenue(rs.getBigDecimal("revenue"))
+                .build());
+        var byProduct = jdbcTemplate.query(EXPECTED_BY_PRODUCT, (rs, rowNum) -> RevenueRowDto.builder()
+                .productId(rs.getLong("product_id"))
+                .orderCount(rs.getLong("order_count"))
+                .units(rs.getLong("units"))
+                .revenue(rs.getBigDecimal("revenue"))
+                .build());
+
+        assertThat(salesRollupService.getRevenue(today.minusDays(1), today.plusDays(1), null, "status", null))
+                .usingRecursiveFieldByFieldElementComparator()
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactlyElementsOf(byStatus);
+        assertThat(salesRollupService.getRevenue(today.minusDays(1), today.plusDays(1), null, "product", 100))
+                .usingRecursiveFieldByFieldElementComparator()
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactlyElementsOf(byProduct);
+    }
+
+    private CreateOrderRequest order(User user, int... productIndexes) {
+        return CreateOrderRequest.builder()
+                .userId(user.getId())
+                .items(IntStream.of(productIndexes)
+                        .mapToObj(i -> new CreateOrderRequest.OrderItemRequest(products.get(i).getId(), i + 1))
+                        .toList())
+                .build();
+    }
+}
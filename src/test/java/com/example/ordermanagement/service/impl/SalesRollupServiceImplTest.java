@@ -0,0 +1,170 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.SalesRollupProperties;
+import com.example.ordermanagement.domain.model.Order;
+import com.example.ordermanagement.domain.model.OrderItem;
+import com.example.ordermanagement.domain.model.OrderStatus;
+import com.example.ordermanagement.domain.model.Product;
+import com.example.ordermanagement.domain.repository.SalesRollupRepository;
+import com.example.ordermanagement.domain.repository.SalesRollupRepository.ProductTotals;
+import com.example.ordermanagement.domain.repository.SalesRollupRepository.Totals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceImplTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SalesRollupServiceImpl salesRollupService;
+
+    @BeforeEach
+    void setUp() {
+        salesRollupService = new SalesRollupServiceImpl(salesRollupRepository, new SalesRollupProperties(),
+                transactionManager);
+    }
+
+    @Test
+    void recordCreated_MergesOrdersOfTheSameDayAndProductLines() {
+        var first = order("2024-03-01T10:00:00Z", OrderStatus.PENDING, line(1L, 2, "10.00"), line(1L, 1, "5.00"));
+        var second = order("2024-03-01T23:59:59Z", OrderStatus.PENDING, line(2L, 3, "30.00"));
+
+        salesRollupService.recordCreated(List.of(first, second));
+
+        var orderTotals = captureOrderTotals();
+        var productTotals = captureProductTotals();
+        assertThat(orderTotals.getValue()).containsExactly(
+                new Totals(DAY, OrderStatus.PENDING, 2, 6, new BigDecimal("45.00")));
+        assertThat(productTotals.getValue()).containsExactlyInAnyOrder(
+                new ProductTotals(DAY, 1L, OrderStatus.PENDING, 1, 3, new BigDecimal("15.00")),
+                new ProductTotals(DAY, 2L, OrderStatus.PENDING, 1, 3, new BigDecimal("30.00")));
+    }
+
+    @Test
+    void recordStatusChange_MovesTotalsToTheNewStatus() {
+        var order = order("2024-03-01T10:00:00Z", OrderStatus.CANCELLED, line(1L, 2, "10.00"));
+
+        salesRollupService.recordStatusChange(order, OrderStatus.PENDING);
+
+        var orderTotals = captureOrderTotals();
+        var productTotals = captureProductTotals();
+        assertThat(orderTotals.getValue()).containsExactly(
+                new Totals(DAY, OrderStatus.PENDING, -1, -2, new BigDecimal("-10.00")),
+                new Totals(DAY, OrderStatus.CANCELLED, 1, 2, new BigDecimal("10.00")));
+        assertThat(productTotals.getValue()).containsExactly(
+                new ProductTotals(DAY, 1L, OrderStatus.PENDING, -1, -2, new BigDecimal("-10.00")),
+                new ProductTotals(DAY, 1L, OrderStatus.CANCELLED, 1, 2, new BigDecimal("10.00")));
+    }
+
+    @Test
+    void removeOrdersOfUser_SubtractsTheirTotals() {
+        when(salesRollupRepository.orderTotalsOfUser(1L)).thenReturn(
+                List.of(new Totals(DAY, OrderStatus.PENDING, 2, 4, new BigDecimal("40.00"))));
+        when(salesRollupRepository.productTotalsOfUser(1L)).thenReturn(List.of());
+
+        salesRollupService.removeOrdersOfUser(1L);
+
+        verify(salesRollupRepository).add(eq(List.of(new Totals(DAY, OrderStatus.PENDING, -2, -4,
+                new BigDecimal("-40.00")))), eq(List.of()), anyShort());
+    }
+
+    @Test
+    void getRevenue_ByProduct_ReadsRollupsWithStatusAndLimit() {
+        salesRollupService.getRevenue(DAY, DAY.plusDays(6), "cancelled", "Product", null);
+
+        verify(salesRollupRepository).revenueByProduct(DAY, DAY.plusDays(6), OrderStatus.CANCELLED, 20);
+    }
+
+    @Test
+    void getRevenue_InvalidArguments_ThrowsException() {
+        assertThatThrownBy(() -> salesRollupService.getRevenue(DAY, DAY.minusDays(1), null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> salesRollupService.getRevenue(DAY, DAY, "SHIPPED", null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("SHIPPED");
+        assertThatThrownBy(() -> salesRollupService.getRevenue(DAY, DAY, null, "week", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> salesRollupService.getRevenue(DAY, DAY, null, "product",
+                SalesRollupServiceImpl.MAX_PRODUCTS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(salesRollupRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void startRebuild_RunsInTheBackgroundAndOnlyOnceAtATime() throws Exception {
+        var release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(salesRollupRepository).lockForRebuild();
+
+        assertThat(salesRollupService.startRebuild()).isTrue();
+        assertThat(salesRollupService.startRebuild()).isFalse();
+
+        release.countDown();
+        verify(salesRollupRepository, timeout(5_000)).add(anyList(), anyList(), anyShort());
+        salesRollupService.stopRebuild();
+    }
+
+    private ArgumentCaptor<List<Totals>> captureOrderTotals() {
+        ArgumentCaptor<List<Totals>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupRepository).add(captor.capture(), anyList(), anyShort());
+        return captor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<ProductTotals>> captureProductTotals() {
+        ArgumentCaptor<List<ProductTotals>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupRepository).add(anyList(), captor.capture(), anyShort());
+        return captor;
+    }
+
+    private static Order order(String createdAt, OrderStatus status, OrderItem... items) {
+        var order = Order.builder()
+                .status(status)
+                .totalAmount(BigDecimal.ZERO)
+                .build();
+        order.setCreatedAt(Instant.parse(createdAt));
+        for (var item : items) {
+            order.addItem(item);
+            order.setTotalAmount(order.getTotalAmount().add(item.getTotalPrice()));
+        }
+        return order;
+    }
+
+    private static OrderItem line(Long productId, int quantity, String totalPrice) {
+        var product = new Product();
+        product.setId(productId);
+        return OrderItem.builder()
+                .product(product)
+                .quantity(quantity)
+                .totalPrice(new BigDecimal(totalPrice))
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.ordermanagement.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedOrderNumberGeneratorTest {
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00.123Z");
+
+    private final TimeOrderedOrderNumberGenerator generator =
+            new TimeOrderedOrderNumberGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void next_UsesVersion7LayoutWithTimestamp() {
+        var orderNumber = generator.next();
+
+        assertThat(orderNumber.version()).isEqualTo(7);
+        assertThat(orderNumber.variant()).isEqualTo(2);
+        assertThat(orderNumber.getMostSignificantBits() >>> 16).isEqualTo(NOW.toEpochMilli());
+    }
+
+    @Test
+    void next_SameMillisecond_IsStrictlyIncreasing() {
+        List<UUID> orderNumbers = new ArrayList<>();
+        // More than the 4096 counter values available per millisecond
+        for (int i = 0; i < 10_000; i++) {
+            orderNumbers.add(generator.next());
+        }
+
+        for (int i = 1; i < orderNumbers.size(); i++) {
+            assertThat(compareUnsigned(orderNumbers.get(i - 1), orderNumbers.get(i))).isNegative();
+        }
+    }
+
+    @Test
+    void next_ClockGoesBackwards_KeepsIncreasing() {
+        var clock = new MutableClock(NOW);
+        var generator = new TimeOrderedOrderNumberGenerator(clock);
+
+        var before = generator.next();
+        clock.instant = NOW.minusSeconds(5);
+        var after = generator.next();
+
+        assertThat(compareUnsigned(before, after)).isNegative();
+    }
+
+    @Test
+    void next_ConcurrentCalls_NeverRepeat() throws Exception {
+        var generator = new TimeOrderedOrderNumberGenerator();
+        Set<UUID> orderNumbers = ConcurrentHashMap.newKeySet();
+
+        var executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    orderNumbers.add(generator.next());
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(orderNumbers).hasSize(80_000);
+    }
+
+    /**
+     * Byte order comparison, which is how PostgreSQL sorts uuid values.
+     */
+    private static int compareUnsigned(UUID a, UUID b) {
+        int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
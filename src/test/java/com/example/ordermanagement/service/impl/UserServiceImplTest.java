@@ -1,9 +1,13 @@
 package com.example.ordermanagement.service.impl;
 
 import com.example.ordermanagement.domain.model.User;
+import com.example.ordermanagement.domain.repository.OrderRepository;
 import com.example.ordermanagement.domain.repository.UserRepository;
 import com.example.ordermanagement.dto.CreateUserRequest;
+import com.example.ordermanagement.dto.UserDto;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
+import com.example.ordermanagement.service.OrderSearchCache;
+import com.example.ordermanagement.service.SalesRollupService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,8 +15,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,6 +32,15 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderSearchCache orderSearchCache;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -86,19 +101,32 @@ class UserServiceImplTest {
     }
 
     @Test
-    void getAllUsers_Success() {
-
+    void getUsers_FullPage_ReturnsCursorAfterItsLastUser() {
+        testUser.setId(1L);
         var user2 = new User();
         user2.setId(2L);
         user2.setUsername("testuser2");
 
-        when(userRepository.findAll()).thenReturn(Arrays.asList(testUser, user2));
+        when(userRepository.findByIdGreaterThanOrderById(0L, Limit.of(2))).thenReturn(Arrays.asList(testUser, user2));
 
-        var result = userService.getAllUsers();
+        var result = userService.getUsers(null, 1);
 
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getUsername()).isEqualTo(testUser.getUsername());
-        assertThat(result.get(1).getUsername()).isEqualTo(user2.getUsername());
+        assertThat(result.getItems()).extracting(UserDto::getUsername).containsExactly(testUser.getUsername());
+        assertThat(result.getNextCursor()).isEqualTo(new IdCursor(1L).encode());
+
+        when(userRepository.findByIdGreaterThanOrderById(1L, Limit.of(2))).thenReturn(List.of(user2));
+
+        var next = userService.getUsers(result.getNextCursor(), 1);
+
+        assertThat(next.getItems()).extracting(UserDto::getUsername).containsExactly("testuser2");
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getUsers_InvalidPageSize_ThrowsException() {
+        assertThatThrownBy(() -> userService.getUsers(null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -107,7 +135,12 @@ class UserServiceImplTest {
 
         userService.deleteUser(1L);
 
-        verify(userRepository).deleteById(1L);
+        var inOrder = inOrder(salesRollupService, orderRepository, userRepository);
+        inOrder.verify(salesRollupService).removeOrdersOfUser(1L);
+        inOrder.verify(orderRepository).deleteItemsByUserId(1L);
+        inOrder.verify(orderRepository).deleteByUserId(1L);
+        inOrder.verify(userRepository).deleteById(1L);
+        verify(orderSearchCache).invalidate(1L);
     }
 
     @Test
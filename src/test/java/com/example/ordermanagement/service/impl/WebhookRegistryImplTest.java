@@ -0,0 +1,130 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.domain.model.Webhook;
+import com.example.ordermanagement.domain.repository.WebhookRepository;
+import com.example.ordermanagement.exception.ResourceNotFoundException;
+import com.example.ordermanagement.service.WebhookRegistry.Subscription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookRegistryImplTest {
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+
+    @Mock
+    private WebhookRepository webhookRepository;
+    @Mock
+    private Clock clock;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WebhookRegistryImpl webhookRegistry;
+
+    @BeforeEach
+    void setUp() {
+        webhookRegistry = new WebhookRegistryImpl(webhookRepository, meterRegistry, clock);
+        lenient().when(clock.instant()).thenReturn(NOW);
+        lenient().when(webhookRepository.findAll())
+                .thenReturn(List.of(webhook(1L, "ORDER_CREATED"), webhook(2L, "ORDER_CREATED"),
+                        webhook(3L, "ORDER_CANCELLED")));
+
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void subscribers_LoadsOnceAndGroupsByEventType() {
+        assertThat(webhookRegistry.subscribers("ORDER_CREATED")).extracting(Subscription::id).containsOnly(1L, 2L);
+        assertThat(webhookRegistry.subscribers("ORDER_CANCELLED")).extracting(Subscription::id).containsOnly(3L);
+        assertThat(webhookRegistry.subscribers("ORDER_SHIPPED")).isEmpty();
+        assertThat(webhookRegistry.all()).hasSize(3);
+
+        verify(webhookRepository, times(1)).findAll();
+    }
+
+    @Test
+    void register_VisibleOnceCommitted() {
+        webhookRegistry.reload();
+        when(webhookRepository.save(any())).thenAnswer(invocation -> {
+            Webhook webhook = invocation.getArgument(0);
+            webhook.setId(4L);
+            return webhook;
+        });
+
+        webhookRegistry.register(webhook(null, "ORDER_CANCELLED"));
+        assertThat(webhookRegistry.subscribers("ORDER_CANCELLED")).extracting(Subscription::id).containsOnly(3L);
+
+        commit();
+        assertThat(webhookRegistry.subscribers("ORDER_CANCELLED")).extracting(Subscription::id)
+                .containsOnly(3L, 4L);
+        verify(webhookRepository, times(1)).findAll();
+    }
+
+    @Test
+    void delete_RemovedOnceCommitted() {
+        webhookRegistry.reload();
+        var webhook = webhook(1L, "ORDER_CREATED");
+        when(webhookRepository.findById(1L)).thenReturn(Optional.of(webhook));
+
+        webhookRegistry.delete(1L);
+        verify(webhookRepository).delete(webhook);
+        assertThat(webhookRegistry.subscribers("ORDER_CREATED")).extracting(Subscription::id).containsOnly(1L, 2L);
+
+        commit();
+        assertThat(webhookRegistry.subscribers("ORDER_CREATED")).extracting(Subscription::id).containsOnly(2L);
+    }
+
+    @Test
+    void delete_UnknownWebhook_ThrowsException() {
+        when(webhookRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> webhookRegistry.delete(99L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void reload_FailureKeepsSubscriptionsAndReportsStaleness() {
+        webhookRegistry.reload();
+        when(webhookRepository.findAll()).thenThrow(new IllegalStateException("connection lost"));
+        when(clock.instant()).thenReturn(NOW.plusSeconds(90));
+
+        webhookRegistry.reload();
+
+        assertThat(webhookRegistry.all()).hasSize(3);
+        assertThat(meterRegistry.get("webhooks.registry.size").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("webhooks.registry.staleness.seconds").gauge().value()).isEqualTo(90);
+    }
+
+    private static void commit() {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static Webhook webhook(Long id, String eventType) {
+        var webhook = Webhook.builder().url("http://example.com/" + id).eventType(eventType).status("ACTIVE")
+                .retryCount(0).build();
+        webhook.setId(id);
+        return webhook;
+    }
+}
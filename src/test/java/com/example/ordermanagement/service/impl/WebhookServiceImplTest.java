@@ -0,0 +1,439 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.WebhookDeliveryProperties;
+import com.example.ordermanagement.domain.model.OrderEvent;
+import com.example.ordermanagement.domain.model.OrderEventType;
+import com.example.ordermanagement.domain.model.Webhook;
+import com.example.ordermanagement.domain.model.WebhookDelivery;
+import com.example.ordermanagement.domain.model.WebhookDeliveryStatus;
+import com.example.ordermanagement.domain.repository.OrderEventRepository;
+import com.example.ordermanagement.domain.repository.WebhookDeliveryRepository;
+import com.example.ordermanagement.service.WebhookRegistry;
+import com.example.ordermanagement.service.WebhookRegistry.Subscription;
+import com.example.ordermanagement.service.WebhookStatusAccumulator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookServiceImplTest {
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+
+    @Mock
+    private WebhookRegistry webhookRegistry;
+    @Mock
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+    @Mock
+    private OrderEventRepository orderEventRepository;
+    @Mock
+    private WebhookStatusAccumulator webhookStatusAccumulator;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final WebhookDeliveryProperties properties = new WebhookDeliveryProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StubServer server = new StubServer();
+    private final Map<Long, Deque<WebhookDelivery>> queues = new ConcurrentHashMap<>();
+    private final Map<Long, OrderEvent> events = new HashMap<>();
+    private final List<Webhook> webhooks = new ArrayList<>();
+
+    private WebhookServiceImpl webhookService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxInFlightPerEndpoint(2);
+        properties.setCircuitFailureThreshold(3);
+        properties.setCircuitOpenDuration(Duration.ofMinutes(1));
+        properties.setInitialBackoff(Duration.ofMillis(100));
+        properties.setRequestTimeout(Duration.ofSeconds(5));
+
+        webhookService = new WebhookServiceImpl(webhookRegistry, webhookDeliveryRepository,
+                orderEventRepository, webhookStatusAccumulator, WebClient.create(), transactionTemplate, properties, meterRegistry);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        lenient().when(webhookRegistry.all()).thenAnswer(invocation ->
+                webhooks.stream().map(Subscription::of).toList());
+        // Deliveries leave the queue once leased, like rows whose next attempt was pushed past the lease
+        lenient().when(webhookDeliveryRepository.claimDue(anyLong(), any(), anyInt())).thenAnswer(invocation ->
+                queues.get(invocation.<Long>getArgument(0)).stream()
+                        .limit(invocation.<Integer>getArgument(2))
+                        .toList());
+        lenient().when(webhookDeliveryRepository.lease(anyCollection(), any())).thenAnswer(invocation -> {
+            var leased = Set.copyOf(invocation.<Collection<Long>>getArgument(0));
+            queues.values().forEach(queue -> queue.removeIf(delivery -> leased.contains(delivery.getId())));
+            return leased.size();
+        });
+        lenient().when(orderEventRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<OrderEvent> found = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(id -> found.add(events.get(id)));
+            return found;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void dispatch_QueuesOneDeliveryPerSubscribedWebhook() {
+        var event = event(1L);
+        when(webhookRegistry.subscribers("ORDER_CREATED"))
+                .thenReturn(List.of(Subscription.of(webhook(1L, "http://a")), Subscription.of(webhook(2L, "http://b"))));
+
+        webhookService.dispatch(event);
+
+        verify(webhookDeliveryRepository).enqueue(eq(1L), eq(List.of(1L, 2L)), any());
+    }
+
+    @Test
+    void dispatch_NoSubscribers_QueuesNothing() {
+        when(webhookRegistry.subscribers("ORDER_CREATED")).thenReturn(List.of());
+
+        webhookService.dispatch(event(1L));
+
+        verifyNoInteractions(webhookDeliveryRepository);
+    }
+
+    @Test
+    void deliverDue_SlowEndpoint_DoesNotHoldUpHealthyOne() {
+        var slow = register(1L, "/slow", 10);
+        var healthy = register(2L, "/healthy", 10);
+        server.respond("/slow", 1_000, 200);
+        server.respond("/healthy", 0, 200);
+
+        long startedAt = System.nanoTime();
+        pollUntil(() -> delivered(healthy) == 10, Duration.ofSeconds(3));
+        var healthyTime = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        assertThat(healthyTime).isLessThan(Duration.ofMillis(1_500));
+        assertThat(server.maxConcurrent("/slow")).isLessThanOrEqualTo(2);
+        assertThat(delivered(slow)).isLessThan(10);
+    }
+
+    @Test
+    void deliverDue_BatchedWebhook_SendsEventsAsArrays() throws Exception {
+        var batched = register(1L, "/batched", 5, 2, 0);
+        server.respond("/batched", 0, 200);
+
+        pollUntil(() -> delivered(batched) == 3, Duration.ofSeconds(3));
+
+        var mapper = new ObjectMapper();
+        List<Long> eventIds = new ArrayList<>();
+        for (var body : server.bodies("/batched")) {
+            var array = mapper.readTree(body);
+            assertThat(array.isArray()).isTrue();
+            array.forEach(event -> eventIds.add(event.get("id").asLong()));
+        }
+        assertThat(server.hits("/batched")).isEqualTo(3);
+        assertThat(eventIds).containsExactlyInAnyOrder(1_000L, 1_001L, 1_002L, 1_003L, 1_004L);
+        verify(webhookDeliveryRepository, times(5)).recordAttempt(anyLong(), eq(WebhookDeliveryStatus.DELIVERED),
+                eq(1), any(), isNull(), any());
+
+        var batchSize = meterRegistry.get("webhooks.delivery.batch.size").tag("webhook", "1").summary();
+        assertThat(batchSize.count()).isEqualTo(3);
+        assertThat(batchSize.totalAmount()).isEqualTo(5);
+        assertThat(meterRegistry.get("webhooks.delivery.endpoint.latency").tag("webhook", "1").timer().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("webhooks.delivery.latency").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void deliverDue_DeletedWebhook_RemovesItsMeters() {
+        var webhook = register(1L, "/deleted", 1);
+        server.respond("/deleted", 0, 200);
+        pollUntil(() -> delivered(webhook) == 1, Duration.ofSeconds(3));
+        assertThat(meterRegistry.find("webhooks.delivery.batch.size").tag("webhook", "1").summary()).isNotNull();
+
+        webhooks.clear();
+        webhookService.deliverDue();
+
+        assertThat(meterRegistry.find("webhooks.delivery.batch.size").tag("webhook", "1").summary()).isNull();
+        assertThat(meterRegistry.find("webhooks.delivery.endpoint.latency").tag("webhook", "1").timer()).isNull();
+        assertThat(meterRegistry.get("webhooks.delivery.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deliverDue_PartialBatch_WaitsForLinger() {
+        register(1L, "/batched", 3, 10, 60_000);
+        server.respond("/batched", 0, 200);
+
+        pollUntil(() -> false, Duration.ofMillis(200));
+
+        assertThat(server.hits("/batched")).isZero();
+        verify(webhookDeliveryRepository, never()).lease(anyCollection(), any());
+    }
+
+    @Test
+    void deliverDue_PartialBatch_LingerCountsFromWhenDeliveryWasQueued() {
+        register(1L, "/batched", 3, 10, 60_000);
+        // A retry becomes due again long after it was queued, so it has lingered enough already
+        queues.get(1L).forEach(delivery -> delivery.setCreatedAt(Instant.now().minusSeconds(120)));
+        server.respond("/batched", 0, 200);
+
+        pollUntil(() -> server.hits("/batched") == 1, Duration.ofSeconds(3));
+
+        assertThat(server.hits("/batched")).isEqualTo(1);
+    }
+
+    @Test
+    void jsonArray_JoinsEncodedPayloads() {
+        var joined = WebhookServiceImpl.jsonArray(List.of(
+                "{\"a\":1}".getBytes(StandardCharsets.UTF_8), "{\"b\":2}".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(new String(joined, StandardCharsets.UTF_8)).isEqualTo("[{\"a\":1},{\"b\":2}]");
+        assertThat(WebhookServiceImpl.jsonArray(List.of())).isEqualTo("[]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void deliverDue_FailingEndpoint_OpensCircuitAndSchedulesRetries() {
+        var broken = register(1L, "/broken", 10);
+        server.respond("/broken", 0, 500);
+
+        pollUntil(() -> attempts(broken) >= 3, Duration.ofSeconds(3));
+        // Let requests that were already in flight when the circuit opened finish
+        pollUntil(() -> false, Duration.ofMillis(200));
+        int hitsWhenOpen = server.hits("/broken");
+        pollUntil(() -> false, Duration.ofMillis(300));
+
+        // Three failures open the circuit; one more may already have been in flight
+        assertThat(hitsWhenOpen).isBetween(3, 4);
+        assertThat(server.hits("/broken")).isEqualTo(hitsWhenOpen);
+        verify(webhookDeliveryRepository, times(hitsWhenOpen)).recordAttempt(anyLong(),
+                eq(WebhookDeliveryStatus.PENDING), eq(1), argThat(next -> next.isAfter(Instant.now().minusSeconds(5))),
+                any(), isNull());
+        verify(webhookStatusAccumulator, times(hitsWhenOpen)).record(eq(broken.getId()), eq(false), any());
+    }
+
+    @Test
+    void deliverDue_LastAttemptFails_MarksDeliveryFailed() {
+        properties.setMaxAttempts(1);
+        var broken = register(1L, "/broken", 1);
+        server.respond("/broken", 0, 503);
+
+        pollUntil(() -> attempts(broken) == 1, Duration.ofSeconds(3));
+
+        verify(webhookDeliveryRepository).recordAttempt(anyLong(), eq(WebhookDeliveryStatus.FAILED), eq(1), any(),
+                argThat(error -> error.contains("503")), isNull());
+    }
+
+    @Test
+    void endpointState_HalfOpenAllowsSingleTrial() {
+        var endpoint = new WebhookServiceImpl.EndpointState(4, 2, Duration.ofSeconds(30));
+        assertThat(endpoint.availablePermits(NOW)).isEqualTo(4);
+
+        endpoint.acquire();
+        endpoint.acquire();
+        assertThat(endpoint.onFailure(NOW)).isFalse();
+        assertThat(endpoint.onFailure(NOW)).isTrue();
+        assertThat(endpoint.availablePermits(NOW.plusSeconds(29))).isZero();
+
+        var halfOpen = NOW.plusSeconds(30);
+        assertThat(endpoint.availablePermits(halfOpen)).isEqualTo(1);
+        endpoint.acquire();
+        assertThat(endpoint.availablePermits(halfOpen)).isZero();
+        assertThat(endpoint.onFailure(halfOpen)).isTrue();
+        assertThat(endpoint.availablePermits(halfOpen.plusSeconds(29))).isZero();
+
+        var secondTrial = halfOpen.plusSeconds(30);
+        endpoint.acquire();
+        endpoint.onSuccess();
+        assertThat(endpoint.availablePermits(secondTrial)).isEqualTo(4);
+    }
+
+    @Test
+    void backoff_GrowsExponentiallyUpToMax() {
+        var initial = Duration.ofSeconds(1);
+        var max = Duration.ofMinutes(1);
+
+        assertThat(WebhookServiceImpl.backoff(1, initial, max)).isBetween(Duration.ofMillis(500), initial);
+        assertThat(WebhookServiceImpl.backoff(4, initial, max)).isBetween(Duration.ofSeconds(4), Duration.ofSeconds(8));
+        assertThat(WebhookServiceImpl.backoff(40, initial, max)).isBetween(Duration.ofSeconds(30), max);
+    }
+
+    private Webhook register(Long id, String path, int deliveries) {
+        return register(id, path, deliveries, null, null);
+    }
+
+    private Webhook register(Long id, String path, int deliveries, Integer maxBatchSize, Integer maxLingerMs) {
+        var webhook = webhook(id, server.url(path));
+        webhook.setMaxBatchSize(maxBatchSize);
+        webhook.setMaxLingerMs(maxLingerMs);
+        webhooks.add(webhook);
+        Deque<WebhookDelivery> queue = new ArrayDeque<>();
+        IntStream.range(0, deliveries).forEach(i -> {
+            long eventId = id * 1_000 + i;
+            events.put(eventId, event(eventId));
+            var delivery = WebhookDelivery.builder()
+                    .webhook(webhook)
+                    .event(events.get(eventId))
+                    .status(WebhookDeliveryStatus.PENDING)
+                    .attempts(0)
+                    .nextAttemptAt(Instant.now())
+                    .build();
+            delivery.setId(eventId);
+            delivery.setCreatedAt(Instant.now());
+            queue.add(delivery);
+        });
+        queues.put(id, queue);
+        return webhook;
+    }
+
+    private int delivered(Webhook webhook) {
+        return (int) mockingDetails(webhookStatusAccumulator).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("record"))
+                .filter(invocation -> invocation.getArgument(0).equals(webhook.getId())
+                        && invocation.getArgument(1).equals(true))
+                .count();
+    }
+
+    private int attempts(Webhook webhook) {
+        return (int) mockingDetails(webhookStatusAccumulator).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("record"))
+                .filter(invocation -> invocation.getArgument(0).equals(webhook.getId()))
+                .count();
+    }
+
+    /**
+     * Runs the delivery poller the way the scheduler would until the condition holds.
+     */
+    private void pollUntil(Supplier<Boolean> condition, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.get() && System.nanoTime() < deadline) {
+            webhookService.deliverDue();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static Webhook webhook(Long id, String url) {
+        var webhook = Webhook.builder().url(url).eventType("ORDER_CREATED").status("ACTIVE").retryCount(0).build();
+        webhook.setId(id);
+        return webhook;
+    }
+
+    private static OrderEvent event(Long id) {
+        var event = OrderEvent.builder()
+                .eventType(OrderEventType.ORDER_CREATED)
+                .orderNumber(UUID.randomUUID())
+                .payload(("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8))
+                .schemaVersion(1)
+                .build();
+        event.setId(id);
+        return event;
+    }
+
+    /**
+     * Local HTTP server whose paths answer with a configurable delay and status code.
+     */
+    private static final class StubServer {
+        private final HttpServer server;
+        private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> concurrent = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> maxConcurrent = new ConcurrentHashMap<>();
+        private final Map<String, Queue<String>> bodies = new ConcurrentHashMap<>();
+
+        StubServer() {
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+        }
+
+        void respond(String path, long delayMillis, int status) {
+            hits.put(path, new AtomicInteger());
+            concurrent.put(path, new AtomicInteger());
+            maxConcurrent.put(path, new AtomicInteger());
+            bodies.put(path, new ConcurrentLinkedQueue<>());
+            server.createContext(path, exchange -> {
+                hits.get(path).incrementAndGet();
+                int now = concurrent.get(path).incrementAndGet();
+                maxConcurrent.get(path).accumulateAndGet(now, Math::max);
+                try {
+                    bodies.get(path).add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                    Thread.sleep(delayMillis);
+                    exchange.sendResponseHeaders(status, -1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    concurrent.get(path).decrementAndGet();
+                    exchange.close();
+                }
+            });
+        }
+
+        String url(String path) {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        }
+
+        int hits(String path) {
+            return hits.get(path).get();
+        }
+
+        List<String> bodies(String path) {
+            return List.copyOf(bodies.get(path));
+        }
+
+        int maxConcurrent(String path) {
+            return maxConcurrent.get(path).get();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+    }
+}
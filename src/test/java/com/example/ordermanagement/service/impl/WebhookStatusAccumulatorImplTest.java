@@ -0,0 +1,123 @@
+package com.example.ordermanagement.service.impl;
+
+import com.example.ordermanagement.config.WebhookDeliveryProperties;
+import com.example.ordermanagement.domain.repository.WebhookJdbcRepository;
+import com.example.ordermanagement.domain.repository.WebhookJdbcRepository.WebhookOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookStatusAccumulatorImplTest {
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+
+    @Mock
+    private WebhookJdbcRepository webhookJdbcRepository;
+
+    private final WebhookDeliveryProperties properties = new WebhookDeliveryProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WebhookStatusAccumulatorImpl accumulator;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxPendingStatusUpdates(2);
+        accumulator = new WebhookStatusAccumulatorImpl(webhookJdbcRepository, properties, meterRegistry);
+    }
+
+    @Test
+    void flush_WritesOneAggregatedUpdatePerWebhook() {
+        accumulator.record(1L, false, NOW);
+        accumulator.record(1L, true, NOW.plusSeconds(2));
+        accumulator.record(1L, false, NOW.plusSeconds(1));
+        accumulator.record(2L, false, NOW);
+
+        accumulator.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WebhookOutcome>> outcomes = ArgumentCaptor.forClass(List.class);
+        verify(webhookJdbcRepository).applyOutcomes(outcomes.capture());
+        assertThat(outcomes.getValue()).containsExactlyInAnyOrder(
+                new WebhookOutcome(1L, "SUCCESS", NOW.plusSeconds(2), 2),
+                new WebhookOutcome(2L, "FAILED", NOW, 1));
+        assertThat(meterRegistry.counter("webhooks.status.updates.flushed").count()).isEqualTo(2);
+        assertThat(accumulator.pendingUpdates()).isZero();
+    }
+
+    @Test
+    void flush_NothingRecorded_DoesNotTouchDatabase() {
+        accumulator.flush();
+
+        verifyNoInteractions(webhookJdbcRepository);
+    }
+
+    @Test
+    void flush_Failure_KeepsUpdatesForNextFlush() {
+        accumulator.record(1L, false, NOW);
+        doThrow(new IllegalStateException("connection lost")).doNothing()
+                .when(webhookJdbcRepository).applyOutcomes(anyList());
+
+        accumulator.flush();
+        accumulator.record(1L, false, NOW.plusSeconds(1));
+        accumulator.flush();
+
+        verify(webhookJdbcRepository, times(2)).applyOutcomes(anyList());
+        verify(webhookJdbcRepository).applyOutcomes(List.of(new WebhookOutcome(1L, "FAILED", NOW.plusSeconds(1), 2)));
+        assertThat(meterRegistry.counter("webhooks.status.updates.flushed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void record_TooManyPendingWebhooks_DropsNewOnes() {
+        accumulator.record(1L, true, NOW);
+        accumulator.record(2L, true, NOW);
+        accumulator.record(3L, true, NOW);
+        accumulator.record(1L, false, NOW.plusSeconds(1));
+
+        assertThat(accumulator.pendingUpdates()).isEqualTo(2);
+        assertThat(meterRegistry.counter("webhooks.status.updates.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void record_ConcurrentWithFlush_LosesNoFailures() throws Exception {
+        properties.setMaxPendingStatusUpdates(100);
+        var executor = Executors.newFixedThreadPool(8);
+        var start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) {
+                        accumulator.record((long) (i % 10), false, NOW);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        while (!executor.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            accumulator.flush();
+        }
+        accumulator.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WebhookOutcome>> outcomes = ArgumentCaptor.forClass(List.class);
+        verify(webhookJdbcRepository, atLeastOnce()).applyOutcomes(outcomes.capture());
+        assertThat(outcomes.getAllValues().stream().flatMap(List::stream).mapToInt(WebhookOutcome::failures).sum())
+                .isEqualTo(80_000);
+    }
+}